@@ -0,0 +1,45 @@
+package com.klm.pms.config;
+
+import com.klm.pms.service.AuditPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns {@code audit_logs} into a monthly partitioned table on startup and brings its
+ * partitions up to date.
+ * <p>
+ * Hibernate's {@code ddl-auto=update} creates {@code audit_logs} as a plain table and
+ * cannot express partitioning, so the first start after an upgrade (or on an empty
+ * database) converts it, copying existing rows. Later starts only run the regular
+ * partition maintenance. If either step fails, a warning is logged and the application
+ * starts with the table as it is.
+ */
+@Component
+@Order(0)
+public class AuditPartitionInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionInitializer.class);
+
+    @Autowired
+    private AuditPartitionService auditPartitionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            auditPartitionService.createIndexes();
+            if (!auditPartitionService.isPartitioned()) {
+                auditPartitionService.convertToPartitioned();
+            }
+            auditPartitionService.maintainPartitions();
+        } catch (DataAccessException e) {
+            logger.warn("Could not set up audit log partitions; audit_logs stays as it is: {}",
+                    e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.klm.pms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.model.AuditedEntity;
+import com.klm.pms.service.AuditService;
+import com.klm.pms.service.EntityAuditPlan;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.metamodel.mapping.EntityIdentifierMapping;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes audit logs for {@link AuditedEntity} entities from Hibernate's post-insert,
+ * post-update and post-delete events.
+ * <p>
+ * Hibernate already tracks the state each entity was loaded with and works out the
+ * dirty properties when it flushes, so updates are diffed from those arrays: no copy of
+ * the entity is taken before it is modified and no extra query is run. Events fire
+ * during flush, inside the business transaction; {@link AuditService} queues the rows
+ * for after commit.
+ * <p>
+ * Rows written without Hibernate, such as the JDBC batch insert of group reservations,
+ * raise no events and are audited by the code that writes them.
+ */
+@Component
+public class HibernateAuditListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateAuditListener.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Keyed by Hibernate entity name; only written during startup
+    private final Map<String, EntityAuditPlan> plans = new HashMap<>();
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        MappingMetamodelImplementor metamodel = sessionFactory.getMappingMetamodel();
+        metamodel.forEachEntityDescriptor(persister -> {
+            if (persister.getMappedClass().isAnnotationPresent(AuditedEntity.class)) {
+                plans.put(persister.getEntityName(), planOf(persister, metamodel));
+            }
+        });
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        logger.info("Registered Hibernate audit listener for {} entity type(s)", plans.size());
+    }
+
+    private static EntityAuditPlan planOf(EntityPersister persister, MappingMetamodelImplementor metamodel) {
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        EntityAuditPlan.Builder plan = EntityAuditPlan.builder(persister.getMappedClass().getSimpleName(), names.length);
+        for (int i = 0; i < names.length; i++) {
+            if (types[i].isCollectionType()) {
+                continue;
+            }
+            if (types[i] instanceof EntityType reference) {
+                EntityIdentifierMapping target = metamodel
+                        .getEntityDescriptor(reference.getAssociatedEntityName())
+                        .getIdentifierMapping();
+                plan.reference(i, names[i], target::getIdentifier);
+            } else {
+                plan.value(i, names[i]);
+            }
+        }
+        EntityAuditPlan built = plan.build();
+        logger.debug("Audit plan for {}: {} of {} properties", built.getEntityType(), built.size(), names.length);
+        return built;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityAuditPlan plan = plans.get(event.getPersister().getEntityName());
+        if (plan != null) {
+            auditService.logCreate(plan.getEntityType(), toLong(event.getId()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityAuditPlan plan = plans.get(event.getPersister().getEntityName());
+        if (plan == null) {
+            return;
+        }
+        String changes = null;
+        try {
+            changes = plan.diff(event.getOldState(), event.getState(), event.getDirtyProperties(), objectMapper);
+        } catch (Exception e) {
+            // Don't let audit logging failures break the main operation
+            logger.warn("Failed to compare entity states for audit log of {} {}", plan.getEntityType(), event.getId(), e);
+        }
+        auditService.logUpdate(plan.getEntityType(), toLong(event.getId()), changes);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityAuditPlan plan = plans.get(event.getPersister().getEntityName());
+        if (plan != null) {
+            auditService.logDelete(plan.getEntityType(), toLong(event.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long toLong(Object id) {
+        return id instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.klm.pms.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Customizes the application's {@code ObjectMapper}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * DTOs supporting the {@code fields} parameter carry a {@code @JsonFilter}; unless
+     * {@link SparseFieldsetResponseBodyAdvice} supplies a filter, all their properties are written.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer serializeAllByDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.klm.pms.config;
+
+import com.klm.pms.service.ReferenceDataCache;
+import com.klm.pms.service.ReferenceDataCache.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Puts in place the version rows behind the reference data ETags (see {@link ReferenceDataCache}):
+ * a {@code reference_data_versions} row per resource, and a statement-level trigger on every
+ * table a resource is built from that bumps the resource's version in the writing transaction.
+ * <p>
+ * Being triggers, they count every write to those tables, from any instance sharing the database
+ * and from outside the application alike. A new row starts at the current time in milliseconds,
+ * so a recreated table does not hand out the versions of an earlier one. Every statement is
+ * idempotent; unlike the other initializers, failures are not swallowed, since the ETags cannot
+ * be served without these rows.
+ */
+@Component
+@Order(0)
+public class ReferenceDataVersionInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataVersionInitializer.class);
+
+    private static final String TRIGGER_NAME = "trg_reference_data_version";
+
+    // The resources whose representation includes each table
+    private static final Map<String, Set<Resource>> AFFECTED = new LinkedHashMap<>();
+
+    static {
+        AFFECTED.put("room_types", EnumSet.of(Resource.ROOM_TYPES, Resource.RATE_TYPES, Resource.ROOMS));
+        AFFECTED.put("rate_types", EnumSet.of(Resource.RATE_TYPES));
+        AFFECTED.put("rate_type_room_type_rates", EnumSet.of(Resource.RATE_TYPES));
+        AFFECTED.put("rooms", EnumSet.of(Resource.ROOMS));
+    }
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + ReferenceDataCache.VERSIONS_TABLE + " (" +
+            "resource VARCHAR(32) PRIMARY KEY, " +
+            "version BIGINT NOT NULL)";
+
+    private static final String INSERT_VERSION =
+            "INSERT INTO " + ReferenceDataCache.VERSIONS_TABLE + " (resource, version) " +
+            "VALUES (?, (extract(epoch FROM clock_timestamp()) * 1000)::bigint) ON CONFLICT (resource) DO NOTHING";
+
+    // Bumps the resources named in the trigger arguments, in a fixed order
+    private static final String CREATE_FUNCTION =
+            "CREATE OR REPLACE FUNCTION bump_reference_data_version() RETURNS trigger AS $$ " +
+            "DECLARE affected text; BEGIN " +
+            "FOR affected IN SELECT unnest(TG_ARGV) ORDER BY 1 LOOP " +
+            "UPDATE " + ReferenceDataCache.VERSIONS_TABLE + " SET version = version + 1 WHERE resource = affected; " +
+            "END LOOP; RETURN NULL; END $$ LANGUAGE plpgsql";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute(CREATE_TABLE);
+        for (Resource resource : Resource.values()) {
+            jdbcTemplate.update(INSERT_VERSION, resource.name());
+        }
+        jdbcTemplate.execute(CREATE_FUNCTION);
+        AFFECTED.forEach((table, resources) -> jdbcTemplate.execute(createTrigger(table, resources)));
+        logger.info("Reference data versions are tracked on {}", AFFECTED.keySet());
+    }
+
+    private static String createTrigger(String table, Set<Resource> resources) {
+        String arguments = resources.stream()
+                .map(resource -> "'" + resource.name() + "'")
+                .collect(Collectors.joining(", "));
+        return "CREATE OR REPLACE TRIGGER " + TRIGGER_NAME + " " +
+               "AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON " + table + " " +
+               "FOR EACH STATEMENT EXECUTE FUNCTION bump_reference_data_version(" + arguments + ")";
+    }
+}
@@ -0,0 +1,55 @@
+package com.klm.pms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the PostgreSQL exclusion constraint that forbids two active reservations of the
+ * same room from overlapping, as the database-level guard behind the in-process
+ * booking locks.
+ * <p>
+ * Hibernate's {@code ddl-auto=update} cannot express exclusion constraints, so the
+ * constraint is created here once the schema exists. Both statements are idempotent.
+ * If the database user may not create extensions, or existing rows already overlap,
+ * a warning is logged and the application starts without the constraint.
+ */
+@Component
+@Order(0)
+public class ReservationConstraintInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationConstraintInitializer.class);
+
+    public static final String CONSTRAINT_NAME = "ex_reservations_room_stay";
+
+    private static final String CREATE_EXTENSION = "CREATE EXTENSION IF NOT EXISTS btree_gist";
+
+    private static final String ADD_CONSTRAINT =
+            "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + CONSTRAINT_NAME + "') THEN " +
+            "ALTER TABLE reservations ADD CONSTRAINT " + CONSTRAINT_NAME + " EXCLUDE USING gist (" +
+            "room_id WITH =, daterange(check_in_date, check_out_date, '[)') WITH &&) " +
+            "WHERE (status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT')); " +
+            "END IF; END $$";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute(CREATE_EXTENSION);
+            jdbcTemplate.execute(ADD_CONSTRAINT);
+            logger.info("Reservation overlap exclusion constraint {} is in place", CONSTRAINT_NAME);
+        } catch (DataAccessException e) {
+            logger.warn("Could not create reservation overlap exclusion constraint {}; " +
+                    "double bookings are only prevented in-process: {}", CONSTRAINT_NAME, e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.klm.pms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the inventory reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,77 @@
+package com.klm.pms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sets up free-text search of guests, rooms and reservations: makes each table's
+ * {@code search_text} column a stored generated column holding the lower-cased
+ * concatenation of its searchable columns, and covers it with a {@code pg_trgm} GIN index.
+ * <p>
+ * Hibernate's {@code ddl-auto=update} creates {@code search_text} as a plain column and
+ * can express neither generated columns nor GIN indexes, so both are put in place here
+ * once the schema exists. A plain column is replaced by the generated one; every statement
+ * is idempotent. If the database user may not create extensions, a warning is logged and
+ * searches scan their tables.
+ */
+@Component
+@Order(0)
+public class SearchTextInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchTextInitializer.class);
+
+    private static final String CREATE_EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    private static final Map<String, String> SEARCHABLE_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        SEARCHABLE_COLUMNS.put("guests", "first_name, last_name, email, phone_number, address, city");
+        SEARCHABLE_COLUMNS.put("rooms", "room_number, description, amenities");
+        SEARCHABLE_COLUMNS.put("reservations", "reservation_number, special_requests");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute(CREATE_EXTENSION);
+            SEARCHABLE_COLUMNS.forEach((table, columns) -> {
+                jdbcTemplate.execute(generateSearchText(table, columns));
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_search_text_trgm ON " + table +
+                        " USING gin (search_text gin_trgm_ops)");
+            });
+            logger.info("Trigram search is in place on {}", SEARCHABLE_COLUMNS.keySet());
+        } catch (DataAccessException e) {
+            logger.warn("Could not set up trigram search; searches will scan their tables: {}",
+                    e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static String generateSearchText(String table, String columns) {
+        StringBuilder expression = new StringBuilder();
+        for (String column : columns.split(", ")) {
+            if (!expression.isEmpty()) {
+                expression.append(" || ' ' || ");
+            }
+            expression.append("coalesce(").append(column).append(", '')");
+        }
+        return "DO $$ BEGIN " +
+               "IF NOT EXISTS (SELECT 1 FROM pg_attribute WHERE attrelid = '" + table + "'::regclass " +
+               "AND attname = 'search_text' AND attgenerated = 's') THEN " +
+               "ALTER TABLE " + table + " DROP COLUMN IF EXISTS search_text, " +
+               "ADD COLUMN search_text text GENERATED ALWAYS AS (lower(" + expression + ")) STORED; " +
+               "END IF; END $$";
+    }
+}
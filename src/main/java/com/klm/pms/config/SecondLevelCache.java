@@ -0,0 +1,123 @@
+package com.klm.pms.config;
+
+import com.klm.pms.dto.CacheRegionMetricsDTO;
+import com.klm.pms.util.Constants;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process Hibernate second-level cache for the rarely changing entities read on most
+ * reservation and invoice operations: rooms, room types, rate types and their rates.
+ * <p>
+ * Regions live in an Ehcache heap cache behind JCache, so no cache server is involved.
+ * Each region holds at most {@code cache.second-level.heap-entries} entries, evicting the
+ * least recently used beyond that, and drops entries after
+ * {@code cache.second-level.time-to-live} as a backstop. Entities are cached read-write,
+ * so updates through JPA keep the cache consistent; rows changed by SQL outside Hibernate
+ * are seen once their entries expire. Rooms and rate types are also cached by natural id,
+ * the room number and the rate type name.
+ * <p>
+ * Hibernate statistics are enabled for the hit and miss counts of each region.
+ */
+@Component
+public class SecondLevelCache implements HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    private static final URI CACHE_MANAGER_URI = URI.create("urn:pms:second-level-cache");
+
+    public static final List<String> REGIONS = List.of(
+            Constants.CACHE_REGION_ROOM,
+            Constants.CACHE_REGION_ROOM_NATURAL_ID,
+            Constants.CACHE_REGION_ROOM_TYPE,
+            Constants.CACHE_REGION_RATE_TYPE,
+            Constants.CACHE_REGION_RATE_TYPE_NATURAL_ID,
+            Constants.CACHE_REGION_RATE);
+
+    // Looked up lazily: the entity manager factory is built with this bean's properties
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final long heapEntries;
+    private final CacheManager cacheManager;
+
+    public SecondLevelCache(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                            @Value("${cache.second-level.heap-entries:10000}") long heapEntries,
+                            @Value("${cache.second-level.time-to-live:PT1H}") Duration timeToLive) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.heapEntries = heapEntries;
+
+        CacheConfiguration<Object, Object> region = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(heapEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+                .build();
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (String name : REGIONS) {
+            configuration = configuration.withCache(name, region);
+        }
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        this.cacheManager = provider.getCacheManager(CACHE_MANAGER_URI, configuration.build());
+        logger.info("Second-level cache: {} region(s) of up to {} entries, expiring after {}",
+                REGIONS.size(), heapEntries, timeToLive);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        // Every cached entity names one of the regions above
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+    }
+
+    /**
+     * Size limit, hit, miss and put counts of each region, in {@link #REGIONS} order.
+     */
+    public Map<String, CacheRegionMetricsDTO> getMetrics() {
+        Statistics statistics = entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheRegionMetricsDTO> metrics = new LinkedHashMap<>();
+        for (String name : REGIONS) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            CacheRegionMetricsDTO regionMetrics = new CacheRegionMetricsDTO();
+            regionMetrics.setMaxEntries(heapEntries);
+            regionMetrics.setHits(region.getHitCount());
+            regionMetrics.setMisses(region.getMissCount());
+            regionMetrics.setPuts(region.getPutCount());
+            long lookups = region.getHitCount() + region.getMissCount();
+            regionMetrics.setHitRatio(lookups > 0 ? (double) region.getHitCount() / lookups : null);
+            metrics.put(name, regionMetrics);
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
+    }
+}
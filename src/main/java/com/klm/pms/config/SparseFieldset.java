@@ -0,0 +1,19 @@
+package com.klm.pms.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint accepting the {@code fields} parameter: only the listed properties of
+ * the returned DTOs are written. See {@link com.klm.pms.dto.FieldSelection}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFieldset {
+    /**
+     * The DTO type returned, alone or in a page; it must carry a {@code @JsonFilter}.
+     */
+    Class<?> value();
+}
@@ -0,0 +1,54 @@
+package com.klm.pms.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.klm.pms.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes only the properties named by the {@code fields} parameter of endpoints marked
+ * {@link SparseFieldset}, by filtering the returned DTO type during serialization.
+ * <p>
+ * The filter applies to the top-level DTOs only; nested DTOs of other types are written
+ * in full. Which nested objects are loaded at all is decided by the service from the
+ * same parameters, and objects not loaded are left out.
+ */
+@ControllerAdvice
+public class SparseFieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter("fields");
+        Class<?> dtoType = returnType.getMethodAnnotation(SparseFieldset.class).value();
+        // Already validated by the controller
+        Set<String> selected = FieldSelection.parse(fields, null, dtoType, List.of()).getFields();
+        if (selected != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                    .addFilter(dtoType.getAnnotation(JsonFilter.class).value(),
+                            SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        }
+    }
+}
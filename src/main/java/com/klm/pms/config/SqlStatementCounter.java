@@ -0,0 +1,38 @@
+package com.klm.pms.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements Hibernate prepares, exposed through the metrics endpoint.
+ * <p>
+ * Registered as the session factory's statement inspector, so it sees every query,
+ * insert, update and lazy load issued through JPA, but not statements run directly
+ * through {@code JdbcTemplate}. Comparing the count before and after a request shows
+ * how many statements the request cost, which is how N+1 lazy loading is caught.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final LongAdder statements = new LongAdder();
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public long getStatementCount() {
+        return statements.sum();
+    }
+}
@@ -1,10 +1,16 @@
 package com.klm.pms.controller;
 
 import com.klm.pms.dto.AuditLogDTO;
+import com.klm.pms.dto.AuditLogFilterRequest;
+import com.klm.pms.dto.CursorPageResponse;
 import com.klm.pms.dto.PageResponse;
+import com.klm.pms.mapper.AuditLogMapper;
 import com.klm.pms.model.AuditLog;
 import com.klm.pms.repository.AuditLogRepository;
+import com.klm.pms.repository.specification.AuditLogSpecification;
 import com.klm.pms.security.RequireRole;
+import com.klm.pms.service.AuditLogStream;
+import com.klm.pms.util.KeysetPaginationUtil;
 import com.klm.pms.util.SecurityContextUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,8 +25,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,6 +46,12 @@ public class AuditController {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditLogMapper auditLogMapper;
+
+    @Autowired
+    private AuditLogStream auditLogStream;
+
     @GetMapping
     @Operation(summary = "Get all audit logs", description = "Retrieves audit logs with pagination and filtering. Admin only.")
     @ApiResponses(value = {
@@ -45,7 +59,7 @@ public class AuditController {
             @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required"),
             @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
     })
-    public ResponseEntity<PageResponse<AuditLogDTO>> getAllAuditLogs(
+    public ResponseEntity<?> getAllAuditLogs(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") Integer size,
             @Parameter(description = "Sort by field (e.g., timestamp, username)") @RequestParam(required = false, defaultValue = "timestamp") String sortBy,
@@ -55,7 +69,9 @@ public class AuditController {
             @Parameter(description = "Username filter") @RequestParam(required = false) String username,
             @Parameter(description = "Action filter (CREATE, UPDATE, DELETE)") @RequestParam(required = false) AuditLog.AuditAction action,
             @Parameter(description = "Start date filter (ISO format)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @Parameter(description = "End date filter (ISO format)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @Parameter(description = "End date filter (ISO format)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Cursor from the previous page's nextCursor (switches to cursor pagination)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size for cursor pagination (switches to cursor pagination)") @RequestParam(required = false) Integer limit) {
         
         logger.info("GET /api/audit-logs - Fetching audit logs by admin: {}", SecurityContextUtil.getCurrentUsername());
         
@@ -63,22 +79,31 @@ public class AuditController {
         Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("asc") 
                 ? Sort.Direction.ASC 
                 : Sort.Direction.DESC;
-        Sort sort = Sort.by(direction, sortBy != null ? sortBy : "timestamp");
-        
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Sort.Order order = new Sort.Order(direction, sortBy != null ? sortBy : "timestamp");
+        
+        AuditLogFilterRequest filter = new AuditLogFilterRequest();
+        filter.setEntityType(entityType);
+        filter.setEntityId(entityId);
+        filter.setUsername(username);
+        filter.setAction(action);
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        
+        // Cursor pagination seeks past the previous page instead of counting and skipping rows
+        if (cursor != null || limit != null) {
+            CursorPageResponse<AuditLogDTO> response = KeysetPaginationUtil.fetch(auditLogRepository, AuditLog.class,
+                    AuditLogSpecification.withFilters(filter), cursor, limit, order, auditLogMapper::toDTO);
+            logger.info("GET /api/audit-logs - Retrieved {} audit log(s) by cursor", response.getContent().size());
+            return ResponseEntity.ok(response);
+        }
         
-        Page<AuditLog> auditLogPage;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(order));
         
-        // Use filtered query if any filters are provided
-        if (entityType != null || entityId != null || username != null || action != null || startDate != null || endDate != null) {
-            auditLogPage = auditLogRepository.findByFilters(
-                    entityType, entityId, username, action, startDate, endDate, pageable);
-        } else {
-            auditLogPage = auditLogRepository.findAll(pageable);
-        }
+        // Only the supplied filters become predicates
+        Page<AuditLog> auditLogPage = auditLogRepository.findAll(AuditLogSpecification.withFilters(filter), pageable);
         
         List<AuditLogDTO> auditLogDTOs = auditLogPage.getContent().stream()
-                .map(this::toDTO)
+                .map(auditLogMapper::toDTO)
                 .collect(Collectors.toList());
         
         PageResponse<AuditLogDTO> response = new PageResponse<>(
@@ -94,6 +119,25 @@ public class AuditController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream audit logs", description = "Streams audit logs as Server-Sent Events as they are written. " +
+            "Each event's id is the audit log id; reconnecting with Last-Event-ID (or lastEventId) first replays the audit logs written after it. " +
+            "Subscribers that fall too far behind are disconnected. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Audit log stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    public SseEmitter streamAuditLogs(
+            @Parameter(description = "ID of the last audit log received, sent by EventSource on reconnect") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @Parameter(description = "ID of the last audit log received, for clients that cannot set headers") @RequestParam(required = false) Long lastEventId) {
+        
+        Long resumeAfter = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        logger.info("GET /api/audit-logs/stream - Opening audit log stream for admin: {} (resuming after {})",
+                SecurityContextUtil.getCurrentUsername(), resumeAfter);
+        
+        return auditLogStream.subscribe(resumeAfter);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get audit log by ID", description = "Retrieves a specific audit log by its ID. Admin only.")
     @ApiResponses(value = {
@@ -112,7 +156,7 @@ public class AuditController {
                     return new RuntimeException("Audit log not found with id: " + id);
                 });
         
-        return ResponseEntity.ok(toDTO(auditLog));
+        return ResponseEntity.ok(auditLogMapper.toDTO(auditLog));
     }
 
     @GetMapping("/entity/{entityType}/{entityId}")
@@ -130,30 +174,11 @@ public class AuditController {
         List<AuditLog> auditLogs = auditLogRepository.findByEntityTypeAndEntityIdOrderByTimestampDesc(entityType, entityId);
         
         List<AuditLogDTO> auditLogDTOs = auditLogs.stream()
-                .map(this::toDTO)
+                .map(auditLogMapper::toDTO)
                 .collect(Collectors.toList());
         
         logger.info("GET /api/audit-logs/entity/{}/{} - Retrieved {} audit log(s)", entityType, entityId, auditLogDTOs.size());
         
         return ResponseEntity.ok(auditLogDTOs);
     }
-
-    /**
-     * Convert AuditLog entity to DTO.
-     */
-    private AuditLogDTO toDTO(AuditLog auditLog) {
-        AuditLogDTO dto = new AuditLogDTO();
-        dto.setId(auditLog.getId());
-        dto.setEntityType(auditLog.getEntityType());
-        dto.setEntityId(auditLog.getEntityId());
-        dto.setAction(auditLog.getAction());
-        dto.setUsername(auditLog.getUsername());
-        dto.setTimestamp(auditLog.getTimestamp());
-        dto.setChanges(auditLog.getChanges());
-        dto.setDescription(auditLog.getDescription());
-        dto.setRequestPath(auditLog.getRequestPath());
-        dto.setRequestMethod(auditLog.getRequestMethod());
-        return dto;
-    }
 }
-
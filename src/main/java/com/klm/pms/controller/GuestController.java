@@ -1,14 +1,19 @@
 package com.klm.pms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.dto.CursorPageResponse;
 import com.klm.pms.dto.GuestDTO;
 import com.klm.pms.dto.GuestFilterRequest;
 import com.klm.pms.dto.PageResponse;
+import com.klm.pms.security.RequireRole;
 import com.klm.pms.service.GuestService;
+import com.klm.pms.util.StreamingUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +36,9 @@ public class GuestController {
     @Autowired
     private GuestService guestService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(summary = "Create a new guest", description = "Creates a new guest record in the system")
     @ApiResponses(value = {
@@ -87,10 +96,13 @@ public class GuestController {
             @Parameter(description = "State filter") @RequestParam(required = false) String state,
             @Parameter(description = "Country filter") @RequestParam(required = false) String country,
             @Parameter(description = "Identification type filter") @RequestParam(required = false) String identificationType,
-            @Parameter(description = "Search term for name, email, phone, address") @RequestParam(required = false) String searchTerm) {
+            @Parameter(description = "Search term for name, email, phone, address") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Cursor from the previous page's nextCursor (switches to cursor pagination)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size for cursor pagination (switches to cursor pagination)") @RequestParam(required = false) Integer limit) {
         
         // If pagination or filter parameters are provided, use paginated endpoint
         if (page != null || size != null || sortBy != null || sortDir != null || 
+            cursor != null || limit != null || 
             firstName != null || lastName != null || email != null || 
             phoneNumber != null || city != null || state != null ||
             country != null || identificationType != null || searchTerm != null) {
@@ -107,6 +119,14 @@ public class GuestController {
             filter.setIdentificationType(identificationType);
             filter.setSearchTerm(searchTerm);
             
+            // Cursor pagination seeks past the previous page instead of counting and skipping rows
+            if (cursor != null || limit != null) {
+                logger.info("GET /api/guests - Fetching guests by cursor - limit: {}", limit);
+                CursorPageResponse<GuestDTO> response = guestService.getAllGuestsByCursor(filter, cursor, limit, sortBy, sortDir);
+                logger.info("GET /api/guests - Retrieved {} guest(s) by cursor", response.getContent().size());
+                return ResponseEntity.ok(response);
+            }
+            
             // Validate pagination parameters
             int[] pagination = com.klm.pms.util.ValidationUtil.validateAndNormalizePagination(page, size);
             int pageNum = pagination[0];
@@ -125,6 +145,17 @@ public class GuestController {
         }
     }
 
+    @GetMapping(params = "all=true")
+    @RequireRole("admin")
+    @Operation(summary = "Export all guests", description = "Streams every guest as one JSON array in id order. Pagination, sorting and filter parameters are ignored. Requires the admin role")
+    @ApiResponse(responseCode = "200", description = "All guests streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportAllGuests(
+            @Parameter(description = "Must be true to export every guest", required = true) @RequestParam boolean all,
+            HttpServletRequest request) {
+        logger.info("GET /api/guests?all=true - Streaming all guests");
+        return StreamingUtil.jsonArrayResponse(request, objectMapper, guestService::streamAllGuests);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update guest", description = "Updates an existing guest's information")
     @ApiResponses(value = {
@@ -0,0 +1,91 @@
+package com.klm.pms.controller;
+
+import com.klm.pms.dto.GuestDTO;
+import com.klm.pms.dto.GuestDuplicateScanResultDTO;
+import com.klm.pms.dto.GuestMergeProposalDTO;
+import com.klm.pms.dto.PageResponse;
+import com.klm.pms.model.GuestMergeProposal.ProposalStatus;
+import com.klm.pms.security.RequireRole;
+import com.klm.pms.service.GuestDuplicateService;
+import com.klm.pms.util.SecurityContextUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/guests/duplicates")
+@Tag(name = "Guest Duplicates", description = "APIs for finding and merging duplicate guests (Admin only)")
+@RequireRole("admin")
+public class GuestDuplicateController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestDuplicateController.class);
+
+    @Autowired
+    private GuestDuplicateService guestDuplicateService;
+
+    @GetMapping
+    @Operation(summary = "Get merge proposals", description = "Retrieves merge proposals with the given status, highest score first. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Merge proposals retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    public ResponseEntity<PageResponse<GuestMergeProposalDTO>> getProposals(
+            @Parameter(description = "Proposal status") @RequestParam(required = false, defaultValue = "PENDING") ProposalStatus status,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(required = false, defaultValue = "0") Integer page,
+            @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") Integer size) {
+        logger.info("GET /api/guests/duplicates - Fetching {} merge proposals", status);
+        PageResponse<GuestMergeProposalDTO> response = guestDuplicateService.getProposals(status, page, size);
+        logger.info("GET /api/guests/duplicates - Retrieved {} merge proposal(s) out of {} total",
+                response.getContent().size(), response.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/scan")
+    @Operation(summary = "Scan for duplicate guests", description = "Compares guests sharing a phone number, email local part or phonetic name " +
+            "and replaces the pending merge proposals with the pairs found. Also runs nightly. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Scan completed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    public ResponseEntity<GuestDuplicateScanResultDTO> scan() {
+        logger.info("POST /api/guests/duplicates/scan - Scan requested by admin: {}", SecurityContextUtil.getCurrentUsername());
+        return ResponseEntity.ok(guestDuplicateService.scan());
+    }
+
+    @PostMapping("/{id}/merge")
+    @Operation(summary = "Merge a proposed pair", description = "Moves the duplicate guest's reservations to the survivor, " +
+            "fills the survivor's blank fields from the duplicate and deletes the duplicate. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Guests merged; returns the survivor"),
+            @ApiResponse(responseCode = "400", description = "Proposal is no longer pending"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required"),
+            @ApiResponse(responseCode = "404", description = "Proposal or guest not found")
+    })
+    public ResponseEntity<GuestDTO> merge(@Parameter(description = "Merge proposal ID") @PathVariable Long id) {
+        logger.info("POST /api/guests/duplicates/{}/merge - Merging proposed guests", id);
+        GuestDTO survivor = guestDuplicateService.merge(id);
+        logger.info("POST /api/guests/duplicates/{}/merge - Merged into guest ID: {}", id, survivor.getId());
+        return ResponseEntity.ok(survivor);
+    }
+
+    @PostMapping("/{id}/reject")
+    @Operation(summary = "Reject a proposed pair", description = "Marks the pair as not duplicates; later scans do not propose it again. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Proposal rejected"),
+            @ApiResponse(responseCode = "400", description = "Proposal is no longer pending"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required"),
+            @ApiResponse(responseCode = "404", description = "Proposal not found")
+    })
+    public ResponseEntity<GuestMergeProposalDTO> reject(@Parameter(description = "Merge proposal ID") @PathVariable Long id) {
+        logger.info("POST /api/guests/duplicates/{}/reject - Rejecting merge proposal", id);
+        return ResponseEntity.ok(guestDuplicateService.reject(id));
+    }
+}
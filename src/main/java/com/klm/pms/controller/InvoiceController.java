@@ -1,15 +1,22 @@
 package com.klm.pms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.config.SparseFieldset;
+import com.klm.pms.dto.CursorPageResponse;
+import com.klm.pms.dto.FieldSelection;
 import com.klm.pms.dto.InvoiceDTO;
 import com.klm.pms.dto.InvoiceFilterRequest;
 import com.klm.pms.dto.PageResponse;
 import com.klm.pms.model.Invoice.InvoiceStatus;
+import com.klm.pms.security.RequireRole;
 import com.klm.pms.service.InvoiceService;
+import com.klm.pms.util.StreamingUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +25,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +41,9 @@ public class InvoiceController {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/generate/{reservationId}")
     @Operation(summary = "Generate invoice", description = "Generates an invoice for a reservation")
     @ApiResponses(value = {
@@ -54,10 +65,14 @@ public class InvoiceController {
             @ApiResponse(responseCode = "200", description = "Invoice found"),
             @ApiResponse(responseCode = "404", description = "Invoice not found")
     })
+    @SparseFieldset(InvoiceDTO.class)
     public ResponseEntity<InvoiceDTO> getInvoiceById(
-            @Parameter(description = "Invoice ID", required = true) @PathVariable Long id) {
+            @Parameter(description = "Invoice ID", required = true) @PathVariable Long id,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: items, reservation, reservation.guest, reservation.room (default all)") @RequestParam(required = false) String expand) {
         logger.info("GET /api/invoices/{} - Fetching invoice by ID", id);
-        InvoiceDTO invoice = invoiceService.getInvoiceById(id);
+        InvoiceDTO invoice = invoiceService.getInvoiceById(id,
+                FieldSelection.parse(fields, expand, InvoiceDTO.class, InvoiceDTO.EXPANSIONS));
         logger.info("GET /api/invoices/{} - Successfully retrieved invoice", id);
         return ResponseEntity.ok(invoice);
     }
@@ -68,17 +83,23 @@ public class InvoiceController {
             @ApiResponse(responseCode = "200", description = "Invoice found"),
             @ApiResponse(responseCode = "404", description = "Invoice not found")
     })
+    @SparseFieldset(InvoiceDTO.class)
     public ResponseEntity<InvoiceDTO> getInvoiceByNumber(
-            @Parameter(description = "Invoice number", required = true) @PathVariable String invoiceNumber) {
+            @Parameter(description = "Invoice number", required = true) @PathVariable String invoiceNumber,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: items, reservation, reservation.guest, reservation.room (default all)") @RequestParam(required = false) String expand) {
         logger.info("GET /api/invoices/number/{} - Fetching invoice by number", invoiceNumber);
-        InvoiceDTO invoice = invoiceService.getInvoiceByNumber(invoiceNumber);
+        InvoiceDTO invoice = invoiceService.getInvoiceByNumber(invoiceNumber,
+                FieldSelection.parse(fields, expand, InvoiceDTO.class, InvoiceDTO.EXPANSIONS));
         logger.info("GET /api/invoices/number/{} - Successfully retrieved invoice", invoiceNumber);
         return ResponseEntity.ok(invoice);
     }
 
     @GetMapping
-    @Operation(summary = "Get all invoices", description = "Retrieves a list of all invoices in the system with optional pagination, sorting, and filtering")
+    @Operation(summary = "Get all invoices", description = "Retrieves a list of all invoices in the system with optional pagination, sorting, and filtering. " +
+            "Use fields and expand to return only some properties and nested objects")
     @ApiResponse(responseCode = "200", description = "List of invoices retrieved successfully")
+    @SparseFieldset(InvoiceDTO.class)
     public ResponseEntity<?> getAllInvoices(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "10") Integer size,
@@ -94,10 +115,15 @@ public class InvoiceController {
             @Parameter(description = "Due date from (yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueDateFrom,
             @Parameter(description = "Due date to (yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueDateTo,
             @Parameter(description = "Payment method filter") @RequestParam(required = false) String paymentMethod,
-            @Parameter(description = "Search term for invoice number, notes") @RequestParam(required = false) String searchTerm) {
+            @Parameter(description = "Search term for invoice number, notes") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Cursor from the previous page's nextCursor (switches to cursor pagination)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size for cursor pagination (switches to cursor pagination)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: items, reservation, reservation.guest, reservation.room (default all)") @RequestParam(required = false) String expand) {
         
         // If pagination or filter parameters are provided, use paginated endpoint
         if (page != null || size != null || sortBy != null || sortDir != null || 
+            cursor != null || limit != null || fields != null || expand != null ||
             invoiceNumber != null || reservationId != null || status != null ||
             issuedDateFrom != null || issuedDateTo != null || paidDateFrom != null ||
             paidDateTo != null || dueDateFrom != null || dueDateTo != null ||
@@ -117,11 +143,21 @@ public class InvoiceController {
             filter.setPaymentMethod(paymentMethod);
             filter.setSearchTerm(searchTerm);
             
+            FieldSelection selection = FieldSelection.parse(fields, expand, InvoiceDTO.class, InvoiceDTO.EXPANSIONS);
+            
+            // Cursor pagination seeks past the previous page instead of counting and skipping rows
+            if (cursor != null || limit != null) {
+                logger.info("GET /api/invoices - Fetching invoices by cursor - limit: {}", limit);
+                CursorPageResponse<InvoiceDTO> response = invoiceService.getAllInvoicesByCursor(filter, cursor, limit, sortBy, sortDir, selection);
+                logger.info("GET /api/invoices - Retrieved {} invoice(s) by cursor", response.getContent().size());
+                return ResponseEntity.ok(response);
+            }
+            
             int pageNum = page != null ? page : 0;
             int pageSize = size != null ? size : 10;
             
             logger.info("GET /api/invoices - Fetching invoices with pagination - page: {}, size: {}", pageNum, pageSize);
-            PageResponse<InvoiceDTO> response = invoiceService.getAllInvoicesPaginated(filter, pageNum, pageSize, sortBy, sortDir);
+            PageResponse<InvoiceDTO> response = invoiceService.getAllInvoicesPaginated(filter, pageNum, pageSize, sortBy, sortDir, selection);
             logger.info("GET /api/invoices - Retrieved {} invoice(s) out of {} total", response.getContent().size(), response.getTotalElements());
             return ResponseEntity.ok(response);
         } else {
@@ -133,6 +169,17 @@ public class InvoiceController {
         }
     }
 
+    @GetMapping(params = "all=true")
+    @RequireRole("admin")
+    @Operation(summary = "Export all invoices", description = "Streams every invoice as one JSON array in id order. Pagination, sorting and filter parameters are ignored. Requires the admin role")
+    @ApiResponse(responseCode = "200", description = "All invoices streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportAllInvoices(
+            @Parameter(description = "Must be true to export every invoice", required = true) @RequestParam boolean all,
+            HttpServletRequest request) {
+        logger.info("GET /api/invoices?all=true - Streaming all invoices");
+        return StreamingUtil.jsonArrayResponse(request, objectMapper, invoiceService::streamAllInvoices);
+    }
+
     @GetMapping("/reservation/{reservationId}")
     @Operation(summary = "Get invoices by reservation", description = "Retrieves all invoices for a specific reservation")
     @ApiResponse(responseCode = "200", description = "List of invoices retrieved successfully")
@@ -0,0 +1,78 @@
+package com.klm.pms.controller;
+
+import com.klm.pms.config.SecondLevelCache;
+import com.klm.pms.config.SqlStatementCounter;
+import com.klm.pms.security.RequireRole;
+import com.klm.pms.service.AuditLogStream;
+import com.klm.pms.service.AuditLogWriter;
+import com.klm.pms.service.RateMatrix;
+import com.klm.pms.util.SecurityContextUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operational metrics of in-process components, for monitoring.
+ */
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/metrics")
+@Tag(name = "Metrics", description = "APIs for operational metrics (Admin only)")
+@RequireRole("admin")
+public class MetricsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsController.class);
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditLogStream auditLogStream;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private RateMatrix rateMatrix;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @GetMapping
+    @Operation(summary = "Get operational metrics", 
+            description = "Returns queue depth, lag and throughput counters of the asynchronous audit log writer, " +
+                    "subscriber counts of the audit log stream, the number of SQL statements prepared through JPA " +
+                    "the size and hit rate of the in-memory rate matrix and the hit ratio of each second-level cache region. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        logger.debug("GET /api/metrics - Fetching metrics by admin: {}", SecurityContextUtil.getCurrentUsername());
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timestamp", LocalDateTime.now());
+        metrics.put("auditWriter", auditLogWriter.getMetrics());
+        Map<String, Object> auditStream = new LinkedHashMap<>();
+        auditStream.put("subscribers", auditLogStream.getSubscriberCount());
+        auditStream.put("published", auditLogStream.getPublished());
+        auditStream.put("disconnectedSlow", auditLogStream.getDisconnectedSlow());
+        metrics.put("auditStream", auditStream);
+        metrics.put("jpa", Map.of("statements", sqlStatementCounter.getStatementCount()));
+        metrics.put("rateMatrix", rateMatrix.getMetrics());
+        metrics.put("secondLevelCache", secondLevelCache.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -2,8 +2,12 @@ package com.klm.pms.controller;
 
 import com.klm.pms.dto.RateTypeDTO;
 import com.klm.pms.service.RateTypeService;
+import com.klm.pms.service.ReferenceDataCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,12 +15,14 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 @CrossOrigin("*")
 @RestController
@@ -29,6 +35,9 @@ public class RateTypeController {
     @Autowired
     private RateTypeService rateTypeService;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @PostMapping
     @Operation(summary = "Create a new rate type", description = "Creates a new rate type with room type rates")
     @ApiResponses(value = {
@@ -71,13 +80,27 @@ public class RateTypeController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all rate types", description = "Retrieves a list of all rate types in the system")
-    @ApiResponse(responseCode = "200", description = "List of rate types retrieved successfully")
-    public ResponseEntity<List<RateTypeDTO>> getAllRateTypes() {
+    @Operation(summary = "Get all rate types", description = "Retrieves a list of all rate types in the system. The response carries an ETag; sent back in If-None-Match, it gets a 304 while no rate type, room type rate or room type has changed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of rate types retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = RateTypeDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Rate types not modified since the given ETag")
+    })
+    public ResponseEntity<byte[]> getAllRateTypes(WebRequest webRequest) {
         logger.info("GET /api/rate-types - Fetching all rate types");
-        List<RateTypeDTO> rateTypes = rateTypeService.getAllRateTypes();
-        logger.info("GET /api/rate-types - Retrieved {} rate type(s)", rateTypes.size());
-        return ResponseEntity.ok(rateTypes);
+        String etag = referenceDataCache.etag(ReferenceDataCache.Resource.RATE_TYPES);
+        if (webRequest.checkNotModified(etag)) {
+            logger.info("GET /api/rate-types - Not modified");
+            return null;
+        }
+        byte[] rateTypes = rateTypeService.getAllRateTypesJson();
+        logger.info("GET /api/rate-types - Retrieved {} byte(s) of rate types", rateTypes.length);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rateTypes);
     }
 
     @PutMapping("/{id}")
@@ -1,15 +1,23 @@
 package com.klm.pms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.config.SparseFieldset;
+import com.klm.pms.dto.CursorPageResponse;
+import com.klm.pms.dto.FieldSelection;
 import com.klm.pms.dto.PageResponse;
+import com.klm.pms.dto.ReservationBatchRequest;
 import com.klm.pms.dto.ReservationDTO;
 import com.klm.pms.dto.ReservationFilterRequest;
 import com.klm.pms.model.Reservation.ReservationStatus;
+import com.klm.pms.security.RequireRole;
 import com.klm.pms.service.ReservationService;
+import com.klm.pms.util.StreamingUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +26,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -33,6 +42,9 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(summary = "Create a new reservation", description = "Creates a new reservation for a guest")
     @ApiResponses(value = {
@@ -47,16 +59,36 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create a group of reservations", 
+            description = "Creates several reservations at once, for example for a group booking. Either all reservations are created or none is.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All reservations created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or a room not available; no reservation was created"),
+            @ApiResponse(responseCode = "404", description = "Guest, room or rate type not found; no reservation was created")
+    })
+    public ResponseEntity<List<ReservationDTO>> createReservations(@Valid @RequestBody ReservationBatchRequest batchRequest) {
+        logger.info("POST /api/reservations/batch - Creating batch of {} reservation(s)", 
+                batchRequest.getReservations().size());
+        List<ReservationDTO> createdReservations = reservationService.createReservations(batchRequest.getReservations());
+        logger.info("POST /api/reservations/batch - Successfully created {} reservation(s)", createdReservations.size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdReservations);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get reservation by ID", description = "Retrieves a reservation by its unique identifier")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reservation found"),
             @ApiResponse(responseCode = "404", description = "Reservation not found")
     })
+    @SparseFieldset(ReservationDTO.class)
     public ResponseEntity<ReservationDTO> getReservationById(
-            @Parameter(description = "Reservation ID", required = true) @PathVariable Long id) {
+            @Parameter(description = "Reservation ID", required = true) @PathVariable Long id,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: guest, room (default all)") @RequestParam(required = false) String expand) {
         logger.info("GET /api/reservations/{} - Fetching reservation by ID", id);
-        ReservationDTO reservation = reservationService.getReservationById(id);
+        ReservationDTO reservation = reservationService.getReservationById(id,
+                FieldSelection.parse(fields, expand, ReservationDTO.class, ReservationDTO.EXPANSIONS));
         logger.info("GET /api/reservations/{} - Successfully retrieved reservation", id);
         return ResponseEntity.ok(reservation);
     }
@@ -67,17 +99,23 @@ public class ReservationController {
             @ApiResponse(responseCode = "200", description = "Reservation found"),
             @ApiResponse(responseCode = "404", description = "Reservation not found")
     })
+    @SparseFieldset(ReservationDTO.class)
     public ResponseEntity<ReservationDTO> getReservationByNumber(
-            @Parameter(description = "Reservation number", required = true) @PathVariable String reservationNumber) {
+            @Parameter(description = "Reservation number", required = true) @PathVariable String reservationNumber,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: guest, room (default all)") @RequestParam(required = false) String expand) {
         logger.info("GET /api/reservations/number/{} - Fetching reservation by number", reservationNumber);
-        ReservationDTO reservation = reservationService.getReservationByNumber(reservationNumber);
+        ReservationDTO reservation = reservationService.getReservationByNumber(reservationNumber,
+                FieldSelection.parse(fields, expand, ReservationDTO.class, ReservationDTO.EXPANSIONS));
         logger.info("GET /api/reservations/number/{} - Successfully retrieved reservation", reservationNumber);
         return ResponseEntity.ok(reservation);
     }
 
     @GetMapping
-    @Operation(summary = "Get all reservations", description = "Retrieves a list of all reservations in the system with optional pagination, sorting, and filtering")
+    @Operation(summary = "Get all reservations", description = "Retrieves a list of all reservations in the system with optional pagination, sorting, and filtering. " +
+            "Use fields and expand to return only some properties and nested objects")
     @ApiResponse(responseCode = "200", description = "List of reservations retrieved successfully")
+    @SparseFieldset(ReservationDTO.class)
     public ResponseEntity<?> getAllReservations(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "10") Integer size,
@@ -95,10 +133,15 @@ public class ReservationController {
             @Parameter(description = "Minimum number of guests") @RequestParam(required = false) Integer minNumberOfGuests,
             @Parameter(description = "Maximum number of guests") @RequestParam(required = false) Integer maxNumberOfGuests,
             @Parameter(description = "Payment status filter") @RequestParam(required = false) String paymentStatus,
-            @Parameter(description = "Search term for reservation number, special requests") @RequestParam(required = false) String searchTerm) {
+            @Parameter(description = "Search term for reservation number, special requests") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Cursor from the previous page's nextCursor (switches to cursor pagination)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size for cursor pagination (switches to cursor pagination)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma-separated properties to return, e.g. id,status (default all)") @RequestParam(required = false) String fields,
+            @Parameter(description = "Comma-separated nested objects to embed: guest, room (default all)") @RequestParam(required = false) String expand) {
         
         // If pagination or filter parameters are provided, use paginated endpoint
         if (page != null || size != null || sortBy != null || sortDir != null || 
+            cursor != null || limit != null || fields != null || expand != null ||
             reservationNumber != null || guestId != null || roomId != null || 
             rateTypeId != null || status != null || checkInDateFrom != null ||
             checkInDateTo != null || checkOutDateFrom != null || checkOutDateTo != null ||
@@ -121,11 +164,21 @@ public class ReservationController {
             filter.setPaymentStatus(paymentStatus);
             filter.setSearchTerm(searchTerm);
             
+            FieldSelection selection = FieldSelection.parse(fields, expand, ReservationDTO.class, ReservationDTO.EXPANSIONS);
+            
+            // Cursor pagination seeks past the previous page instead of counting and skipping rows
+            if (cursor != null || limit != null) {
+                logger.info("GET /api/reservations - Fetching reservations by cursor - limit: {}", limit);
+                CursorPageResponse<ReservationDTO> response = reservationService.getAllReservationsByCursor(filter, cursor, limit, sortBy, sortDir, selection);
+                logger.info("GET /api/reservations - Retrieved {} reservation(s) by cursor", response.getContent().size());
+                return ResponseEntity.ok(response);
+            }
+            
             int pageNum = page != null ? page : 0;
             int pageSize = size != null ? size : 10;
             
             logger.info("GET /api/reservations - Fetching reservations with pagination - page: {}, size: {}", pageNum, pageSize);
-            PageResponse<ReservationDTO> response = reservationService.getAllReservationsPaginated(filter, pageNum, pageSize, sortBy, sortDir);
+            PageResponse<ReservationDTO> response = reservationService.getAllReservationsPaginated(filter, pageNum, pageSize, sortBy, sortDir, selection);
             logger.info("GET /api/reservations - Retrieved {} reservation(s) out of {} total", response.getContent().size(), response.getTotalElements());
             return ResponseEntity.ok(response);
         } else {
@@ -137,6 +190,17 @@ public class ReservationController {
         }
     }
 
+    @GetMapping(params = "all=true")
+    @RequireRole("admin")
+    @Operation(summary = "Export all reservations", description = "Streams every reservation as one JSON array in id order. Pagination, sorting and filter parameters are ignored. Requires the admin role")
+    @ApiResponse(responseCode = "200", description = "All reservations streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportAllReservations(
+            @Parameter(description = "Must be true to export every reservation", required = true) @RequestParam boolean all,
+            HttpServletRequest request) {
+        logger.info("GET /api/reservations?all=true - Streaming all reservations");
+        return StreamingUtil.jsonArrayResponse(request, objectMapper, reservationService::streamAllReservations);
+    }
+
     @GetMapping("/guest/{guestId}")
     @Operation(summary = "Get reservations by guest", description = "Retrieves all reservations for a specific guest")
     @ApiResponse(responseCode = "200", description = "List of reservations retrieved successfully")
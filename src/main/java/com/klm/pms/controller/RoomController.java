@@ -1,23 +1,40 @@
 package com.klm.pms.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.dto.CursorPageResponse;
 import com.klm.pms.dto.PageResponse;
+import com.klm.pms.dto.RoomAvailabilityCalendarDTO;
 import com.klm.pms.dto.RoomDTO;
 import com.klm.pms.dto.RoomFilterRequest;
 import com.klm.pms.model.Room.RoomStatus;
+import com.klm.pms.security.RequireRole;
+import com.klm.pms.service.ReferenceDataCache;
 import com.klm.pms.service.RoomService;
+import com.klm.pms.util.StreamingUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -32,6 +49,12 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @PostMapping
     @Operation(summary = "Create a new room", description = "Creates a new room record in the system")
     @ApiResponses(value = {
@@ -89,10 +112,13 @@ public class RoomController {
             @Parameter(description = "Floor filter") @RequestParam(required = false) Integer floor,
             @Parameter(description = "Has balcony filter") @RequestParam(required = false) Boolean hasBalcony,
             @Parameter(description = "Has view filter") @RequestParam(required = false) Boolean hasView,
-            @Parameter(description = "Search term for room number, description, amenities") @RequestParam(required = false) String searchTerm) {
+            @Parameter(description = "Search term for room number, description, amenities") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Cursor from the previous page's nextCursor (switches to cursor pagination)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size for cursor pagination (switches to cursor pagination)") @RequestParam(required = false) Integer limit) {
         
         // If pagination parameters are provided, use paginated endpoint
         if (page != null || size != null || sortBy != null || sortDir != null || 
+            cursor != null || limit != null || 
             roomNumber != null || roomTypeId != null || status != null || 
             minMaxOccupancy != null || maxMaxOccupancy != null || floor != null ||
             hasBalcony != null || hasView != null || searchTerm != null) {
@@ -109,6 +135,14 @@ public class RoomController {
             filter.setHasView(hasView);
             filter.setSearchTerm(searchTerm);
             
+            // Cursor pagination seeks past the previous page instead of counting and skipping rows
+            if (cursor != null || limit != null) {
+                logger.info("GET /api/rooms - Fetching rooms by cursor - limit: {}", limit);
+                CursorPageResponse<RoomDTO> response = roomService.getAllRoomsByCursor(filter, cursor, limit, sortBy, sortDir);
+                logger.info("GET /api/rooms - Retrieved {} room(s) by cursor", response.getContent().size());
+                return ResponseEntity.ok(response);
+            }
+            
             int pageNum = page != null ? page : 0;
             int pageSize = size != null ? size : 10;
             
@@ -125,6 +159,17 @@ public class RoomController {
         }
     }
 
+    @GetMapping(params = "all=true")
+    @RequireRole("admin")
+    @Operation(summary = "Export all rooms", description = "Streams every room as one JSON array in id order. Pagination, sorting and filter parameters are ignored. Requires the admin role")
+    @ApiResponse(responseCode = "200", description = "All rooms streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportAllRooms(
+            @Parameter(description = "Must be true to export every room", required = true) @RequestParam boolean all,
+            HttpServletRequest request) {
+        logger.info("GET /api/rooms?all=true - Streaming all rooms");
+        return StreamingUtil.jsonArrayResponse(request, objectMapper, roomService::streamAllRooms);
+    }
+
     @GetMapping("/available")
     @Operation(summary = "Get available rooms", description = "Retrieves a list of available rooms for today (defaults to today and tomorrow). Room availability is determined by date range and reservation conflicts, not just room status.")
     @ApiResponse(responseCode = "200", description = "List of available rooms retrieved successfully")
@@ -153,15 +198,64 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    @GetMapping("/availability/calendar")
+    @Operation(summary = "Get availability calendar", description = "Returns a room-by-night occupancy grid for [from, to), up to 365 nights. Each room's occupancy is run-length encoded as alternating runs of free (F) and occupied (O) nights, e.g. \"3F2O5F\". The response is streamed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability calendar retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RoomAvailabilityCalendarDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    public ResponseEntity<StreamingResponseBody> getAvailabilityCalendar(
+            @Parameter(description = "First night of the calendar (format: yyyy-MM-dd)", required = true) 
+            @RequestParam LocalDate from,
+            @Parameter(description = "Day after the last night of the calendar (format: yyyy-MM-dd)", required = true) 
+            @RequestParam LocalDate to) {
+        logger.info("GET /api/rooms/availability/calendar - Fetching availability calendar from {} to {}", from, to);
+        // Validated up front so that a bad range is still a 400, not a failed stream
+        int nights = roomService.getAvailabilityCalendarNights(from, to);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(outputStream))) {
+                generator.writeStartObject();
+                generator.writeStringField("from", from.toString());
+                generator.writeStringField("to", to.toString());
+                generator.writeNumberField("nights", nights);
+                generator.writeArrayFieldStart("rooms");
+                roomService.streamAvailabilityCalendar(from, to, room -> {
+                    try {
+                        generator.writeObject(room);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        logger.info("GET /api/rooms/availability/calendar - Streaming calendar over {} night(s)", nights);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/type/{roomTypeId}")
-    @Operation(summary = "Get rooms by room type", description = "Retrieves all rooms of a specific room type")
-    @ApiResponse(responseCode = "200", description = "List of rooms retrieved successfully")
+    @Operation(summary = "Get rooms by room type", description = "Retrieves all rooms of a specific room type. The response carries an ETag; sent back in If-None-Match, it gets a 304 while no room or room type has changed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of rooms retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Rooms not modified since the given ETag")
+    })
     public ResponseEntity<List<RoomDTO>> getRoomsByType(
-            @Parameter(description = "Room type ID", required = true) @PathVariable Long roomTypeId) {
+            @Parameter(description = "Room type ID", required = true) @PathVariable Long roomTypeId,
+            WebRequest webRequest) {
         logger.info("GET /api/rooms/type/{} - Fetching rooms by room type", roomTypeId);
+        String etag = referenceDataCache.etag(ReferenceDataCache.Resource.ROOMS);
+        if (webRequest.checkNotModified(etag)) {
+            logger.info("GET /api/rooms/type/{} - Not modified", roomTypeId);
+            return null;
+        }
         List<RoomDTO> rooms = roomService.getRoomsByType(roomTypeId);
         logger.info("GET /api/rooms/type/{} - Retrieved {} room(s)", roomTypeId, rooms.size());
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(rooms);
     }
 
     @PutMapping("/{id}")
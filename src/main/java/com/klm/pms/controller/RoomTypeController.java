@@ -1,9 +1,16 @@
 package com.klm.pms.controller;
 
 import com.klm.pms.dto.RoomTypeDTO;
+import com.klm.pms.dto.RoomTypeInventoryDTO;
+import com.klm.pms.security.RequireRole;
+import com.klm.pms.service.ReferenceDataCache;
+import com.klm.pms.service.RoomTypeInventoryService;
 import com.klm.pms.service.RoomTypeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,11 +18,17 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin("*")
 @RestController
@@ -28,6 +41,12 @@ public class RoomTypeController {
     @Autowired
     private RoomTypeService roomTypeService;
 
+    @Autowired
+    private RoomTypeInventoryService inventoryService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @PostMapping
     @Operation(summary = "Create a new room type", description = "Creates a new room type definition in the system")
     @ApiResponses(value = {
@@ -70,13 +89,65 @@ public class RoomTypeController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all room types", description = "Retrieves a list of all room types in the system")
-    @ApiResponse(responseCode = "200", description = "List of room types retrieved successfully")
-    public ResponseEntity<List<RoomTypeDTO>> getAllRoomTypes() {
+    @Operation(summary = "Get all room types", description = "Retrieves a list of all room types in the system. The response carries an ETag; sent back in If-None-Match, it gets a 304 while no room type has changed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of room types retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = RoomTypeDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Room types not modified since the given ETag")
+    })
+    public ResponseEntity<byte[]> getAllRoomTypes(WebRequest webRequest) {
         logger.info("GET /api/room-types - Fetching all room types");
-        List<RoomTypeDTO> roomTypes = roomTypeService.getAllRoomTypes();
-        logger.info("GET /api/room-types - Retrieved {} room type(s)", roomTypes.size());
-        return ResponseEntity.ok(roomTypes);
+        String etag = referenceDataCache.etag(ReferenceDataCache.Resource.ROOM_TYPES);
+        if (webRequest.checkNotModified(etag)) {
+            logger.info("GET /api/room-types - Not modified");
+            return null;
+        }
+        byte[] roomTypes = roomTypeService.getAllRoomTypesJson();
+        logger.info("GET /api/room-types - Retrieved {} byte(s) of room types", roomTypes.length);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(roomTypes);
+    }
+
+    @GetMapping("/{id}/inventory")
+    @Operation(summary = "Get nightly inventory for a room type", description = "Returns total, sold, out-of-order and available room counts for each night in [from, to), up to 365 nights")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Inventory retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Room type not found")
+    })
+    public ResponseEntity<List<RoomTypeInventoryDTO>> getRoomTypeInventory(
+            @Parameter(description = "Room type ID", required = true) @PathVariable Long id,
+            @Parameter(description = "First night (format: yyyy-MM-dd)", required = true) @RequestParam LocalDate from,
+            @Parameter(description = "Day after the last night (format: yyyy-MM-dd)", required = true) @RequestParam LocalDate to) {
+        logger.info("GET /api/room-types/{}/inventory - Fetching inventory from {} to {}", id, from, to);
+        List<RoomTypeInventoryDTO> inventory = inventoryService.getInventory(id, from, to);
+        logger.info("GET /api/room-types/{}/inventory - Retrieved {} night(s)", id, inventory.size());
+        return ResponseEntity.ok(inventory);
+    }
+
+    @PostMapping("/inventory/reconcile")
+    @RequireRole("admin")
+    @Operation(summary = "Reconcile room type inventory", description = "Recomputes the nightly inventory rollup for [from, to) from reservations and rooms and corrects any drift. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Inventory reconciled successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    public ResponseEntity<Map<String, Object>> reconcileInventory(
+            @Parameter(description = "First night (format: yyyy-MM-dd)", required = true) @RequestParam LocalDate from,
+            @Parameter(description = "Day after the last night (format: yyyy-MM-dd)", required = true) @RequestParam LocalDate to) {
+        logger.info("POST /api/room-types/inventory/reconcile - Reconciling inventory from {} to {}", from, to);
+        int corrected = inventoryService.reconcile(from, to);
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("correctedRows", corrected);
+        logger.info("POST /api/room-types/inventory/reconcile - Corrected {} row(s)", corrected);
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,66 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.model.AuditLog.AuditAction;
+
+import java.time.LocalDateTime;
+
+public class AuditLogFilterRequest {
+    private String entityType;
+    private Long entityId;
+    private String username;
+    private AuditAction action;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    public AuditLogFilterRequest() {
+    }
+
+    // Getters and Setters
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public AuditAction getAction() {
+        return action;
+    }
+
+    public void setAction(AuditAction action) {
+        this.action = action;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+}
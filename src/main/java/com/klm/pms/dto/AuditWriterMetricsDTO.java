@@ -0,0 +1,128 @@
+package com.klm.pms.dto;
+
+/**
+ * Point-in-time metrics of the asynchronous audit log writer.
+ */
+public class AuditWriterMetricsDTO {
+    private boolean running;
+    private String overflowPolicy;
+    private int queueCapacity;
+    private int queueDepth;
+    private long oldestPendingAgeMillis; // Lag: how long the oldest queued entry has been waiting
+    private long submitted;
+    private long written;
+    private long writtenByCaller; // Written on the submitting thread because the queue was full or the writer stopped
+    private long dropped;
+    private long failed;
+    private long batches;
+    private int lastBatchSize;
+    private long lastBatchLagMillis; // Time the oldest entry of the last batch waited before being written
+
+    public AuditWriterMetricsDTO() {
+    }
+
+    // Getters and Setters
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public long getOldestPendingAgeMillis() {
+        return oldestPendingAgeMillis;
+    }
+
+    public void setOldestPendingAgeMillis(long oldestPendingAgeMillis) {
+        this.oldestPendingAgeMillis = oldestPendingAgeMillis;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void setWritten(long written) {
+        this.written = written;
+    }
+
+    public long getWrittenByCaller() {
+        return writtenByCaller;
+    }
+
+    public void setWrittenByCaller(long writtenByCaller) {
+        this.writtenByCaller = writtenByCaller;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public void setLastBatchSize(int lastBatchSize) {
+        this.lastBatchSize = lastBatchSize;
+    }
+
+    public long getLastBatchLagMillis() {
+        return lastBatchLagMillis;
+    }
+
+    public void setLastBatchLagMillis(long lastBatchLagMillis) {
+        this.lastBatchLagMillis = lastBatchLagMillis;
+    }
+}
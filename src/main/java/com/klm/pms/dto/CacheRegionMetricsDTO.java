@@ -0,0 +1,56 @@
+package com.klm.pms.dto;
+
+/**
+ * Point-in-time metrics of one region of the Hibernate second-level cache.
+ */
+public class CacheRegionMetricsDTO {
+    private long maxEntries;
+    private long hits;
+    private long misses; // Lookups that went to the database
+    private long puts;
+    private Double hitRatio; // Null until the region has been looked up
+
+    public CacheRegionMetricsDTO() {
+    }
+
+    // Getters and Setters
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public Double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(Double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+}
@@ -0,0 +1,57 @@
+package com.klm.pms.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Unlike {@link PageResponse} it carries no totals,
+ * since counting the matching rows would cost as much as the page itself.
+ */
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int limit;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<T> content, int limit, String nextCursor) {
+        this.content = content;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
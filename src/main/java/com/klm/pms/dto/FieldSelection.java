@@ -0,0 +1,112 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.exception.ValidationException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code fields} and {@code expand} parameters of an endpoint: which properties of a
+ * DTO to return and which of its nested objects to load and embed.
+ * <p>
+ * {@code fields} lists top-level properties of the DTO. {@code expand} lists nested objects
+ * by path, such as {@code reservation.guest}; an empty {@code expand} embeds none. A nested
+ * object is embedded only if it is among the fields (or no fields are given) and it, or an
+ * object beneath it, is expanded (or no expand is given). Without either parameter the
+ * full DTO is returned.
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    private final Set<String> fields;
+    private final Set<String> expand;
+
+    private FieldSelection(Set<String> fields, Set<String> expand) {
+        this.fields = fields;
+        this.expand = expand;
+    }
+
+    /**
+     * Parses the parameters of an endpoint returning {@code dtoType}.
+     *
+     * @param fields     comma-separated property names, or null for all
+     * @param expand     comma-separated nested object paths, or null for all
+     * @param dtoType    the DTO returned, whose properties {@code fields} may name
+     * @param expansions the nested object paths {@code expand} may name
+     * @throws ValidationException if a field or path is unknown
+     */
+    public static FieldSelection parse(String fields, String expand, Class<?> dtoType, Collection<String> expansions) {
+        Set<String> fieldSet = fields == null || fields.isBlank() ? null : split(fields);
+        if (fieldSet != null) {
+            Set<String> properties = properties(dtoType);
+            for (String field : fieldSet) {
+                if (!properties.contains(field)) {
+                    throw new ValidationException("fields", "Unknown field '" + field + "'; expected any of " + properties);
+                }
+            }
+        }
+        Set<String> expandSet = expand == null ? null : split(expand);
+        if (expandSet != null) {
+            for (String path : expandSet) {
+                if (!expansions.contains(path)) {
+                    throw new ValidationException("expand", "Cannot expand '" + path + "'; expected any of " + expansions);
+                }
+            }
+        }
+        return fieldSet == null && expandSet == null ? ALL : new FieldSelection(fieldSet, expandSet);
+    }
+
+    /**
+     * The top-level properties to return, or null for all.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Whether the nested object at {@code path} is to be loaded and embedded.
+     */
+    public boolean expands(String path) {
+        int dot = path.indexOf('.');
+        String property = dot < 0 ? path : path.substring(0, dot);
+        if (fields != null && !fields.contains(property)) {
+            return false;
+        }
+        return expand == null || expand.stream().anyMatch(e -> e.equals(path) || e.startsWith(path + "."));
+    }
+
+    /**
+     * The selection applying to the nested object at {@code path}: all of its properties,
+     * and the objects beneath it that are expanded.
+     */
+    public FieldSelection nested(String path) {
+        if (expand == null) {
+            return ALL;
+        }
+        String prefix = path + ".";
+        return new FieldSelection(null, expand.stream()
+                .filter(e -> e.startsWith(prefix))
+                .map(e -> e.substring(prefix.length()))
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    private static Set<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<String> properties(Class<?> dtoType) {
+        return Arrays.stream(dtoType.getDeclaredFields())
+                .filter(f -> !Modifier.isStatic(f.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,65 @@
+package com.klm.pms.dto;
+
+/**
+ * Summary of one run of the guest duplicate scan.
+ */
+public class GuestDuplicateScanResultDTO {
+    private long guestsScanned;
+    private int blocks; // Blocking-key groups of two or more guests
+    private int oversizedBlocks; // Groups too large to compare pairwise, skipped
+    private long pairsScored;
+    private int proposals;
+    private long durationMillis;
+
+    public GuestDuplicateScanResultDTO() {
+    }
+
+    // Getters and Setters
+    public long getGuestsScanned() {
+        return guestsScanned;
+    }
+
+    public void setGuestsScanned(long guestsScanned) {
+        this.guestsScanned = guestsScanned;
+    }
+
+    public int getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(int blocks) {
+        this.blocks = blocks;
+    }
+
+    public int getOversizedBlocks() {
+        return oversizedBlocks;
+    }
+
+    public void setOversizedBlocks(int oversizedBlocks) {
+        this.oversizedBlocks = oversizedBlocks;
+    }
+
+    public long getPairsScored() {
+        return pairsScored;
+    }
+
+    public void setPairsScored(long pairsScored) {
+        this.pairsScored = pairsScored;
+    }
+
+    public int getProposals() {
+        return proposals;
+    }
+
+    public void setProposals(int proposals) {
+        this.proposals = proposals;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
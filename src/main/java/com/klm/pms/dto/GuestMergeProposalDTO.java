@@ -0,0 +1,85 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.model.GuestMergeProposal.ProposalStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class GuestMergeProposalDTO {
+    private Long id;
+    private Long survivorGuestId;
+    private Long duplicateGuestId;
+    private Double score;
+    private List<String> reasons;
+    private ProposalStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+
+    public GuestMergeProposalDTO() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSurvivorGuestId() {
+        return survivorGuestId;
+    }
+
+    public void setSurvivorGuestId(Long survivorGuestId) {
+        this.survivorGuestId = survivorGuestId;
+    }
+
+    public Long getDuplicateGuestId() {
+        return duplicateGuestId;
+    }
+
+    public void setDuplicateGuestId(Long duplicateGuestId) {
+        this.duplicateGuestId = duplicateGuestId;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public List<String> getReasons() {
+        return reasons;
+    }
+
+    public void setReasons(List<String> reasons) {
+        this.reasons = reasons;
+    }
+
+    public ProposalStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProposalStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
@@ -1,5 +1,7 @@
 package com.klm.pms.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.klm.pms.model.Invoice.InvoiceStatus;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -9,7 +11,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@JsonFilter("InvoiceDTO")
 public class InvoiceDTO {
+
+    /**
+     * Nested objects the {@code expand} parameter may name; see {@link FieldSelection}.
+     */
+    public static final List<String> EXPANSIONS = List.of("items", "reservation", "reservation.guest", "reservation.room");
+
     private Long id;
     private String invoiceNumber;
     
@@ -37,9 +46,11 @@ public class InvoiceDTO {
     private String paymentMethod;
     private String notes;
     
+    // Nested DTOs for response, left out unless expanded
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<InvoiceItemDTO> items = new ArrayList<>();
     
-    // Nested DTO for response
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ReservationDTO reservation;
 
     // Constructors
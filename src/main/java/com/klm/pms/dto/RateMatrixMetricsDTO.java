@@ -0,0 +1,94 @@
+package com.klm.pms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point-in-time metrics of the in-memory rate matrix.
+ */
+public class RateMatrixMetricsDTO {
+    private boolean loaded;
+    private int rateTypes;
+    private int roomTypes;
+    private int rates;
+    private long hits;
+    private long misses; // Lookups answered by the database: not loaded yet, or a rate the matrix did not hold
+    private long updates;
+    private long reloads;
+    private LocalDateTime lastReloadAt;
+
+    public RateMatrixMetricsDTO() {
+    }
+
+    // Getters and Setters
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    public int getRateTypes() {
+        return rateTypes;
+    }
+
+    public void setRateTypes(int rateTypes) {
+        this.rateTypes = rateTypes;
+    }
+
+    public int getRoomTypes() {
+        return roomTypes;
+    }
+
+    public void setRoomTypes(int roomTypes) {
+        this.roomTypes = roomTypes;
+    }
+
+    public int getRates() {
+        return rates;
+    }
+
+    public void setRates(int rates) {
+        this.rates = rates;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(long updates) {
+        this.updates = updates;
+    }
+
+    public long getReloads() {
+        return reloads;
+    }
+
+    public void setReloads(long reloads) {
+        this.reloads = reloads;
+    }
+
+    public LocalDateTime getLastReloadAt() {
+        return lastReloadAt;
+    }
+
+    public void setLastReloadAt(LocalDateTime lastReloadAt) {
+        this.lastReloadAt = lastReloadAt;
+    }
+}
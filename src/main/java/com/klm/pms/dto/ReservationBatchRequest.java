@@ -0,0 +1,36 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.util.Constants;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group booking: reservations that are created together or not at all.
+ */
+public class ReservationBatchRequest {
+
+    @NotEmpty(message = "At least one reservation is required")
+    @Size(max = Constants.MAX_RESERVATIONS_PER_BATCH,
+            message = "A batch cannot contain more than " + Constants.MAX_RESERVATIONS_PER_BATCH + " reservations")
+    @Valid
+    private List<ReservationDTO> reservations = new ArrayList<>();
+
+    public ReservationBatchRequest() {
+    }
+
+    public ReservationBatchRequest(List<ReservationDTO> reservations) {
+        this.reservations = reservations;
+    }
+
+    public List<ReservationDTO> getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(List<ReservationDTO> reservations) {
+        this.reservations = reservations;
+    }
+}
@@ -1,5 +1,7 @@
 package com.klm.pms.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.klm.pms.model.Reservation.ReservationStatus;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -7,8 +9,16 @@ import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
+@JsonFilter("ReservationDTO")
 public class ReservationDTO {
+
+    /**
+     * Nested objects the {@code expand} parameter may name; see {@link FieldSelection}.
+     */
+    public static final List<String> EXPANSIONS = List.of("guest", "room");
+
     private Long id;
     private String reservationNumber;
     
@@ -39,8 +49,10 @@ public class ReservationDTO {
     private BigDecimal totalAmount;
     private BigDecimal depositAmount;
     
-    // Nested DTOs for response
+    // Nested DTOs for response, left out unless expanded
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private GuestDTO guest;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private RoomDTO room;
 
     // Constructors
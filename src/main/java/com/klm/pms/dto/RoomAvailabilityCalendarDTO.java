@@ -0,0 +1,123 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.model.Room.RoomStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room-by-night occupancy grid for {@code [from, to)}.
+ * <p>
+ * Each room's {@code occupancy} is run-length encoded, one run per change of state:
+ * {@code "3F2O5F"} means 3 free nights, 2 occupied nights, then 5 free nights.
+ */
+public class RoomAvailabilityCalendarDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private int nights;
+    private List<RoomOccupancyDTO> rooms = new ArrayList<>();
+
+    // Constructors
+    public RoomAvailabilityCalendarDTO() {
+    }
+
+    public RoomAvailabilityCalendarDTO(LocalDate from, LocalDate to, int nights, List<RoomOccupancyDTO> rooms) {
+        this.from = from;
+        this.to = to;
+        this.nights = nights;
+        this.rooms = rooms;
+    }
+
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public void setNights(int nights) {
+        this.nights = nights;
+    }
+
+    public List<RoomOccupancyDTO> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<RoomOccupancyDTO> rooms) {
+        this.rooms = rooms;
+    }
+
+    public static class RoomOccupancyDTO {
+        private Long roomId;
+        private String roomNumber;
+        private Long roomTypeId;
+        private RoomStatus status;
+        private String occupancy; // Run-length encoded, e.g. "3F2O5F"
+
+        public RoomOccupancyDTO() {
+        }
+
+        public RoomOccupancyDTO(Long roomId, String roomNumber, Long roomTypeId, RoomStatus status, String occupancy) {
+            this.roomId = roomId;
+            this.roomNumber = roomNumber;
+            this.roomTypeId = roomTypeId;
+            this.status = status;
+            this.occupancy = occupancy;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public void setRoomId(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        public String getRoomNumber() {
+            return roomNumber;
+        }
+
+        public void setRoomNumber(String roomNumber) {
+            this.roomNumber = roomNumber;
+        }
+
+        public Long getRoomTypeId() {
+            return roomTypeId;
+        }
+
+        public void setRoomTypeId(Long roomTypeId) {
+            this.roomTypeId = roomTypeId;
+        }
+
+        public RoomStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(RoomStatus status) {
+            this.status = status;
+        }
+
+        public String getOccupancy() {
+            return occupancy;
+        }
+
+        public void setOccupancy(String occupancy) {
+            this.occupancy = occupancy;
+        }
+    }
+}
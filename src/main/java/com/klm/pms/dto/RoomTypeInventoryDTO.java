@@ -0,0 +1,74 @@
+package com.klm.pms.dto;
+
+import java.time.LocalDate;
+
+public class RoomTypeInventoryDTO {
+    private Long roomTypeId;
+    private LocalDate stayDate;
+    private int totalRooms;
+    private int sold;
+    private int outOfOrder;
+    private int available; // totalRooms - sold - outOfOrder, never negative
+
+    // Constructors
+    public RoomTypeInventoryDTO() {
+    }
+
+    public RoomTypeInventoryDTO(Long roomTypeId, LocalDate stayDate, int totalRooms, int sold, int outOfOrder) {
+        this.roomTypeId = roomTypeId;
+        this.stayDate = stayDate;
+        this.totalRooms = totalRooms;
+        this.sold = sold;
+        this.outOfOrder = outOfOrder;
+        this.available = Math.max(0, totalRooms - sold - outOfOrder);
+    }
+
+    // Getters and Setters
+    public Long getRoomTypeId() {
+        return roomTypeId;
+    }
+
+    public void setRoomTypeId(Long roomTypeId) {
+        this.roomTypeId = roomTypeId;
+    }
+
+    public LocalDate getStayDate() {
+        return stayDate;
+    }
+
+    public void setStayDate(LocalDate stayDate) {
+        this.stayDate = stayDate;
+    }
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(int totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public int getSold() {
+        return sold;
+    }
+
+    public void setSold(int sold) {
+        this.sold = sold;
+    }
+
+    public int getOutOfOrder() {
+        return outOfOrder;
+    }
+
+    public void setOutOfOrder(int outOfOrder) {
+        this.outOfOrder = outOfOrder;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
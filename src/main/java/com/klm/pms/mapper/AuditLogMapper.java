@@ -0,0 +1,25 @@
+package com.klm.pms.mapper;
+
+import com.klm.pms.dto.AuditLogDTO;
+import com.klm.pms.model.AuditLog;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditLogMapper {
+    public AuditLogDTO toDTO(AuditLog auditLog) {
+        if (auditLog == null) return null;
+        
+        AuditLogDTO dto = new AuditLogDTO();
+        dto.setId(auditLog.getId());
+        dto.setEntityType(auditLog.getEntityType());
+        dto.setEntityId(auditLog.getEntityId());
+        dto.setAction(auditLog.getAction());
+        dto.setUsername(auditLog.getUsername());
+        dto.setTimestamp(auditLog.getTimestamp());
+        dto.setChanges(auditLog.getChanges());
+        dto.setDescription(auditLog.getDescription());
+        dto.setRequestPath(auditLog.getRequestPath());
+        dto.setRequestMethod(auditLog.getRequestMethod());
+        return dto;
+    }
+}
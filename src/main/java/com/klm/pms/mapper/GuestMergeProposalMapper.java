@@ -0,0 +1,27 @@
+package com.klm.pms.mapper;
+
+import com.klm.pms.dto.GuestMergeProposalDTO;
+import com.klm.pms.model.GuestMergeProposal;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class GuestMergeProposalMapper {
+    public GuestMergeProposalDTO toDTO(GuestMergeProposal proposal) {
+        if (proposal == null) return null;
+        
+        GuestMergeProposalDTO dto = new GuestMergeProposalDTO();
+        dto.setId(proposal.getId());
+        dto.setSurvivorGuestId(proposal.getSurvivorGuestId());
+        dto.setDuplicateGuestId(proposal.getDuplicateGuestId());
+        dto.setScore(proposal.getScore());
+        dto.setReasons(proposal.getReasons() != null && !proposal.getReasons().isEmpty()
+                ? List.of(proposal.getReasons().split(","))
+                : List.of());
+        dto.setStatus(proposal.getStatus());
+        dto.setCreatedAt(proposal.getCreatedAt());
+        dto.setResolvedAt(proposal.getResolvedAt());
+        return dto;
+    }
+}
@@ -1,10 +1,14 @@
 package com.klm.pms.mapper;
 
+import com.klm.pms.dto.FieldSelection;
 import com.klm.pms.dto.ReservationDTO;
 import com.klm.pms.model.Reservation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class ReservationMapper {
     
@@ -15,6 +19,14 @@ public class ReservationMapper {
     private RoomMapper roomMapper;
     
     public ReservationDTO toDTO(Reservation reservation) {
+        return toDTO(reservation, FieldSelection.ALL);
+    }
+    
+    /**
+     * Maps a reservation, embedding only the nested objects {@code selection} expands; the
+     * others are not loaded.
+     */
+    public ReservationDTO toDTO(Reservation reservation, FieldSelection selection) {
         if (reservation == null) return null;
         
         ReservationDTO dto = new ReservationDTO();
@@ -35,15 +47,31 @@ public class ReservationMapper {
         dto.setDepositAmount(reservation.getDepositAmount());
         
         // Optionally include nested objects
-        if (reservation.getGuest() != null) {
+        if (reservation.getGuest() != null && selection.expands("guest")) {
             dto.setGuest(guestMapper.toDTO(reservation.getGuest()));
         }
-        if (reservation.getRoom() != null) {
+        if (reservation.getRoom() != null && selection.expands("room")) {
             dto.setRoom(roomMapper.toDTO(reservation.getRoom()));
         }
         
         return dto;
     }
+    
+    /**
+     * The associations {@link #toDTO(Reservation, FieldSelection)} reads, as paths from the
+     * reservation, to fetch with the reservations in the same query.
+     */
+    public List<String> fetchPaths(FieldSelection selection) {
+        List<String> paths = new ArrayList<>();
+        if (selection.expands("guest")) {
+            paths.add("guest");
+        }
+        if (selection.expands("room")) {
+            paths.add("room");
+            paths.add("room.roomType");
+        }
+        return paths;
+    }
 
     public Reservation toEntity(ReservationDTO dto) {
         if (dto == null) return null;
@@ -3,13 +3,9 @@ package com.klm.pms.model;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+// Partitioned by month on timestamp; partitions and indexes are managed by AuditPartitionService
 @Entity
-@Table(name = "audit_logs", indexes = {
-    @Index(name = "idx_audit_entity_type", columnList = "entityType"),
-    @Index(name = "idx_audit_entity_id", columnList = "entityId"),
-    @Index(name = "idx_audit_username", columnList = "username"),
-    @Index(name = "idx_audit_timestamp", columnList = "timestamp")
-})
+@Table(name = "audit_logs")
 public class AuditLog {
 
     @Id
@@ -0,0 +1,15 @@
+package com.klm.pms.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity whose inserts, updates and deletes are written to the audit log.
+ * The audit entity type is the class's simple name.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuditedEntity {
+}
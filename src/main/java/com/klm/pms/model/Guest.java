@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@AuditedEntity
 @Table(name = "guests")
 public class Guest {
 
@@ -49,6 +50,10 @@ public class Guest {
 
     private String identificationNumber;
 
+    // Generated by PostgreSQL from the searchable columns (see SearchTextInitializer), never written here
+    @Column(insertable = false, updatable = false, columnDefinition = "text")
+    private String searchText;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
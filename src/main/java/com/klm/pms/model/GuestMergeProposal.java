@@ -0,0 +1,118 @@
+package com.klm.pms.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pair of guests that the duplicate scan believes to be the same person. Merging keeps
+ * the survivor (the older record) and folds the duplicate into it.
+ */
+@Entity
+@Table(name = "guest_merge_proposals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_guest_merge_proposals_pair",
+                columnNames = {"survivor_guest_id", "duplicate_guest_id"}))
+public class GuestMergeProposal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "survivor_guest_id", nullable = false)
+    private Long survivorGuestId;
+
+    @Column(name = "duplicate_guest_id", nullable = false)
+    private Long duplicateGuestId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    private String reasons; // Comma-separated: PHONE, EMAIL, EMAIL_LOCAL_PART, NAME
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProposalStatus status = ProposalStatus.PENDING;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resolvedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public GuestMergeProposal() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSurvivorGuestId() {
+        return survivorGuestId;
+    }
+
+    public void setSurvivorGuestId(Long survivorGuestId) {
+        this.survivorGuestId = survivorGuestId;
+    }
+
+    public Long getDuplicateGuestId() {
+        return duplicateGuestId;
+    }
+
+    public void setDuplicateGuestId(Long duplicateGuestId) {
+        this.duplicateGuestId = duplicateGuestId;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public String getReasons() {
+        return reasons;
+    }
+
+    public void setReasons(String reasons) {
+        this.reasons = reasons;
+    }
+
+    public ProposalStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProposalStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public enum ProposalStatus {
+        PENDING, MERGED, REJECTED
+    }
+}
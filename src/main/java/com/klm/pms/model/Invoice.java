@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,8 +14,21 @@ import java.util.List;
 
 @Entity
 @Table(name = "invoices")
+@NamedEntityGraph(name = Invoice.GRAPH_DETAILS,
+        attributeNodes = @NamedAttributeNode(value = "reservation", subgraph = "reservation"),
+        subgraphs = {
+                @NamedSubgraph(name = "reservation",
+                        attributeNodes = {@NamedAttributeNode("guest"), @NamedAttributeNode(value = "room", subgraph = "room")}),
+                @NamedSubgraph(name = "room", attributeNodes = @NamedAttributeNode("roomType"))
+        })
 public class Invoice {
 
+    /**
+     * Fetches the reservation, guest, room and room type that an invoice DTO embeds, so
+     * lists of invoices are mapped without a lazy load per row.
+     */
+    public static final String GRAPH_DETAILS = "Invoice.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -66,8 +80,11 @@ public class Invoice {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Loaded when first read, together with the items of up to a full page of other invoices
+    // of the persistence context in one query
     @JsonManagedReference
-    @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<InvoiceItem> items = new ArrayList<>();
 
     @PrePersist
@@ -75,9 +92,6 @@ public class Invoice {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         issuedDate = LocalDateTime.now();
-        if (invoiceNumber == null) {
-            invoiceNumber = generateInvoiceNumber();
-        }
     }
 
     @PreUpdate
@@ -85,10 +99,6 @@ public class Invoice {
         updatedAt = LocalDateTime.now();
     }
 
-    private String generateInvoiceNumber() {
-        return "INV" + System.currentTimeMillis();
-    }
-
     // Constructors
     public Invoice() {
     }
@@ -1,8 +1,13 @@
 package com.klm.pms.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.klm.pms.util.Constants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,6 +15,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "rate_types")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_RATE_TYPE)
+@NaturalIdCache(region = Constants.CACHE_REGION_RATE_TYPE_NATURAL_ID)
 public class RateType {
 
     @Id
@@ -17,7 +25,8 @@ public class RateType {
     private Long id;
 
     @NotBlank(message = "Rate type name is required")
-    @Column(nullable = false, unique = true)
+    @NaturalId(mutable = true) // Unique: the natural id carries the constraint
+    @Column(nullable = false)
     private String name;
 
     private String description;
@@ -1,14 +1,19 @@
 package com.klm.pms.model;
 
+import com.klm.pms.util.Constants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "rate_type_room_type_rates", 
        uniqueConstraints = @UniqueConstraint(columnNames = {"rate_type_id", "room_type_id"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_RATE)
 public class RateTypeRoomTypeRate {
 
     @Id
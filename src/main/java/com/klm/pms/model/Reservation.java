@@ -13,15 +13,25 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@AuditedEntity
 @Table(name = "reservations")
+@NamedEntityGraph(name = Reservation.GRAPH_DETAILS,
+        attributeNodes = {@NamedAttributeNode("guest"), @NamedAttributeNode(value = "room", subgraph = "room")},
+        subgraphs = @NamedSubgraph(name = "room", attributeNodes = @NamedAttributeNode("roomType")))
 public class Reservation {
 
+    /**
+     * Fetches the guest, room and room type that {@code ReservationMapper} reads, so lists
+     * of reservations are mapped without a lazy load per row.
+     */
+    public static final String GRAPH_DETAILS = "Reservation.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(unique = true, nullable = false)
-    private String reservationNumber; // Auto-generated unique identifier
+    private String reservationNumber; // Assigned by ReferenceNumberGenerator
 
     @JsonBackReference
     @NotNull(message = "Guest is required")
@@ -70,6 +80,10 @@ public class Reservation {
 
     private BigDecimal depositAmount;
 
+    // Generated by PostgreSQL from the searchable columns (see SearchTextInitializer), never written here
+    @Column(insertable = false, updatable = false, columnDefinition = "text")
+    private String searchText;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -84,9 +98,6 @@ public class Reservation {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (reservationNumber == null) {
-            reservationNumber = generateReservationNumber();
-        }
     }
 
     @PreUpdate
@@ -94,10 +105,6 @@ public class Reservation {
         updatedAt = LocalDateTime.now();
     }
 
-    private String generateReservationNumber() {
-        return "RES" + System.currentTimeMillis();
-    }
-
     // Constructors
     public Reservation() {
     }
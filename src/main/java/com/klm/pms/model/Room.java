@@ -2,16 +2,25 @@ package com.klm.pms.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.klm.pms.util.Constants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@AuditedEntity
 @Table(name = "rooms")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_ROOM)
+@NaturalIdCache(region = Constants.CACHE_REGION_ROOM_NATURAL_ID)
 public class Room {
 
     @Id
@@ -19,7 +28,8 @@ public class Room {
     private Long id;
 
     @NotBlank(message = "Room number is required")
-    @Column(nullable = false, unique = true)
+    @NaturalId(mutable = true) // Unique: the natural id carries the constraint
+    @Column(nullable = false)
     private String roomNumber;
 
     @JsonBackReference
@@ -44,6 +54,10 @@ public class Room {
 
     private Boolean hasView;
 
+    // Generated by PostgreSQL from the searchable columns (see SearchTextInitializer), never written here
+    @Column(insertable = false, updatable = false, columnDefinition = "text")
+    private String searchText;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
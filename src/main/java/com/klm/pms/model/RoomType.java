@@ -1,10 +1,13 @@
 package com.klm.pms.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.klm.pms.util.Constants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +15,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@AuditedEntity
 @Table(name = "room_types")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_ROOM_TYPE)
 public class RoomType {
 
     @Id
@@ -0,0 +1,96 @@
+package com.klm.pms.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Nightly inventory rollup per room type. {@code sold} counts the active reservations
+ * holding a room of this type on {@code stayDate}; {@code outOfOrder} counts the rooms
+ * of this type that were in MAINTENANCE when the night was last reconciled.
+ */
+@Entity
+@Table(name = "room_type_inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_type_inventory_type_date",
+                columnNames = {"room_type_id", "stay_date"}))
+public class RoomTypeInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_type_id", nullable = false)
+    private Long roomTypeId;
+
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    @Column(nullable = false)
+    private Integer sold = 0;
+
+    @Column(nullable = false)
+    private Integer outOfOrder = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public RoomTypeInventory() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRoomTypeId() {
+        return roomTypeId;
+    }
+
+    public void setRoomTypeId(Long roomTypeId) {
+        this.roomTypeId = roomTypeId;
+    }
+
+    public LocalDate getStayDate() {
+        return stayDate;
+    }
+
+    public void setStayDate(LocalDate stayDate) {
+        this.stayDate = stayDate;
+    }
+
+    public Integer getSold() {
+        return sold;
+    }
+
+    public void setSold(Integer sold) {
+        this.sold = sold;
+    }
+
+    public Integer getOutOfOrder() {
+        return outOfOrder;
+    }
+
+    public void setOutOfOrder(Integer outOfOrder) {
+        this.outOfOrder = outOfOrder;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
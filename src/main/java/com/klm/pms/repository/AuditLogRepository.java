@@ -4,15 +4,14 @@ import com.klm.pms.model.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
 
     Page<AuditLog> findAll(Pageable pageable);
 
@@ -28,22 +27,8 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
     Page<AuditLog> findByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
-    @Query("SELECT a FROM AuditLog a WHERE " +
-           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
-           "(:entityId IS NULL OR a.entityId = :entityId) AND " +
-           "(:username IS NULL OR a.username = :username) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
-           "(:endDate IS NULL OR a.timestamp <= :endDate)")
-    Page<AuditLog> findByFilters(
-            @Param("entityType") String entityType,
-            @Param("entityId") Long entityId,
-            @Param("username") String username,
-            @Param("action") AuditLog.AuditAction action,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
-
     List<AuditLog> findByEntityTypeAndEntityIdOrderByTimestampDesc(String entityType, Long entityId);
+
+    List<AuditLog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
 
@@ -0,0 +1,37 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.GuestMergeProposal;
+import com.klm.pms.model.GuestMergeProposal.ProposalStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GuestMergeProposalRepository extends JpaRepository<GuestMergeProposal, Long> {
+    Page<GuestMergeProposal> findByStatus(ProposalStatus status, Pageable pageable);
+
+    /**
+     * Returns {@code [survivorGuestId, duplicateGuestId]} rows of every proposal that was
+     * already resolved, so a scan does not propose them again.
+     */
+    @Query("SELECT p.survivorGuestId, p.duplicateGuestId FROM GuestMergeProposal p WHERE p.status <> 'PENDING'")
+    List<Object[]> findResolvedPairs();
+
+    @Modifying
+    @Query("DELETE FROM GuestMergeProposal p WHERE p.status = 'PENDING'")
+    int deletePending();
+
+    /**
+     * Drops the pending proposals that involve a guest that no longer exists.
+     */
+    @Modifying
+    @Query("DELETE FROM GuestMergeProposal p WHERE p.status = 'PENDING' AND " +
+           "(p.survivorGuestId = :guestId OR p.duplicateGuestId = :guestId)")
+    int deletePendingInvolving(@Param("guestId") Long guestId);
+}
@@ -1,15 +1,27 @@
 package com.klm.pms.repository;
 
 import com.klm.pms.model.Guest;
+import com.klm.pms.util.Constants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GuestRepository extends JpaRepository<Guest, Long>, JpaSpecificationExecutor<Guest> {
     Optional<Guest> findByEmail(String email);
     Optional<Guest> findByPhoneNumber(String phoneNumber);
+    
+    /**
+     * Streams every guest through a JDBC cursor; must be consumed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT g FROM Guest g ORDER BY g.id")
+    Stream<Guest> streamAll();
 }
-
@@ -2,17 +2,36 @@ package com.klm.pms.repository;
 
 import com.klm.pms.model.Invoice;
 import com.klm.pms.model.Invoice.InvoiceStatus;
+import com.klm.pms.util.Constants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice> {
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
+    
+    @EntityGraph(Invoice.GRAPH_DETAILS)
     List<Invoice> findByReservationId(Long reservationId);
+    
+    @EntityGraph(Invoice.GRAPH_DETAILS)
     List<Invoice> findByStatus(InvoiceStatus status);
+    
+    /**
+     * Streams every invoice with its reservation, guest, room and room type through a JDBC
+     * cursor; must be consumed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.reservation r LEFT JOIN FETCH r.guest " +
+           "LEFT JOIN FETCH r.room rm LEFT JOIN FETCH rm.roomType ORDER BY i.id")
+    Stream<Invoice> streamAll();
 }
-
@@ -0,0 +1,16 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.RateType;
+
+import java.util.Optional;
+
+/**
+ * Rate type lookup by name, the rate type's natural id.
+ * <p>
+ * A derived query would always run SQL; loading by natural id resolves the name to an
+ * id through the second-level cache and then loads the rate type from it.
+ */
+public interface RateTypeNaturalIdRepository {
+
+    Optional<RateType> findByName(String name);
+}
@@ -0,0 +1,19 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.RateType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class RateTypeNaturalIdRepositoryImpl implements RateTypeNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<RateType> findByName(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(RateType.class).loadOptional(name);
+    }
+}
@@ -1,14 +1,22 @@
 package com.klm.pms.repository;
 
 import com.klm.pms.model.RateType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface RateTypeRepository extends JpaRepository<RateType, Long> {
-    Optional<RateType> findByName(String name);
+public interface RateTypeRepository extends JpaRepository<RateType, Long>, RateTypeNaturalIdRepository {
     boolean existsByName(String name);
+
+    /**
+     * Returns every rate type with its room type rates and their room types, in one query.
+     */
+    @EntityGraph(attributePaths = {"roomTypeRates", "roomTypeRates.roomType"})
+    @Query("SELECT r FROM RateType r")
+    List<RateType> findAllWithRoomTypeRates();
 }
 
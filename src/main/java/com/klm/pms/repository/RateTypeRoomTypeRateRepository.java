@@ -2,6 +2,7 @@ package com.klm.pms.repository;
 
 import com.klm.pms.model.RateTypeRoomTypeRate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +13,12 @@ public interface RateTypeRoomTypeRateRepository extends JpaRepository<RateTypeRo
     List<RateTypeRoomTypeRate> findByRateTypeId(Long rateTypeId);
     Optional<RateTypeRoomTypeRate> findByRateTypeIdAndRoomTypeId(Long rateTypeId, Long roomTypeId);
     void deleteByRateTypeId(Long rateTypeId);
+    
+    /**
+     * Returns {@code [rateTypeId, roomTypeId, rate]} rows for every rate. Used to load the
+     * rate matrix.
+     */
+    @Query("SELECT r.rateType.id, r.roomType.id, r.rate FROM RateTypeRoomTypeRate r")
+    List<Object[]> findAllRates();
 }
 
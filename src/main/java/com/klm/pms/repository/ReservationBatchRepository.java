@@ -0,0 +1,21 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.Reservation;
+
+import java.util.List;
+
+/**
+ * Bulk insert path for group bookings.
+ * <p>
+ * Reservation ids come from an identity column, which makes Hibernate insert rows one
+ * statement at a time. This fragment writes all rows of a group in one JDBC batch instead.
+ */
+public interface ReservationBatchRepository {
+
+    /**
+     * Inserts the reservations in one JDBC batch within the current transaction and
+     * assigns the generated ids. Guest, room and rate type must already be set, and the
+     * entities are not attached to the persistence context.
+     */
+    void insertAll(List<Reservation> reservations);
+}
@@ -0,0 +1,75 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reservations (reservation_number, guest_id, room_id, rate_type_id, " +
+            "check_in_date, check_out_date, number_of_guests, status, special_requests, " +
+            "payment_status, total_amount, deposit_amount, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        reservations.forEach(reservation -> {
+            reservation.setCreatedAt(now);
+            reservation.setUpdatedAt(now);
+        });
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation reservation = reservations.get(i);
+                        ps.setString(1, reservation.getReservationNumber());
+                        ps.setLong(2, reservation.getGuest().getId());
+                        ps.setLong(3, reservation.getRoom().getId());
+                        ps.setLong(4, reservation.getRateType().getId());
+                        ps.setObject(5, reservation.getCheckInDate());
+                        ps.setObject(6, reservation.getCheckOutDate());
+                        ps.setInt(7, reservation.getNumberOfGuests());
+                        ps.setString(8, reservation.getStatus().name());
+                        ps.setString(9, reservation.getSpecialRequests());
+                        ps.setString(10, reservation.getPaymentStatus());
+                        ps.setObject(11, reservation.getTotalAmount(), Types.NUMERIC);
+                        ps.setObject(12, reservation.getDepositAmount(), Types.NUMERIC);
+                        ps.setTimestamp(13, Timestamp.valueOf(reservation.getCreatedAt()));
+                        ps.setTimestamp(14, Timestamp.valueOf(reservation.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return reservations.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+}
@@ -2,23 +2,54 @@ package com.klm.pms.repository;
 
 import com.klm.pms.model.Reservation;
 import com.klm.pms.model.Reservation.ReservationStatus;
+import com.klm.pms.util.Constants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation>,
+        ReservationBatchRepository {
     Optional<Reservation> findByReservationNumber(String reservationNumber);
+    
+    @EntityGraph(Reservation.GRAPH_DETAILS)
     List<Reservation> findByGuestId(Long guestId);
+    
     List<Reservation> findByRoomId(Long roomId);
+    
+    @EntityGraph(Reservation.GRAPH_DETAILS)
     List<Reservation> findByStatus(ReservationStatus status);
     
+    @Query("SELECT r.id FROM Reservation r WHERE r.guest.id = :guestId")
+    List<Long> findIdsByGuestId(@Param("guestId") Long guestId);
+    
+    /**
+     * Moves every reservation of one guest to another in a single statement, without
+     * loading them. Clears the persistence context, so entities read before are detached.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE reservations SET guest_id = :toGuestId, updated_at = :now WHERE guest_id = :fromGuestId",
+           nativeQuery = true)
+    int reassignGuest(@Param("fromGuestId") Long fromGuestId, @Param("toGuestId") Long toGuestId,
+                      @Param("now") LocalDateTime now);
+    
+    @Query("SELECT r.room.id FROM Reservation r WHERE r.id = :id")
+    Optional<Long> findRoomIdById(@Param("id") Long id);
+    
     @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId AND " +
            "((r.checkInDate < :checkOutDate AND r.checkOutDate > :checkInDate) AND " +
            "r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT'))")
@@ -28,11 +59,65 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
             @Param("checkOutDate") LocalDate checkOutDate
     );
     
+    @Query("SELECT DISTINCT r.room.id FROM Reservation r WHERE r.room.id IN :roomIds AND " +
+           "r.checkInDate < :checkOutDate AND r.checkOutDate > :checkInDate AND " +
+           "r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT')")
+    List<Long> findOccupiedRoomIds(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("checkInDate") LocalDate checkInDate,
+            @Param("checkOutDate") LocalDate checkOutDate
+    );
+    
+    /**
+     * Returns {@code [roomId, checkInDate, checkOutDate]} rows for every active stay
+     * ending after the given date. Used to build the room occupancy index.
+     */
+    @Query("SELECT r.room.id, r.checkInDate, r.checkOutDate FROM Reservation r WHERE " +
+           "r.checkOutDate > :date AND r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT')")
+    List<Object[]> findActiveStaysEndingAfter(@Param("date") LocalDate date);
+    
+    /**
+     * Streams {@code [roomId, checkInDate, checkOutDate]} rows for every active stay
+     * overlapping {@code [startDate, endDate)}, grouped by room in the order of
+     * {@link RoomRepository#streamAllOrderByRoomNumber()}; must be consumed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT room.id, r.checkInDate, r.checkOutDate FROM Reservation r JOIN r.room room WHERE " +
+           "r.checkInDate < :endDate AND r.checkOutDate > :startDate AND " +
+           "r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT') " +
+           "ORDER BY room.roomNumber, room.id")
+    Stream<Object[]> streamActiveStaysOverlapping(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+    
+    /**
+     * Returns {@code [roomId, checkInDate, checkOutDate]} rows for every active stay of the
+     * given rooms overlapping {@code [startDate, endDate)}.
+     */
+    @Query("SELECT r.room.id, r.checkInDate, r.checkOutDate FROM Reservation r WHERE r.room.id IN :roomIds AND " +
+           "r.checkInDate < :endDate AND r.checkOutDate > :startDate AND " +
+           "r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT')")
+    List<Object[]> findActiveStaysOfRoomsOverlapping(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+    
+    @EntityGraph(Reservation.GRAPH_DETAILS)
     @Query("SELECT r FROM Reservation r WHERE r.checkInDate BETWEEN :startDate AND :endDate " +
            "OR r.checkOutDate BETWEEN :startDate AND :endDate")
     List<Reservation> findReservationsByDateRange(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+    
+    /**
+     * Streams every reservation with its guest, room and room type through a JDBC cursor;
+     * must be consumed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.guest LEFT JOIN FETCH r.room rm " +
+           "LEFT JOIN FETCH rm.roomType ORDER BY r.id")
+    Stream<Reservation> streamAll();
 }
-
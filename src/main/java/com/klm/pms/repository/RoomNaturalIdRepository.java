@@ -0,0 +1,16 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.Room;
+
+import java.util.Optional;
+
+/**
+ * Room lookup by room number, the room's natural id.
+ * <p>
+ * A derived query would always run SQL; loading by natural id resolves the number to an
+ * id through the second-level cache and then loads the room from it.
+ */
+public interface RoomNaturalIdRepository {
+
+    Optional<Room> findByRoomNumber(String roomNumber);
+}
@@ -0,0 +1,19 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class RoomNaturalIdRepositoryImpl implements RoomNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Room> findByRoomNumber(String roomNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Room.class).loadOptional(roomNumber);
+    }
+}
@@ -2,18 +2,51 @@ package com.klm.pms.repository;
 
 import com.klm.pms.model.Room;
 import com.klm.pms.model.Room.RoomStatus;
+import com.klm.pms.util.Constants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
-    Optional<Room> findByRoomNumber(String roomNumber);
+public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room>,
+        RoomNaturalIdRepository {
     List<Room> findByStatus(RoomStatus status);
     List<Room> findByRoomTypeId(Long roomTypeId);
     List<Room> findByStatusAndRoomTypeId(RoomStatus status, Long roomTypeId);
-}
+    
+    long countByRoomTypeId(Long roomTypeId);
+    
+    @Query("SELECT r.roomType.id, COUNT(r) FROM Room r WHERE r.status = :status GROUP BY r.roomType.id")
+    List<Object[]> countByRoomTypeWithStatus(@Param("status") RoomStatus status);
+    
+    @Query("SELECT r FROM Room r JOIN FETCH r.roomType WHERE r.status IN :statuses")
+    List<Room> findByStatusInWithRoomType(@Param("statuses") Collection<RoomStatus> statuses);
+
+    @Query("SELECT r FROM Room r JOIN FETCH r.roomType WHERE r.id IN :ids")
+    List<Room> findAllByIdWithRoomType(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Streams every room with its room type through a JDBC cursor; must be consumed within
+     * a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.roomType ORDER BY r.id")
+    Stream<Room> streamAll();
 
+    /**
+     * Streams every room with its room type in room number order through a JDBC cursor;
+     * must be consumed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.STREAM_FETCH_SIZE))
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.roomType ORDER BY r.roomNumber, r.id")
+    Stream<Room> streamAllOrderByRoomNumber();
+}
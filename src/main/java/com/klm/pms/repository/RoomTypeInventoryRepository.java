@@ -0,0 +1,80 @@
+package com.klm.pms.repository;
+
+import com.klm.pms.model.RoomTypeInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomTypeInventoryRepository extends JpaRepository<RoomTypeInventory, Long> {
+
+    List<RoomTypeInventory> findByRoomTypeIdAndStayDateGreaterThanEqualAndStayDateLessThanOrderByStayDate(
+            Long roomTypeId, LocalDate startDate, LocalDate endDate);
+
+    List<RoomTypeInventory> findByStayDateGreaterThanEqualAndStayDateLessThan(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Takes the transaction-scoped advisory lock {@code key} in shared mode, waiting while
+     * it is held exclusively.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(:key)) AS l", nativeQuery = true)
+    int lockShared(@Param("key") long key);
+
+    /**
+     * Takes the transaction-scoped advisory lock {@code key} exclusively, waiting for
+     * every holder to finish.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) AS l", nativeQuery = true)
+    int lockExclusive(@Param("key") long key);
+
+    /**
+     * Adds {@code delta} to the sold count of every night in {@code [startDate, endDate)},
+     * creating missing rows.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_type_inventory (room_type_id, stay_date, sold, out_of_order, updated_at) " +
+                   "SELECT :roomTypeId, CAST(night AS date), :delta, 0, now() " +
+                   "FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date) - 1, interval '1 day') AS night " +
+                   "ON CONFLICT (room_type_id, stay_date) DO UPDATE " +
+                   "SET sold = room_type_inventory.sold + EXCLUDED.sold, updated_at = now()",
+           nativeQuery = true)
+    int adjustSold(
+            @Param("roomTypeId") Long roomTypeId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("delta") int delta
+    );
+
+    /**
+     * Recomputes sold nights per room type from the reservations table for
+     * {@code [startDate, endDate)}. Returns {@code [roomTypeId, stayDate, sold]} rows.
+     * Checked-out stays count up to the actual check-out date, so an early departure
+     * frees the remaining nights.
+     */
+    @Query(value = "SELECT rm.room_type_id, CAST(night AS date) AS stay_date, COUNT(*) AS sold " +
+                   "FROM reservations r JOIN rooms rm ON rm.id = r.room_id " +
+                   "CROSS JOIN LATERAL generate_series(" +
+                   "  GREATEST(r.check_in_date, CAST(:startDate AS date)), " +
+                   "  LEAST(CASE WHEN r.status = 'CHECKED_OUT' " +
+                   "             THEN LEAST(r.check_out_date, CAST(r.actual_check_out_time AS date)) " +
+                   "             ELSE r.check_out_date END, CAST(:endDate AS date)) - 1, " +
+                   "  interval '1 day') AS night " +
+                   "WHERE r.check_in_date < :endDate AND r.check_out_date > :startDate " +
+                   "AND (r.status NOT IN ('CANCELLED', 'NO_SHOW', 'CHECKED_OUT') " +
+                   "     OR (r.status = 'CHECKED_OUT' AND r.actual_check_out_time IS NOT NULL)) " +
+                   "GROUP BY rm.room_type_id, CAST(night AS date)",
+           nativeQuery = true)
+    List<Object[]> computeSoldNights(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Modifying
+    @Query("DELETE FROM RoomTypeInventory i WHERE i.roomTypeId = :roomTypeId")
+    int deleteByRoomTypeId(@Param("roomTypeId") Long roomTypeId);
+}
@@ -0,0 +1,50 @@
+package com.klm.pms.repository.specification;
+
+import com.klm.pms.dto.AuditLogFilterRequest;
+import com.klm.pms.model.AuditLog;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the audit log filter from only the supplied criteria, so PostgreSQL plans each
+ * combination against the matching index ({@code idx_audit_entity_timestamp} for
+ * entity filters, {@code idx_audit_username_timestamp} for user filters) instead of one
+ * generic plan with {@code (:x IS NULL OR ...)} branches.
+ */
+public class AuditLogSpecification {
+
+    public static Specification<AuditLog> withFilters(AuditLogFilterRequest filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getEntityType() != null && !filter.getEntityType().isEmpty()) {
+                predicates.add(cb.equal(root.get("entityType"), filter.getEntityType()));
+            }
+
+            if (filter.getEntityId() != null) {
+                predicates.add(cb.equal(root.get("entityId"), filter.getEntityId()));
+            }
+
+            if (filter.getUsername() != null && !filter.getUsername().isEmpty()) {
+                predicates.add(cb.equal(root.get("username"), filter.getUsername()));
+            }
+
+            if (filter.getAction() != null) {
+                predicates.add(cb.equal(root.get("action"), filter.getAction()));
+            }
+
+            if (filter.getStartDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), filter.getStartDate()));
+            }
+
+            if (filter.getEndDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("timestamp"), filter.getEndDate()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -53,16 +53,7 @@ public class GuestSpecification {
             }
             
             if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty()) {
-                String searchTerm = filter.getSearchTerm().toLowerCase();
-                Predicate searchPredicate = cb.or(
-                    cb.like(cb.lower(root.get("firstName")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("lastName")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("email")), "%" + searchTerm + "%"),
-                    cb.like(root.get("phoneNumber"), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("address")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("city")), "%" + searchTerm + "%")
-                );
-                predicates.add(searchPredicate);
+                predicates.add(TextSearch.matches(root, cb, filter.getSearchTerm()));
             }
             
             return cb.and(predicates.toArray(new Predicate[0]));
@@ -0,0 +1,181 @@
+package com.klm.pms.repository.specification;
+
+import com.klm.pms.exception.ValidationException;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position after the last row of a keyset-paginated page: the sort field and direction,
+ * and that row's sort value and id.
+ * <p>
+ * Rows are ordered by the sort field and then by id in the same direction, so the
+ * position is unique even when sort values repeat. {@link #after()} turns it into a seek
+ * predicate that can be combined with the usual filter specifications. Sort values may be
+ * null; PostgreSQL orders nulls last when ascending and first when descending, and the
+ * predicate follows that order.
+ * <p>
+ * Cursors are handed to clients as opaque URL-safe strings. They carry the sort, so the
+ * next page is requested with the cursor alone.
+ */
+public final class KeysetCursor {
+
+    private static final Set<Class<?>> SORTABLE_TYPES = Set.of(String.class, Long.class, long.class,
+            Integer.class, int.class, BigDecimal.class, LocalDate.class, LocalDateTime.class,
+            Boolean.class, boolean.class);
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final String value;
+    private final long id;
+
+    private KeysetCursor(String sortBy, Sort.Direction direction, String value, long id) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Returns the position after {@code row}, which was read with the given sort.
+     */
+    public static KeysetCursor after(Object row, String sortBy, Sort.Direction direction) {
+        BeanWrapperImpl wrapper = (BeanWrapperImpl) PropertyAccessorFactory.forBeanPropertyAccess(row);
+        Object sortValue = wrapper.getPropertyValue(sortBy);
+        Long rowId = (Long) wrapper.getPropertyValue("id");
+        String encodedValue = sortValue == null ? null
+                : sortValue instanceof Enum<?> constant ? constant.name() : sortValue.toString();
+        return new KeysetCursor(sortBy, direction, encodedValue, rowId);
+    }
+
+    /**
+     * Rejects sort fields that cannot be used for keyset pagination: unknown fields,
+     * nested paths and associations.
+     */
+    public static void requireSortable(Class<?> entityType, String sortBy) {
+        Class<?> type = null;
+        if (!sortBy.contains(".")) {
+            try {
+                type = new BeanWrapperImpl(entityType).getPropertyType(sortBy);
+            } catch (BeansException e) {
+                // Reported below
+            }
+        }
+        if (type == null || !(SORTABLE_TYPES.contains(type) || type.isEnum())) {
+            throw new ValidationException("sortBy",
+                    String.format("Cannot paginate %s by cursor sorted by '%s'", entityType.getSimpleName(), sortBy));
+        }
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\n", 4);
+            if (parts.length < 3 || (parts.length == 4 && !parts[3].startsWith("="))) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]),
+                    parts.length == 4 ? parts[3].substring(1) : null, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("cursor", "Invalid cursor");
+        }
+    }
+
+    /**
+     * Checks a decoded cursor against the entity it is used for, so that a tampered or
+     * foreign cursor is rejected before it reaches the query.
+     */
+    public void requireValidFor(Class<?> entityType) {
+        requireSortable(entityType, sortBy);
+        if (value != null && !"id".equals(sortBy)) {
+            parse(new BeanWrapperImpl(entityType).getPropertyType(sortBy), value);
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + "\n" + direction.name() + "\n" + id + (value != null ? "\n=" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * The order keyset pages are read in: the sort field, then id.
+     */
+    public static Sort sort(String sortBy, Sort.Direction direction) {
+        return "id".equals(sortBy) ? Sort.by(direction, "id") : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Matches the rows that come after this position.
+     */
+    public <T> Specification<T> after() {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = direction.isAscending() ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if ("id".equals(sortBy)) {
+                return idAfter;
+            }
+            Path<Comparable<Object>> sortPath = root.get(sortBy);
+            if (value == null) {
+                // Nulls sort last ascending (only null rows follow) and first descending
+                Predicate sameNull = cb.and(cb.isNull(sortPath), idAfter);
+                return direction.isAscending() ? sameNull : cb.or(sameNull, cb.isNotNull(sortPath));
+            }
+            Comparable<Object> sortValue = parse(sortPath.getJavaType(), value);
+            Predicate beyond = direction.isAscending()
+                    ? cb.greaterThan(sortPath, sortValue)
+                    : cb.lessThan(sortPath, sortValue);
+            Predicate tie = cb.and(cb.equal(sortPath, sortValue), idAfter);
+            return direction.isAscending()
+                    ? cb.or(beyond, tie, cb.isNull(sortPath))
+                    : cb.or(beyond, tie);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> parse(Class<?> type, String value) {
+        try {
+            Object parsed;
+            if (type == String.class) {
+                parsed = value;
+            } else if (type == Long.class || type == long.class) {
+                parsed = Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                parsed = Integer.valueOf(value);
+            } else if (type == BigDecimal.class) {
+                parsed = new BigDecimal(value);
+            } else if (type == LocalDate.class) {
+                parsed = LocalDate.parse(value);
+            } else if (type == LocalDateTime.class) {
+                parsed = LocalDateTime.parse(value);
+            } else if (type == Boolean.class || type == boolean.class) {
+                parsed = Boolean.valueOf(value);
+            } else if (type.isEnum()) {
+                parsed = Enum.valueOf((Class<? extends Enum>) type, value);
+            } else {
+                throw new IllegalArgumentException("Unsupported sort type " + type.getName());
+            }
+            return (Comparable<Object>) parsed;
+        } catch (RuntimeException e) {
+            throw new ValidationException("cursor", "Invalid cursor");
+        }
+    }
+}
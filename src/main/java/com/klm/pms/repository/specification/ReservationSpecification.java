@@ -64,12 +64,7 @@ public class ReservationSpecification {
             }
             
             if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty()) {
-                String searchTerm = filter.getSearchTerm().toLowerCase();
-                Predicate searchPredicate = cb.or(
-                    cb.like(cb.lower(root.get("reservationNumber")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("specialRequests")), "%" + searchTerm + "%")
-                );
-                predicates.add(searchPredicate);
+                predicates.add(TextSearch.matches(root, cb, filter.getSearchTerm()));
             }
             
             return cb.and(predicates.toArray(new Predicate[0]));
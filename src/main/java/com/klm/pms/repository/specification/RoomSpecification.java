@@ -48,13 +48,7 @@ public class RoomSpecification {
             }
             
             if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty()) {
-                String searchTerm = filter.getSearchTerm().toLowerCase();
-                Predicate searchPredicate = cb.or(
-                    cb.like(cb.lower(root.get("roomNumber")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("description")), "%" + searchTerm + "%"),
-                    cb.like(cb.lower(root.get("amenities")), "%" + searchTerm + "%")
-                );
-                predicates.add(searchPredicate);
+                predicates.add(TextSearch.matches(root, cb, filter.getSearchTerm()));
             }
             
             return cb.and(predicates.toArray(new Predicate[0]));
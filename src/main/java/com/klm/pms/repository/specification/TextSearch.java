@@ -0,0 +1,45 @@
+package com.klm.pms.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Free-text search over an entity's {@code searchText} column: a lower-cased
+ * concatenation of its searchable columns, generated by PostgreSQL and covered by a
+ * {@code pg_trgm} GIN index (see {@code SearchTextInitializer}).
+ * <p>
+ * A single {@code LIKE '%term%'} on that column replaces one {@code LIKE} per column, and
+ * the trigram index answers it without a sequential scan once the term is three or more
+ * characters long.
+ */
+public final class TextSearch {
+
+    static final String SEARCH_TEXT = "searchText";
+
+    private TextSearch() {
+    }
+
+    static Predicate matches(Root<?> root, CriteriaBuilder cb, String searchTerm) {
+        return cb.like(root.get(SEARCH_TEXT), "%" + searchTerm.toLowerCase() + "%");
+    }
+
+    /**
+     * Orders matches by how closely the term matches a word sequence of their search text,
+     * best first, then by id. For use with an unsorted page request, which would otherwise
+     * replace this order.
+     */
+    public static <T> Specification<T> rankedBySimilarity(String searchTerm) {
+        return (root, query, cb) -> {
+            // Count queries are not ordered
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<Double> similarity = cb.function("word_similarity", Double.class,
+                        cb.literal(searchTerm.toLowerCase()), root.get(SEARCH_TEXT));
+                query.orderBy(cb.desc(similarity), cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+}
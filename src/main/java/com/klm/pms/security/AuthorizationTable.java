@@ -0,0 +1,201 @@
+package com.klm.pms.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@link RequireRole} roles of every handler method, resolved once.
+ * <p>
+ * Each distinct required role gets a bit in a registry, so a set of roles is a
+ * {@code long} mask. User roles are turned into a mask when their token is validated
+ * (see {@link TokenValidationResult#getRoleMask()}), and {@link RoleBasedAccessInterceptor}
+ * grants access when that mask shares a bit with the handler's {@link Requirement}.
+ * Roles no endpoint requires get no bit. Role names are compared after
+ * {@link #normalizeRole normalization}, so "admin", "ADMIN" and "ROLE_ADMIN" are one role.
+ * <p>
+ * The table is built from the request mappings on first use, since the handler mappings
+ * are created after the interceptors that read it.
+ */
+@Component
+public class AuthorizationTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationTable.class);
+
+    private static final String ROLE_PREFIX = "role_";
+
+    private final Supplier<Collection<HandlerMethod>> handlerMethods;
+    private volatile Table table;
+
+    @Autowired
+    public AuthorizationTable(ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this(() -> handlerMappings.orderedStream()
+                .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+                .toList());
+    }
+
+    /**
+     * Table over the given handler methods, for use outside a web application context.
+     */
+    public AuthorizationTable(Collection<HandlerMethod> handlerMethods) {
+        this(() -> handlerMethods);
+    }
+
+    private AuthorizationTable(Supplier<Collection<HandlerMethod>> handlerMethods) {
+        this.handlerMethods = handlerMethods;
+    }
+
+    /**
+     * Roles required by the handler method, or null when any authenticated user may call it.
+     */
+    public Requirement requirement(HandlerMethod handlerMethod) {
+        Table current = table();
+        Method method = handlerMethod.getMethod();
+        Requirement requirement = current.requirements.get(method);
+        if (requirement != null || current.unrestricted.contains(method)) {
+            return requirement;
+        }
+        // Not among the request mappings: resolve it now and remember the outcome
+        requirement = current.resolve(method, handlerMethod.getBeanType());
+        if (requirement == null) {
+            current.unrestricted.add(method);
+        } else {
+            current.requirements.put(method, requirement);
+        }
+        return requirement;
+    }
+
+    /**
+     * Mask of the registered roles among the given role names.
+     */
+    public long roleMask(Collection<String> roles) {
+        Map<String, Long> bits = table().bits;
+        long mask = 0L;
+        for (String role : roles) {
+            mask |= bits.getOrDefault(normalizeRole(role), 0L);
+        }
+        return mask;
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = Table.of(handlerMethods.get());
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Normalize a role name by converting to lowercase and removing ROLE_ prefix if present.
+     *
+     * @param role The role name to normalize
+     * @return Normalized role name (lowercase, without ROLE_ prefix)
+     */
+    static String normalizeRole(String role) {
+        if (role == null) {
+            return "";
+        }
+        String normalized = role.trim().toLowerCase();
+        if (normalized.startsWith(ROLE_PREFIX)) {
+            normalized = normalized.substring(ROLE_PREFIX.length());
+        }
+        return normalized;
+    }
+
+    private static RequireRole findRequireRole(Method method, Class<?> beanType) {
+        // The method's annotation takes precedence over the class's
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        return requireRole != null ? requireRole : beanType.getAnnotation(RequireRole.class);
+    }
+
+    /**
+     * Roles guarding a handler method: their mask and, for messages, their names as declared.
+     * {@code unregistered} holds the normalized roles without a bit, which only handler
+     * methods outside the request mappings can require.
+     */
+    public record Requirement(long mask, List<String> roles, List<String> unregistered) {
+    }
+
+    private static final class Table {
+
+        private final Map<String, Long> bits;
+        private final Map<Method, Requirement> requirements = new ConcurrentHashMap<>();
+        private final Collection<Method> unrestricted = ConcurrentHashMap.newKeySet();
+
+        private Table(Map<String, Long> bits) {
+            this.bits = bits;
+        }
+
+        static Table of(Collection<HandlerMethod> handlerMethods) {
+            Map<Method, String[]> declared = new LinkedHashMap<>();
+            List<Method> unrestricted = new ArrayList<>();
+            Map<String, Long> bits = new HashMap<>();
+            for (HandlerMethod handlerMethod : handlerMethods) {
+                RequireRole requireRole = findRequireRole(handlerMethod.getMethod(), handlerMethod.getBeanType());
+                if (requireRole == null || requireRole.value().length == 0) {
+                    unrestricted.add(handlerMethod.getMethod());
+                    continue;
+                }
+                declared.put(handlerMethod.getMethod(), requireRole.value());
+                for (String role : requireRole.value()) {
+                    String normalized = normalizeRole(role);
+                    if (!bits.containsKey(normalized)) {
+                        if (bits.size() == Long.SIZE) {
+                            throw new IllegalStateException("@RequireRole names more than " + Long.SIZE + " distinct roles");
+                        }
+                        bits.put(normalized, 1L << bits.size());
+                    }
+                }
+            }
+
+            Table table = new Table(Map.copyOf(bits));
+            table.unrestricted.addAll(unrestricted);
+            for (Map.Entry<Method, String[]> entry : declared.entrySet()) {
+                table.requirements.put(entry.getKey(), table.requirement(entry.getValue()));
+            }
+            logger.info("Authorization table: {} handler method(s) guarded by {} role(s)",
+                    declared.size(), bits.size());
+            return table;
+        }
+
+        Requirement resolve(Method method, Class<?> beanType) {
+            RequireRole requireRole = findRequireRole(method, beanType);
+            return requireRole == null || requireRole.value().length == 0 ? null : requirement(requireRole.value());
+        }
+
+        private Requirement requirement(String[] roles) {
+            long mask = 0L;
+            List<String> unregistered = new ArrayList<>();
+            for (String role : roles) {
+                String normalized = normalizeRole(role);
+                Long bit = bits.get(normalized);
+                if (bit != null) {
+                    mask |= bit;
+                } else {
+                    unregistered.add(normalized);
+                }
+            }
+            return new Requirement(mask, List.of(roles), List.copyOf(unregistered));
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String USERNAME_ATTRIBUTE = "username";
     private static final String ROLES_ATTRIBUTE = "roles";
+    private static final String ROLE_MASK_ATTRIBUTE = "roleMask";
 
     @Autowired
     private JwtTokenValidator jwtTokenValidator;
@@ -77,9 +78,10 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
             throw new UnauthorizedException("Token is missing the required subject claim");
         }
 
-        // Store username and roles in request attribute for use in controllers
+        // Store username, roles and role mask in request attributes for controllers and the role check
         request.setAttribute(USERNAME_ATTRIBUTE, username);
         request.setAttribute(ROLES_ATTRIBUTE, validationResult.getRoles());
+        request.setAttribute(ROLE_MASK_ATTRIBUTE, validationResult.getRoleMask());
         logger.debug("Token successfully validated for user '{}' with roles {} on path: {}", 
                 username, validationResult.getRoles(), requestPath);
         
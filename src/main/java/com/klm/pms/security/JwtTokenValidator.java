@@ -1,6 +1,7 @@
 package com.klm.pms.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -10,32 +11,60 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Verifies bearer tokens signed with {@code jwt.secret}.
+ * <p>
+ * The signing key and parser are built once. Verified tokens are remembered by their
+ * SHA-256 digest until their {@code exp}, so a client repeating its token skips the
+ * signature check and claim parsing; the cached {@link TokenValidationResult} is shared
+ * by those requests. At most {@code jwt.cache.max-entries} tokens are remembered.
+ * Rejected tokens are never cached. The token's roles are turned into an
+ * {@link AuthorizationTable} role mask here, once per token.
+ */
 @Service
 public class JwtTokenValidator {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenValidator.class);
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final JwtParser parser;
+    private final int maxCachedTokens;
+    private final AuthorizationTable authorizationTable;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenValidator(@Value("${jwt.secret}") String secretKey,
+                             @Value("${jwt.cache.max-entries:10000}") int maxCachedTokens,
+                             AuthorizationTable authorizationTable) {
+        SecretKey signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.maxCachedTokens = maxCachedTokens;
+        this.authorizationTable = authorizationTable;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public TokenValidationResult validateTokenWithDetails(String token) {
+        String digest = digest(token);
+        VerifiedToken verified = verifiedTokens.get(digest);
+        if (verified != null) {
+            if (System.currentTimeMillis() < verified.expiresAt()) {
+                return verified.result();
+            }
+            // Expired since it was cached: parse again for the usual expiry error
+            verifiedTokens.remove(digest);
+        }
+
         try {
             Claims claims = extractAllClaims(token);
             String username = claims.getSubject();
@@ -45,12 +74,18 @@ public class JwtTokenValidator {
             // Extract roles from token claims
             List<String> roles = extractRoles(claims);
 
-            return TokenValidationResult.builder()
+            TokenValidationResult result = TokenValidationResult.builder()
                     .valid(!expired)
                     .username(username)
                     .expired(expired)
-                    .roles(roles)
+                    .roles(List.copyOf(roles)) // Shared by every request carrying the token
+                    .roleMask(authorizationTable.roleMask(roles))
                     .build();
+            if (result.isValid() && maxCachedTokens > 0) {
+                cache(digest, new VerifiedToken(result,
+                        expiration != null ? expiration.getTime() : Long.MAX_VALUE));
+            }
+            return result;
         } catch (Exception ex) {
             logger.warn("Token validation failed", ex);
             return TokenValidationResult.builder()
@@ -60,6 +95,36 @@ public class JwtTokenValidator {
         }
     }
 
+    /**
+     * Number of verified tokens currently remembered.
+     */
+    int cachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private void cache(String digest, VerifiedToken verified) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            // Drop expired tokens first, then arbitrary ones down to the bound
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+            Iterator<String> digests = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= maxCachedTokens && digests.hasNext()) {
+                digests.next();
+                digests.remove();
+            }
+        }
+        verifiedTokens.put(digest, verified);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private List<String> extractRoles(Claims claims) {
         List<String> roles = new ArrayList<>();
         
@@ -110,5 +175,7 @@ public class JwtTokenValidator {
         logger.debug("Extracted roles: {}", roles);
         return roles;
     }
-}
 
+    private record VerifiedToken(TokenValidationResult result, long expiresAt) {
+    }
+}
@@ -1,17 +1,17 @@
 package com.klm.pms.security;
 
 import com.klm.pms.exception.UnauthorizedException;
+import com.klm.pms.security.AuthorizationTable.Requirement;
 import com.klm.pms.util.SecurityContextUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -19,11 +19,17 @@ import java.util.List;
  * Checks if the current user has the required roles before allowing access to an endpoint.
  * 
  * If @RequireRole is not specified, all authenticated users are allowed.
+ * The required roles come precompiled from {@link AuthorizationTable} and are matched
+ * against the role mask stored by {@link JwtAuthenticationInterceptor}.
  */
 @Component
 public class RoleBasedAccessInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(RoleBasedAccessInterceptor.class);
+    private static final String ROLE_MASK_ATTRIBUTE = "roleMask";
+
+    @Autowired
+    private AuthorizationTable authorizationTable;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -32,29 +38,21 @@ public class RoleBasedAccessInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
-        Class<?> controllerClass = handlerMethod.getBeanType();
-
-        // Check for @RequireRole annotation on the method first, then on the class
-        RequireRole requireRole = method.getAnnotation(RequireRole.class);
-        if (requireRole == null) {
-            requireRole = controllerClass.getAnnotation(RequireRole.class);
-        }
+        // Required roles from @RequireRole on the method, else on the class, resolved once
+        Requirement requirement = authorizationTable.requirement((HandlerMethod) handler);
 
-        // If no @RequireRole annotation, allow all authenticated users
-        if (requireRole == null) {
+        // If no (or an empty) @RequireRole annotation, allow all authenticated users
+        if (requirement == null) {
             logger.debug("No @RequireRole annotation found for {} - allowing all authenticated users", 
                     request.getRequestURI());
             return true;
         }
 
-        // Get required roles from annotation
-        String[] requiredRoles = requireRole.value();
-        if (requiredRoles == null || requiredRoles.length == 0) {
-            // Empty roles array means allow all authenticated users
-            logger.debug("@RequireRole with empty roles for {} - allowing all authenticated users", 
-                    request.getRequestURI());
+        // Check if user has at least one of the required roles: their role masks share a bit
+        Object roleMask = request.getAttribute(ROLE_MASK_ATTRIBUTE);
+        long userRoleMask = roleMask instanceof Long ? (Long) roleMask : 0L;
+        if ((userRoleMask & requirement.mask()) != 0) {
+            logger.debug("Access granted to {} (required: {})", request.getRequestURI(), requirement.roles());
             return true;
         }
 
@@ -67,56 +65,17 @@ public class RoleBasedAccessInterceptor implements HandlerInterceptor {
             throw new UnauthorizedException("Access denied: User has no roles assigned");
         }
 
-        // Check if user has at least one of the required roles
-        boolean hasRequiredRole = Arrays.stream(requiredRoles)
-                .anyMatch(requiredRoleName -> hasRole(userRoles, requiredRoleName));
-
-        if (!hasRequiredRole) {
-            logger.warn("User '{}' with roles {} attempted to access {} which requires one of: {}", 
-                    username, userRoles, request.getRequestURI(), Arrays.toString(requiredRoles));
-            throw new UnauthorizedException(
-                    String.format("Access denied: This endpoint requires one of the following roles: %s", 
-                            String.join(", ", requiredRoles)));
+        // Roles without a bit are only required by handlers outside the request mappings
+        if (!requirement.unregistered().isEmpty() && userRoles.stream()
+                .map(AuthorizationTable::normalizeRole)
+                .anyMatch(requirement.unregistered()::contains)) {
+            return true;
         }
 
-        logger.debug("User '{}' with roles {} granted access to {} (required: {})", 
-                username, userRoles, request.getRequestURI(), Arrays.toString(requiredRoles));
-        return true;
-    }
-
-    /**
-     * Check if the user has a specific role, handling various role name formats.
-     * Supports formats like: "admin", "ADMIN", "ROLE_ADMIN", "role_admin"
-     * 
-     * @param userRoles List of user's roles
-     * @param requiredRole The required role name
-     * @return true if user has the role, false otherwise
-     */
-    private boolean hasRole(List<String> userRoles, String requiredRole) {
-        // Normalize role names for comparison (case-insensitive, remove ROLE_ prefix if present)
-        String normalizedRequiredRole = normalizeRole(requiredRole);
-        
-        return userRoles.stream()
-                .map(this::normalizeRole)
-                .anyMatch(userRole -> userRole.equals(normalizedRequiredRole));
-    }
-
-    /**
-     * Normalize a role name by converting to lowercase and removing ROLE_ prefix if present.
-     * 
-     * @param role The role name to normalize
-     * @return Normalized role name (lowercase, without ROLE_ prefix)
-     */
-    private String normalizeRole(String role) {
-        if (role == null) {
-            return "";
-        }
-        String normalized = role.trim().toLowerCase();
-        // Remove ROLE_ prefix if present
-        if (normalized.startsWith("role_")) {
-            normalized = normalized.substring(5); // Remove "role_" prefix
-        }
-        return normalized;
+        logger.warn("User '{}' with roles {} attempted to access {} which requires one of: {}", 
+                username, userRoles, request.getRequestURI(), requirement.roles());
+        throw new UnauthorizedException(
+                String.format("Access denied: This endpoint requires one of the following roles: %s", 
+                        String.join(", ", requirement.roles())));
     }
 }
-
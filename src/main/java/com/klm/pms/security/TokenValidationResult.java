@@ -9,6 +9,7 @@ public class TokenValidationResult {
     private final boolean expired;
     private final String error;
     private final List<String> roles;
+    private final long roleMask;
 
     private TokenValidationResult(Builder builder) {
         this.valid = builder.valid;
@@ -16,6 +17,7 @@ public class TokenValidationResult {
         this.expired = builder.expired;
         this.error = builder.error;
         this.roles = builder.roles;
+        this.roleMask = builder.roleMask;
     }
 
     public boolean isValid() {
@@ -38,6 +40,13 @@ public class TokenValidationResult {
         return roles;
     }
 
+    /**
+     * The user's roles as a mask over the {@link AuthorizationTable} role registry.
+     */
+    public long getRoleMask() {
+        return roleMask;
+    }
+
     public boolean hasRole(String role) {
         return roles != null && roles.contains(role);
     }
@@ -52,6 +61,7 @@ public class TokenValidationResult {
         private boolean expired;
         private String error;
         private List<String> roles;
+        private long roleMask;
 
         private Builder() {
         }
@@ -81,6 +91,11 @@ public class TokenValidationResult {
             return this;
         }
 
+        public Builder roleMask(long roleMask) {
+            this.roleMask = roleMask;
+            return this;
+        }
+
         public TokenValidationResult build() {
             return new TokenValidationResult(this);
         }
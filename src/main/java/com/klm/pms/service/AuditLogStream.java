@@ -0,0 +1,288 @@
+package com.klm.pms.service;
+
+import com.klm.pms.dto.AuditLogDTO;
+import com.klm.pms.mapper.AuditLogMapper;
+import com.klm.pms.model.AuditLog;
+import com.klm.pms.repository.AuditLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes newly written audit logs to Server-Sent Events subscribers.
+ * <p>
+ * {@link AuditLogWriter} publishes each batch once it is committed. Publishing only
+ * offers the events to every subscriber's bounded buffer, so it never waits for a
+ * client; each subscriber's buffer is drained and sent by a separate sender task. A
+ * subscriber whose buffer fills up ({@code audit.stream.buffer-size}) is disconnected
+ * rather than silently skipping events, and can reconnect from its last event id.
+ * <p>
+ * Each event's id is the audit log id. A subscriber that passes the id of the last event
+ * it received (the {@code Last-Event-ID} header on reconnect) first gets every audit log
+ * written after it, read from the database in pages, and then continues with live events.
+ * Live events that the replay already sent are skipped. Nothing else is: ids are not
+ * published in ascending order, since callers may write audit logs alongside
+ * {@link AuditLogWriter}'s background thread, so a live event with a lower id than the
+ * last one sent is still new to the subscriber.
+ */
+@Component
+public class AuditLogStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogStream.class);
+
+    static final String EVENT_NAME = "audit-log";
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditLogMapper auditLogMapper;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong disconnectedSlow = new AtomicLong();
+
+    public AuditLogStream(@Value("${audit.stream.buffer-size:1000}") int bufferSize,
+                          @Value("${audit.stream.timeout-ms:1800000}") long timeoutMillis,
+                          @Value("${audit.stream.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "audit-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comments keep idle connections open through proxies and reveal dead clients
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of audit logs written from now on, preceded by those written after
+     * {@code lastEventId} when it is given.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        try {
+            // Flushes the response headers right away, before any audit log is written
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        // Registered before the replay query, so nothing written in between is missed
+        subscribers.add(subscriber);
+        logger.info("Audit log stream subscriber connected (resuming after {}), {} subscriber(s)",
+                lastEventId, subscribers.size());
+        senders.execute(() -> {
+            if (lastEventId != null && !replay(subscriber, lastEventId)) {
+                return;
+            }
+            subscriber.replayed = true;
+            if (subscriber.draining.compareAndSet(false, true)) {
+                drain(subscriber);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Hands committed audit logs to every subscriber. Never blocks.
+     */
+    public void publish(List<AuditLog> auditLogs) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<AuditLogDTO> events = auditLogs.stream().map(auditLogMapper::toDTO).toList();
+        published.addAndGet(events.size());
+        for (Subscriber subscriber : subscribers) {
+            for (AuditLogDTO event : events) {
+                if (!subscriber.buffer.offer(event)) {
+                    disconnectedSlow.incrementAndGet();
+                    logger.warn("Audit log stream subscriber fell {} events behind, disconnecting it", bufferSize);
+                    remove(subscriber);
+                    subscriber.emitter.complete();
+                    break;
+                }
+            }
+            if (subscriber.replayed) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getDisconnectedSlow() {
+        return disconnectedSlow.get();
+    }
+
+    private boolean replay(Subscriber subscriber, long lastEventId) {
+        ReplayedIds replayedIds = new ReplayedIds(lastEventId);
+        subscriber.replayedIds = replayedIds;
+        long after = lastEventId;
+        while (true) {
+            List<AuditLog> page = auditLogRepository.findByIdGreaterThanOrderByIdAsc(after,
+                    PageRequest.of(0, REPLAY_PAGE_SIZE));
+            for (AuditLog auditLog : page) {
+                if (!send(subscriber, auditLogMapper.toDTO(auditLog))) {
+                    return false;
+                }
+                replayedIds.add(auditLog.getId());
+            }
+            if (page.size() < REPLAY_PAGE_SIZE) {
+                return true;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Runs with the subscriber's draining flag set, so one sender at a time
+    private void drain(Subscriber subscriber) {
+        try {
+            AuditLogDTO event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                // Written before the replay finished reading, and so already sent by it
+                if (subscriber.replayedIds != null && subscriber.replayedIds.contains(event.getId())) {
+                    continue;
+                }
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Events offered after the last poll but before the flag was cleared
+        if (!subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, AuditLogDTO event) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getId()))
+                    .name(EVENT_NAME)
+                    .data(event, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Audit log stream subscriber disconnected: {}", e.getMessage());
+            remove(subscriber);
+            return false;
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            logger.info("Audit log stream subscriber disconnected, {} subscriber(s)", subscribers.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<AuditLogDTO> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean replayed;
+        // Filled by the replay before replayed is set, so drains see it complete; null without a replay
+        private ReplayedIds replayedIds;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    /**
+     * Ids of the audit logs sent by a replay, as bits offset from the id it resumed after.
+     */
+    static final class ReplayedIds {
+
+        private final long after;
+        private final BitSet ids = new BitSet();
+
+        ReplayedIds(long after) {
+            this.after = after;
+        }
+
+        void add(long id) {
+            ids.set(offset(id));
+        }
+
+        boolean contains(long id) {
+            return id > after && id - after <= Integer.MAX_VALUE && ids.get(offset(id));
+        }
+
+        private int offset(long id) {
+            return (int) (id - after - 1);
+        }
+    }
+}
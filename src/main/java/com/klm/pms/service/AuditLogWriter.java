@@ -0,0 +1,299 @@
+package com.klm.pms.service;
+
+import com.klm.pms.dto.AuditWriterMetricsDTO;
+import com.klm.pms.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes audit log rows in the background, in JDBC batches.
+ * <p>
+ * {@link AuditService} hands over fully built {@link AuditLog}s, so everything taken from
+ * the request (username, path, method) is captured on the request thread. Entries wait
+ * in a bounded queue that a single writer thread drains, inserting up to
+ * {@code audit.writer.batch-size} rows per statement batch and transaction. A batch that
+ * fails is retried row by row, so one bad row does not lose the others.
+ * <p>
+ * When the queue is full, {@code audit.writer.overflow-policy} decides what happens:
+ * <ul>
+ *   <li>{@code CALLER_RUNS} (default) - the caller writes its entry itself, slowing
+ *       writers down to what the database can absorb without losing rows;</li>
+ *   <li>{@code BLOCK} - the caller waits up to {@code audit.writer.offer-timeout-ms}
+ *       for space, then the entry is dropped;</li>
+ *   <li>{@code DROP} - the entry is dropped immediately.</li>
+ * </ul>
+ * The writer starts before and stops after the web server, and drains the queue when
+ * stopped. Entries submitted while it is not running are written directly.
+ * <p>
+ * Rows are handed to {@link AuditLogStream} once their transaction has committed.
+ */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    public enum OverflowPolicy {
+        CALLER_RUNS, BLOCK, DROP
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (entity_type, entity_id, action, username, timestamp, changes, " +
+            "description, request_path, request_method) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLogStream auditLogStream;
+
+    private final BlockingQueue<PendingEntry> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenByCaller = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchLagMillis;
+
+    // Callers may be in afterCommit of their own transaction, which REQUIRED would join
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(PlatformTransactionManager transactionManager,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+                          @Value("${audit.writer.offer-timeout-ms:100}") long offerTimeoutMillis,
+                          @Value("${audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Queues an audit log row for writing.
+     */
+    public void submit(AuditLog auditLog) {
+        submitted.incrementAndGet();
+        PendingEntry entry = new PendingEntry(auditLog, System.nanoTime());
+        if (!running) {
+            writeByCaller(entry);
+            return;
+        }
+        if (queue.offer(entry)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> writeByCaller(entry);
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        drop(entry);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(entry);
+                }
+            }
+            case DROP -> drop(entry);
+        }
+    }
+
+    public AuditWriterMetricsDTO getMetrics() {
+        PendingEntry oldest = queue.peek();
+        AuditWriterMetricsDTO metrics = new AuditWriterMetricsDTO();
+        metrics.setRunning(running);
+        metrics.setOverflowPolicy(overflowPolicy.name());
+        metrics.setQueueCapacity(queueCapacity);
+        metrics.setQueueDepth(queue.size());
+        metrics.setOldestPendingAgeMillis(oldest != null ? ageMillis(oldest) : 0);
+        metrics.setSubmitted(submitted.get());
+        metrics.setWritten(written.get());
+        metrics.setWrittenByCaller(writtenByCaller.get());
+        metrics.setDropped(dropped.get());
+        metrics.setFailed(failed.get());
+        metrics.setBatches(batches.get());
+        metrics.setLastBatchSize(lastBatchSize);
+        metrics.setLastBatchLagMillis(lastBatchLagMillis);
+        return metrics;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Audit log writer started (queue capacity {}, batch size {}, overflow policy {})",
+                queueCapacity, batchSize, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            logger.warn("Audit log writer did not finish within {} ms, {} entries still queued",
+                    shutdownTimeoutMillis, queue.size());
+        }
+        // Catch entries queued between the writer's last poll and the running flag flip
+        List<PendingEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+        logger.info("Audit log writer stopped: {} written, {} dropped, {} failed",
+                written.get(), dropped.get(), failed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the embedded web server, so requests never find it stopped
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in audit log writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingEntry> entries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(entries));
+            written.addAndGet(entries.size());
+            batches.incrementAndGet();
+            lastBatchSize = entries.size();
+            lastBatchLagMillis = ageMillis(entries.get(0));
+            logger.debug("Wrote batch of {} audit log(s)", entries.size());
+            auditLogStream.publish(entries.stream().map(PendingEntry::auditLog).toList());
+        } catch (DataAccessException e) {
+            if (entries.size() == 1) {
+                failed.incrementAndGet();
+                AuditLog auditLog = entries.get(0).auditLog();
+                logger.error("Failed to write audit log for {} {} {}: {}", auditLog.getAction(),
+                        auditLog.getEntityType(), auditLog.getEntityId(), e.getMostSpecificCause().getMessage());
+                return;
+            }
+            logger.warn("Failed to write batch of {} audit logs, retrying one by one: {}",
+                    entries.size(), e.getMostSpecificCause().getMessage());
+            for (PendingEntry entry : entries) {
+                write(List.of(entry));
+            }
+        }
+    }
+
+    private void writeByCaller(PendingEntry entry) {
+        write(List.of(entry));
+        writtenByCaller.incrementAndGet();
+    }
+
+    private void drop(PendingEntry entry) {
+        long total = dropped.incrementAndGet();
+        AuditLog auditLog = entry.auditLog();
+        logger.warn("Audit log queue full, dropped {} {} {} ({} dropped in total)",
+                auditLog.getAction(), auditLog.getEntityType(), auditLog.getEntityId(), total);
+    }
+
+    private void insert(List<PendingEntry> entries) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        AuditLog auditLog = entries.get(i).auditLog();
+                        ps.setString(1, auditLog.getEntityType());
+                        ps.setLong(2, auditLog.getEntityId());
+                        ps.setString(3, auditLog.getAction().name());
+                        ps.setString(4, auditLog.getUsername());
+                        ps.setTimestamp(5, Timestamp.valueOf(auditLog.getTimestamp()));
+                        ps.setString(6, auditLog.getChanges());
+                        ps.setString(7, auditLog.getDescription());
+                        ps.setString(8, auditLog.getRequestPath());
+                        ps.setString(9, auditLog.getRequestMethod());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                },
+                keyHolder);
+
+        // Stream subscribers resume from these ids
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).auditLog().setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private static long ageMillis(PendingEntry entry) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.submittedNanos());
+    }
+
+    private record PendingEntry(AuditLog auditLog, long submittedNanos) {
+    }
+}
@@ -0,0 +1,346 @@
+package com.klm.pms.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@code audit_logs} a monthly range-partitioned table on {@code timestamp}.
+ * <p>
+ * Partitions are named {@code audit_logs_pYYYY_MM}. The table is converted from the plain
+ * table Hibernate creates on first start (see {@link #convertToPartitioned()}), after which
+ * a nightly job:
+ * <ol>
+ *   <li>creates the partitions of the current month and the next
+ *       {@code audit.partition.months-ahead} months;</li>
+ *   <li>detaches partitions older than {@code audit.retention.months} months;</li>
+ *   <li>exports every detached partition to {@code audit.archive.directory} as gzipped
+ *       NDJSON (one JSON object per row) and drops it once the file is complete.</li>
+ * </ol>
+ * A detached partition whose export fails stays in the database and is retried on the
+ * next run. A default partition catches rows outside every monthly partition, so an
+ * audit insert never fails for lack of a partition; when their month's partition is
+ * created, those rows move into it.
+ */
+@Service
+public class AuditPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionService.class);
+
+    static final String TABLE = "audit_logs";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("^" + TABLE + "_p(\\d{4})_(\\d{2})$");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    // Composites match the entity history and per-user lookups, both ordered by time
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_audit_entity_timestamp ON " + TABLE + " (entity_type, entity_id, timestamp)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_username_timestamp ON " + TABLE + " (username, timestamp)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_entity_id ON " + TABLE + " (entity_id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_timestamp ON " + TABLE + " (timestamp)"
+    };
+
+    // Prefixes of the composite indexes above
+    private static final String[] SUPERSEDED_INDEXES = {"idx_audit_entity_type", "idx_audit_username"};
+
+    private static final String CREATE_PARTITIONED_TABLE =
+            "CREATE TABLE %s (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY, " +
+            "entity_type VARCHAR(255) NOT NULL, " +
+            "entity_id BIGINT NOT NULL, " +
+            "action VARCHAR(255) NOT NULL CHECK (action IN ('CREATE', 'UPDATE', 'DELETE')), " +
+            "username VARCHAR(255) NOT NULL, " +
+            "timestamp TIMESTAMP(6) NOT NULL, " +
+            "changes TEXT, " +
+            "description VARCHAR(500), " +
+            "request_path VARCHAR(1000), " +
+            "request_method VARCHAR(50), " +
+            "PRIMARY KEY (id, timestamp)" +
+            ") PARTITION BY RANGE (timestamp)";
+
+    private static final String COLUMNS =
+            "id, entity_type, entity_id, action, username, timestamp, changes, description, request_path, request_method";
+
+    private static final String FIND_ATTACHED_PARTITIONS =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = '" + TABLE + "' AND p.relnamespace = current_schema()::regnamespace ORDER BY c.relname";
+
+    private static final String FIND_DETACHED_PARTITIONS =
+            "SELECT relname FROM pg_class WHERE relkind = 'r' AND NOT relispartition " +
+            "AND relnamespace = current_schema()::regnamespace " +
+            "AND relname ~ '^" + TABLE + "_p[0-9]{4}_[0-9]{2}$' ORDER BY relname";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDirectory;
+
+    public AuditPartitionService(PlatformTransactionManager transactionManager, DataSource dataSource,
+                                 @Value("${audit.partition.months-ahead:3}") int monthsAhead,
+                                 @Value("${audit.retention.months:24}") int retentionMonths,
+                                 @Value("${audit.archive.directory:audit-archive}") String archiveDirectory) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL only streams a result set with a fetch size inside a transaction
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDirectory = Paths.get(archiveDirectory);
+    }
+
+    /**
+     * Returns true when {@code audit_logs} is already a partitioned table.
+     */
+    public boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relnamespace = current_schema()::regnamespace",
+                String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    /**
+     * Replaces a plain {@code audit_logs} table with a partitioned one holding the same
+     * rows, in one transaction that locks out audit writers until it commits.
+     */
+    public void convertToPartitioned() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            String staging = TABLE + "_partitioned";
+            jdbcTemplate.execute(String.format(CREATE_PARTITIONED_TABLE, staging));
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + staging + " DEFAULT");
+
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT CAST(MIN(timestamp) AS DATE) FROM " + TABLE, LocalDate.class);
+            YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+            for (YearMonth month = first; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                createPartition(staging, month);
+            }
+
+            int rows = jdbcTemplate.update("INSERT INTO " + staging + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + TABLE);
+            jdbcTemplate.execute("DROP TABLE " + TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + staging + " RENAME TO " + TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME CONSTRAINT " + staging + "_pkey TO " + TABLE + "_pkey");
+            jdbcTemplate.execute("ALTER SEQUENCE " + staging + "_id_seq RENAME TO " + TABLE + "_id_seq");
+            jdbcTemplate.execute("SELECT setval('" + TABLE + "_id_seq', COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)");
+            createIndexes();
+            logger.info("Converted {} to a monthly partitioned table, moving {} row(s) from {} on", TABLE, rows, first);
+        });
+    }
+
+    /**
+     * Creates the indexes of {@code audit_logs} where missing. Hibernate does not see
+     * indexes of a partitioned table, so they are kept here rather than on the entity.
+     */
+    public void createIndexes() {
+        for (String index : INDEXES) {
+            jdbcTemplate.execute(index);
+        }
+        for (String index : SUPERSEDED_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+    }
+
+    @Scheduled(cron = "${audit.partition.cron:0 45 2 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> missing = createPartitions(current, current.plusMonths(monthsAhead));
+        if (!missing.isEmpty()) {
+            // Their rows stay in the default partition, out of reach of retention
+            logger.error("Audit log partitions missing for {}; retried on the next run", missing);
+        }
+        detachPartitionsBefore(current.minusMonths(retentionMonths));
+        archiveDetachedPartitions();
+    }
+
+    /**
+     * Creates the missing monthly partitions from {@code first} to {@code last}, inclusive.
+     * Rows of a new partition's month already in the default partition are moved into it.
+     *
+     * @return the months whose partition could not be created
+     */
+    public List<YearMonth> createPartitions(YearMonth first, YearMonth last) {
+        List<String> attached = jdbcTemplate.queryForList(FIND_ATTACHED_PARTITIONS, String.class);
+        List<YearMonth> failed = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (attached.contains(partitionName(month))) {
+                continue;
+            }
+            YearMonth target = month;
+            try {
+                int moved = transactionTemplate.execute(status -> createPartitionWithDefaultRows(target));
+                if (moved > 0) {
+                    logger.info("Created audit log partition {}, moving {} row(s) from {}", partitionName(month), moved,
+                            DEFAULT_PARTITION);
+                } else {
+                    logger.info("Created audit log partition {}", partitionName(month));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not create audit log partition {}: {}", partitionName(month), e.getMessage());
+                failed.add(month);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Creates the partition of {@code month}. A partition cannot be added while the default
+     * partition holds rows of its range, so those rows are moved into it with the default
+     * partition detached. Must run in a transaction.
+     *
+     * @return the number of rows moved from the default partition
+     */
+    private int createPartitionWithDefaultRows(YearMonth month) {
+        String range = String.format("timestamp >= '%s' AND timestamp < '%s'", month.atDay(1), month.plusMonths(1).atDay(1));
+        Boolean hasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE " + range + ")", Boolean.class);
+        if (!Boolean.TRUE.equals(hasRows)) {
+            createPartition(TABLE, month);
+            return 0;
+        }
+        String partition = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+        createPartition(TABLE, month);
+        int moved = jdbcTemplate.update("INSERT INTO " + partition + " (" + COLUMNS + ") SELECT " + COLUMNS +
+                " FROM " + DEFAULT_PARTITION + " WHERE " + range);
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    /**
+     * Detaches the monthly partitions of months before {@code cutoff}.
+     *
+     * @return the names of the detached partitions
+     */
+    public List<String> detachPartitionsBefore(YearMonth cutoff) {
+        List<String> expired = jdbcTemplate.queryForList(FIND_ATTACHED_PARTITIONS, String.class).stream()
+                .filter(name -> {
+                    YearMonth month = monthOf(name);
+                    return month != null && month.isBefore(cutoff);
+                })
+                .toList();
+        for (String partition : expired) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            logger.info("Detached audit log partition {} (retention {} month(s))", partition, retentionMonths);
+        }
+        return expired;
+    }
+
+    /**
+     * Exports every detached partition to a gzipped NDJSON file and drops it.
+     *
+     * @return the number of partitions archived
+     */
+    public int archiveDetachedPartitions() {
+        int archived = 0;
+        for (String partition : jdbcTemplate.queryForList(FIND_DETACHED_PARTITIONS, String.class)) {
+            try {
+                Path file = export(partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("Archived audit log partition {} to {} and dropped it", partition, file);
+                archived++;
+            } catch (RuntimeException | IOException e) {
+                logger.error("Failed to archive audit log partition {}; it is kept for the next run", partition, e);
+            }
+        }
+        return archived;
+    }
+
+    private Path export(String partition) throws IOException {
+        Files.createDirectories(archiveDirectory);
+        Path file = archiveDirectory.resolve(partition + ".ndjson.gz");
+        Path temporary = archiveDirectory.resolve(partition + ".ndjson.gz.tmp");
+
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary));
+             JsonGenerator json = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            json.setRootValueSeparator(null);
+            rows = transactionTemplate.execute(status -> {
+                long[] count = {0};
+                streamingJdbcTemplate.query("SELECT " + COLUMNS + " FROM " + partition + " ORDER BY id", resultSet -> {
+                    try {
+                        ResultSetMetaData metaData = resultSet.getMetaData();
+                        json.writeStartObject();
+                        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                            Object value = resultSet.getObject(column);
+                            json.writeFieldName(metaData.getColumnLabel(column));
+                            if (value instanceof Timestamp timestamp) {
+                                json.writeString(timestamp.toLocalDateTime().toString());
+                            } else {
+                                json.writeObject(value);
+                            }
+                        }
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return count[0];
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temporary);
+            throw e.getCause();
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Exported {} row(s) of {} to {}", rows, partition, file);
+        return file;
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        jdbcTemplate.execute(String.format("CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), table, month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + month.format(PARTITION_SUFFIX);
+    }
+
+    static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        return matcher.matches()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
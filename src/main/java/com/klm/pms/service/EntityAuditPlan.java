@@ -0,0 +1,216 @@
+package com.klm.pms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Which properties of one audited entity are recorded in the audit log, and how their
+ * changes are written.
+ * <p>
+ * Plans are built once per entity at startup from Hibernate's property list (see
+ * {@code HibernateAuditListener}) and work on the state arrays Hibernate passes to its
+ * post-update event: the state loaded from the database, the state being flushed and
+ * the indexes of the dirty properties. Collections and the automatically maintained
+ * timestamps are left out; {@code @ManyToOne} and {@code @OneToOne} references are
+ * reduced to the referenced id, recorded under the property name plus {@code Id}
+ * (e.g. {@code roomTypeId}), which a Hibernate proxy returns without being initialized.
+ * <p>
+ * Changed values are written as a JSON object into a per-thread buffer that is reused
+ * between calls, so a diff allocates little more than the resulting string.
+ */
+public final class EntityAuditPlan {
+
+    static final Set<String> UNAUDITED_PROPERTIES = Set.of("createdAt", "updatedAt");
+
+    private static final ThreadLocal<ReusableStringWriter> BUFFERS = ThreadLocal.withInitial(ReusableStringWriter::new);
+
+    private final String entityType;
+    // Audit field name by Hibernate property index; null for properties that are not audited
+    private final String[] fieldNames;
+    // Id accessor of the referenced entity by property index; null for scalar properties
+    private final UnaryOperator<Object>[] referenceIds;
+
+    private EntityAuditPlan(String entityType, String[] fieldNames, UnaryOperator<Object>[] referenceIds) {
+        this.entityType = entityType;
+        this.fieldNames = fieldNames;
+        this.referenceIds = referenceIds;
+    }
+
+    public static Builder builder(String entityType, int propertyCount) {
+        return new Builder(entityType, propertyCount);
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Returns the number of audited properties.
+     */
+    public int size() {
+        return (int) Arrays.stream(fieldNames).filter(name -> name != null).count();
+    }
+
+    /**
+     * Returns the audited properties that changed, as a JSON object of field name to new
+     * value, or null when none did.
+     *
+     * @param oldState the state loaded from the database, or null when Hibernate does not have it
+     * @param state    the state being flushed
+     * @param dirty    the indexes of the dirty properties, or null to compare every audited property
+     */
+    public String diff(Object[] oldState, Object[] state, int[] dirty, ObjectMapper objectMapper) {
+        if (oldState == null) {
+            return null;
+        }
+        ReusableStringWriter buffer = BUFFERS.get();
+        buffer.reset();
+        try {
+            JsonGenerator json = null;
+            int count = dirty != null ? dirty.length : state.length;
+            for (int i = 0; i < count; i++) {
+                int property = dirty != null ? dirty[i] : i;
+                if (fieldNames[property] == null) {
+                    continue;
+                }
+                Object newValue = valueOf(property, state[property]);
+                if (dirty == null && isSameValue(valueOf(property, oldState[property]), newValue)) {
+                    continue;
+                }
+                if (json == null) {
+                    json = objectMapper.createGenerator(buffer);
+                    json.writeStartObject();
+                }
+                json.writeFieldName(fieldNames[property]);
+                writeValue(json, newValue);
+            }
+            if (json == null) {
+                return null;
+            }
+            json.writeEndObject();
+            json.close();
+            return buffer.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write audit changes of " + entityType, e);
+        }
+    }
+
+    private Object valueOf(int property, Object value) {
+        UnaryOperator<Object> referenceId = referenceIds[property];
+        return value != null && referenceId != null ? referenceId.apply(value) : value;
+    }
+
+    private static boolean isSameValue(Object oldValue, Object newValue) {
+        if (oldValue == null || newValue == null) {
+            return oldValue == newValue;
+        }
+        // 150.00 loaded from the database and 150 from a request are the same amount
+        if (oldValue instanceof BigDecimal oldDecimal && newValue instanceof BigDecimal newDecimal) {
+            return oldDecimal.compareTo(newDecimal) == 0;
+        }
+        return oldValue.equals(newValue);
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof String string) {
+            json.writeString(string);
+        } else if (value instanceof Long number) {
+            json.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            json.writeNumber(number);
+        } else if (value instanceof BigDecimal number) {
+            json.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            json.writeBoolean(bool);
+        } else if (value instanceof Enum<?> constant) {
+            json.writeString(constant.name());
+        } else {
+            // Dates and anything else go through the configured ObjectMapper
+            json.writeObject(value);
+        }
+    }
+
+    /**
+     * Collects the audited properties of an entity, by Hibernate property index.
+     */
+    public static final class Builder {
+
+        private final String entityType;
+        private final String[] fieldNames;
+        private final UnaryOperator<Object>[] referenceIds;
+
+        @SuppressWarnings("unchecked")
+        private Builder(String entityType, int propertyCount) {
+            this.entityType = entityType;
+            this.fieldNames = new String[propertyCount];
+            this.referenceIds = new UnaryOperator[propertyCount];
+        }
+
+        /**
+         * Audits a basic property under its own name, unless it is one of the timestamps.
+         */
+        public Builder value(int property, String name) {
+            if (!UNAUDITED_PROPERTIES.contains(name)) {
+                fieldNames[property] = name;
+            }
+            return this;
+        }
+
+        /**
+         * Audits a reference to another entity as the referenced id.
+         */
+        public Builder reference(int property, String name, UnaryOperator<Object> idOf) {
+            fieldNames[property] = name + "Id";
+            referenceIds[property] = idOf;
+            return this;
+        }
+
+        public EntityAuditPlan build() {
+            return new EntityAuditPlan(entityType, fieldNames, referenceIds);
+        }
+    }
+
+    /**
+     * Writer over a StringBuilder that is kept per thread and reset between uses.
+     */
+    private static final class ReusableStringWriter extends Writer {
+
+        private final StringBuilder buffer = new StringBuilder(256);
+
+        void reset() {
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
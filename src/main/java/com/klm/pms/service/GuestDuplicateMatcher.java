@@ -0,0 +1,255 @@
+package com.klm.pms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Blocking keys and pair scoring for the guest duplicate scan.
+ * <p>
+ * Guests are only compared with guests that share a blocking key: the normalized phone
+ * number, the normalized email local part, or a phonetic code of the name. A pair sharing
+ * several keys is scored once, in the block of the first key kind they share.
+ * <p>
+ * A pair's score adds up the evidence: the same phone number, the same email address (or
+ * only the same local part), and the Jaro-Winkler similarity of the names when it is high
+ * enough to be more than chance.
+ */
+final class GuestDuplicateMatcher {
+
+    // Blocking key kinds, in the order a pair sharing several of them is scored under
+    static final int PHONE = 0;
+    static final int EMAIL_LOCAL_PART = 1;
+    static final int NAME = 2;
+    static final int KEY_KINDS = 3;
+
+    static final double PHONE_WEIGHT = 0.35;
+    static final double EMAIL_WEIGHT = 0.35;
+    static final double EMAIL_LOCAL_PART_WEIGHT = 0.2;
+    static final double NAME_WEIGHT = 0.45;
+    static final double MIN_NAME_SIMILARITY = 0.85;
+
+    private static final int PHONE_DIGITS = 9;
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private GuestDuplicateMatcher() {
+    }
+
+    /**
+     * The fields of a guest that matching looks at, normalized once.
+     */
+    record Candidate(long id, String name, String email, String[] keys) {
+
+        static Candidate of(long id, String firstName, String lastName, String email, String phoneNumber) {
+            String[] keys = new String[KEY_KINDS];
+            keys[PHONE] = normalizePhone(phoneNumber);
+            keys[EMAIL_LOCAL_PART] = emailLocalPart(email);
+            keys[NAME] = nameKey(firstName, lastName);
+            return new Candidate(id, normalizeName(firstName, lastName), normalizeEmail(email), keys);
+        }
+    }
+
+    record Match(double score, List<String> reasons) {
+    }
+
+    /**
+     * Whether {@code kind} is the first key kind the two candidates share, so that the pair
+     * is scored in exactly one of their common blocks.
+     */
+    static boolean isFirstSharedKey(Candidate a, Candidate b, int kind) {
+        for (int earlier = 0; earlier < kind; earlier++) {
+            if (a.keys()[earlier] != null && a.keys()[earlier].equals(b.keys()[earlier])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Match score(Candidate a, Candidate b) {
+        double score = 0;
+        List<String> reasons = new ArrayList<>(3);
+        if (a.keys()[PHONE] != null && a.keys()[PHONE].equals(b.keys()[PHONE])) {
+            score += PHONE_WEIGHT;
+            reasons.add("PHONE");
+        }
+        if (a.email() != null && a.email().equals(b.email())) {
+            score += EMAIL_WEIGHT;
+            reasons.add("EMAIL");
+        } else if (a.keys()[EMAIL_LOCAL_PART] != null && a.keys()[EMAIL_LOCAL_PART].equals(b.keys()[EMAIL_LOCAL_PART])) {
+            score += EMAIL_LOCAL_PART_WEIGHT;
+            reasons.add("EMAIL_LOCAL_PART");
+        }
+        double nameSimilarity = jaroWinkler(a.name(), b.name());
+        if (nameSimilarity >= MIN_NAME_SIMILARITY) {
+            score += NAME_WEIGHT * nameSimilarity;
+            reasons.add("NAME");
+        }
+        return new Match(score, reasons);
+    }
+
+    /**
+     * The last nine digits of a phone number, so that the same number with and without a
+     * country code or formatting compares equal; null for fewer than seven digits.
+     */
+    static String normalizePhone(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits.toString();
+    }
+
+    /**
+     * The lower-cased local part of an email address without dots and {@code +tag}.
+     */
+    static String emailLocalPart(String email) {
+        String normalized = normalizeEmail(email);
+        if (normalized == null) {
+            return null;
+        }
+        String local = normalized.substring(0, normalized.indexOf('@'));
+        return local.isEmpty() ? null : local;
+    }
+
+    static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String lower = email.trim().toLowerCase(Locale.ROOT);
+        int at = lower.lastIndexOf('@');
+        if (at < 0) {
+            return null;
+        }
+        String local = lower.substring(0, at);
+        int tag = local.indexOf('+');
+        if (tag >= 0) {
+            local = local.substring(0, tag);
+        }
+        return local.replace(".", "") + lower.substring(at);
+    }
+
+    /**
+     * Soundex of the last name followed by the first initial, e.g. {@code D000J}.
+     */
+    static String nameKey(String firstName, String lastName) {
+        String code = soundex(lastName);
+        if (code == null) {
+            return null;
+        }
+        String first = lettersOf(firstName);
+        return first.isEmpty() ? code : code + Character.toUpperCase(first.charAt(0));
+    }
+
+    static String normalizeName(String firstName, String lastName) {
+        return (lettersOf(firstName) + " " + lettersOf(lastName)).trim();
+    }
+
+    /**
+     * American Soundex: the first letter and three digits coding the following consonants.
+     */
+    static String soundex(String name) {
+        String letters = lettersOf(name).replace(" ", "");
+        if (letters.isEmpty()) {
+            return null;
+        }
+        char[] code = {Character.toUpperCase(letters.charAt(0)), '0', '0', '0'};
+        char previous = soundexDigit(letters.charAt(0));
+        int length = 1;
+        for (int i = 1; i < letters.length() && length < 4; i++) {
+            char c = letters.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        return new String(code);
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'b', 'f', 'p', 'v' -> '1';
+            case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z' -> '2';
+            case 'd', 't' -> '3';
+            case 'l' -> '4';
+            case 'm', 'n' -> '5';
+            case 'r' -> '6';
+            default -> '0';
+        };
+    }
+
+    private static String lettersOf(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder letters = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            } else if (Character.isWhitespace(c) && !letters.isEmpty() && letters.charAt(letters.length() - 1) != ' ') {
+                letters.append(' ');
+            }
+        }
+        return letters.toString().trim();
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return a.equals(b) ? 1.0 : 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+}
@@ -0,0 +1,364 @@
+package com.klm.pms.service;
+
+import com.klm.pms.dto.GuestDTO;
+import com.klm.pms.dto.GuestDuplicateScanResultDTO;
+import com.klm.pms.dto.GuestMergeProposalDTO;
+import com.klm.pms.dto.PageResponse;
+import com.klm.pms.exception.BusinessLogicException;
+import com.klm.pms.exception.EntityNotFoundException;
+import com.klm.pms.mapper.GuestMapper;
+import com.klm.pms.mapper.GuestMergeProposalMapper;
+import com.klm.pms.model.Guest;
+import com.klm.pms.model.GuestMergeProposal;
+import com.klm.pms.model.GuestMergeProposal.ProposalStatus;
+import com.klm.pms.repository.GuestMergeProposalRepository;
+import com.klm.pms.repository.GuestRepository;
+import com.klm.pms.repository.ReservationRepository;
+import com.klm.pms.service.GuestDuplicateMatcher.Candidate;
+import com.klm.pms.service.GuestDuplicateMatcher.Match;
+import com.klm.pms.util.Constants;
+import com.klm.pms.util.ValidationUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Finds guests that are probably the same person and merges them on request.
+ * <p>
+ * A scan reads the matching fields of every guest once, as compact {@link Candidate}s,
+ * and compares only guests that share a blocking key (see {@link GuestDuplicateMatcher}):
+ * each key kind is sorted and its runs of equal keys become blocks, so the work grows with
+ * the size of the blocks rather than with the square of the guest count. Blocks larger than
+ * {@code guest.dedup.max-block-size} (a shared office number, say) are skipped and counted.
+ * Blocks are scored in parallel on a dedicated fork-join pool of
+ * {@code guest.dedup.parallelism} threads, so a scan does not starve the common pool.
+ * <p>
+ * Pairs scoring at least {@code guest.dedup.threshold} replace the pending proposals of the
+ * previous scan; pairs already merged or rejected are not proposed again. The survivor of a
+ * pair is the older guest.
+ * <p>
+ * Merging moves the duplicate's reservations to the survivor with one bulk update, fills
+ * the survivor's blank fields from the duplicate and deletes the duplicate.
+ */
+@Service
+public class GuestDuplicateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestDuplicateService.class);
+
+    private static final String SELECT_CANDIDATES_SQL =
+            "SELECT id, first_name, last_name, email, phone_number FROM guests";
+
+    private static final String INSERT_PROPOSAL_SQL =
+            "INSERT INTO guest_merge_proposals (survivor_guest_id, duplicate_guest_id, score, reasons, status, " +
+            "created_at) VALUES (?, ?, ?, ?, 'PENDING', ?)";
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private GuestMergeProposalRepository proposalRepository;
+
+    @Autowired
+    private GuestMapper guestMapper;
+
+    @Autowired
+    private GuestMergeProposalMapper proposalMapper;
+
+    @Autowired
+    private AuditService auditService;
+
+    private final double threshold;
+    private final int maxBlockSize;
+    private final ForkJoinPool pool;
+
+    public GuestDuplicateService(@Value("${guest.dedup.threshold:0.7}") double threshold,
+                                 @Value("${guest.dedup.max-block-size:500}") int maxBlockSize,
+                                 @Value("${guest.dedup.parallelism:0}") int parallelism) {
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${guest.dedup.cron:0 30 3 * * *}")
+    @Transactional
+    public void scheduledScan() {
+        scan();
+    }
+
+    /**
+     * Scans all guests and replaces the pending merge proposals with the pairs found.
+     */
+    @Transactional
+    public GuestDuplicateScanResultDTO scan() {
+        long start = System.nanoTime();
+        logger.info("Scanning guests for duplicates - threshold: {}, max block size: {}, parallelism: {}",
+                threshold, maxBlockSize, pool.getParallelism());
+
+        List<Candidate> candidates = new ArrayList<>();
+        // A fetch size makes the driver stream rows through a cursor within the transaction
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CANDIDATES_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            candidates.add(Candidate.of(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getString(4), rs.getString(5)));
+        });
+
+        int[] oversized = new int[1];
+        LongAdder pairsScored = new LongAdder();
+        List<Block> blocks = new ArrayList<>();
+        List<Proposal> found = inPool(() -> {
+            for (int kind = 0; kind < GuestDuplicateMatcher.KEY_KINDS; kind++) {
+                blocks.addAll(blocksOf(candidates, kind, oversized));
+            }
+            return blocks.parallelStream()
+                    .flatMap(block -> score(block, pairsScored).stream())
+                    .toList();
+        });
+
+        Set<Pair> resolved = new HashSet<>();
+        for (Object[] row : proposalRepository.findResolvedPairs()) {
+            resolved.add(new Pair((Long) row[0], (Long) row[1]));
+        }
+        List<Proposal> proposals = found.stream()
+                .filter(proposal -> !resolved.contains(new Pair(proposal.survivorId(), proposal.duplicateId())))
+                .toList();
+
+        int replaced = proposalRepository.deletePending();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PROPOSAL_SQL, proposals, INSERT_BATCH_SIZE, (ps, proposal) -> {
+            ps.setLong(1, proposal.survivorId());
+            ps.setLong(2, proposal.duplicateId());
+            ps.setDouble(3, Math.round(proposal.score() * 1000) / 1000.0);
+            ps.setString(4, String.join(",", proposal.reasons()));
+            ps.setTimestamp(5, now);
+        });
+
+        GuestDuplicateScanResultDTO result = new GuestDuplicateScanResultDTO();
+        result.setGuestsScanned(candidates.size());
+        result.setBlocks(blocks.size());
+        result.setOversizedBlocks(oversized[0]);
+        result.setPairsScored(pairsScored.sum());
+        result.setProposals(proposals.size());
+        result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Duplicate scan of {} guest(s) scored {} pair(s) in {} block(s) ({} oversized skipped) " +
+                    "and proposed {} merge(s), replacing {} - took {} ms",
+                result.getGuestsScanned(), result.getPairsScored(), result.getBlocks(), result.getOversizedBlocks(),
+                result.getProposals(), replaced, result.getDurationMillis());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<GuestMergeProposalDTO> getProposals(ProposalStatus status, int page, int size) {
+        logger.debug("Fetching {} merge proposals - page: {}, size: {}", status, page, size);
+        int[] pagination = ValidationUtil.validateAndNormalizePagination(page, size);
+        Page<GuestMergeProposal> proposals = proposalRepository.findByStatus(status,
+                PageRequest.of(pagination[0], pagination[1], Sort.by(Sort.Order.desc("score"), Sort.Order.asc("id"))));
+        return new PageResponse<>(
+                proposals.getContent().stream().map(proposalMapper::toDTO).toList(),
+                proposals.getNumber(),
+                proposals.getSize(),
+                proposals.getTotalElements()
+        );
+    }
+
+    /**
+     * Merges the duplicate guest of a pending proposal into its survivor.
+     *
+     * @return the survivor after the merge
+     */
+    @Transactional
+    public GuestDTO merge(Long proposalId) {
+        logger.info("Merging guests of proposal ID: {}", proposalId);
+        GuestMergeProposal proposal = findPendingProposal(proposalId);
+        Long survivorId = proposal.getSurvivorGuestId();
+        Long duplicateId = proposal.getDuplicateGuestId();
+        if (!guestRepository.existsById(survivorId) || !guestRepository.existsById(duplicateId)) {
+            Long missingId = guestRepository.existsById(survivorId) ? duplicateId : survivorId;
+            logger.error("Failed to merge proposal {}: Guest not found with ID: {}", proposalId, missingId);
+            throw new EntityNotFoundException(Constants.AUDIT_ENTITY_GUEST, missingId);
+        }
+
+        // Bulk update, not audited by Hibernate: log each moved reservation
+        List<Long> movedIds = reservationRepository.findIdsByGuestId(duplicateId);
+        reservationRepository.reassignGuest(duplicateId, survivorId, LocalDateTime.now());
+        String changes = "{\"guest\":" + survivorId + "}";
+        movedIds.forEach(id -> auditService.logUpdate(Constants.AUDIT_ENTITY_RESERVATION, id, changes));
+
+        // The bulk update cleared the persistence context, so read both guests afresh
+        Guest survivor = guestRepository.findById(survivorId).orElseThrow();
+        Guest duplicate = guestRepository.findById(duplicateId).orElseThrow();
+        // Emails are unique: the duplicate goes before the survivor may take its address
+        guestRepository.delete(duplicate);
+        guestRepository.flush();
+        fillBlank(survivor::getEmail, survivor::setEmail, duplicate.getEmail());
+        fillBlank(survivor::getPhoneNumber, survivor::setPhoneNumber, duplicate.getPhoneNumber());
+        fillBlank(survivor::getAddress, survivor::setAddress, duplicate.getAddress());
+        fillBlank(survivor::getCity, survivor::setCity, duplicate.getCity());
+        fillBlank(survivor::getState, survivor::setState, duplicate.getState());
+        fillBlank(survivor::getCountry, survivor::setCountry, duplicate.getCountry());
+        fillBlank(survivor::getPostalCode, survivor::setPostalCode, duplicate.getPostalCode());
+        fillBlank(survivor::getIdentificationType, survivor::setIdentificationType, duplicate.getIdentificationType());
+        fillBlank(survivor::getIdentificationNumber, survivor::setIdentificationNumber, duplicate.getIdentificationNumber());
+        Guest saved = guestRepository.save(survivor);
+
+        proposal = proposalRepository.findById(proposalId).orElseThrow();
+        resolve(proposal, ProposalStatus.MERGED);
+        // Proposals involving the deleted guest are stale; the next scan proposes afresh
+        int dropped = proposalRepository.deletePendingInvolving(duplicateId);
+
+        logger.info("Merged guest {} into guest {}: moved {} reservation(s), dropped {} stale proposal(s)",
+                duplicateId, survivorId, movedIds.size(), dropped);
+        return guestMapper.toDTO(saved);
+    }
+
+    @Transactional
+    public GuestMergeProposalDTO reject(Long proposalId) {
+        logger.info("Rejecting merge proposal ID: {}", proposalId);
+        GuestMergeProposal proposal = findPendingProposal(proposalId);
+        resolve(proposal, ProposalStatus.REJECTED);
+        return proposalMapper.toDTO(proposal);
+    }
+
+    private GuestMergeProposal findPendingProposal(Long proposalId) {
+        ValidationUtil.requireNonNull(proposalId, "id");
+        GuestMergeProposal proposal = proposalRepository.findById(proposalId)
+                .orElseThrow(() -> {
+                    logger.error("Merge proposal not found with ID: {}", proposalId);
+                    return new EntityNotFoundException(Constants.AUDIT_ENTITY_GUEST_MERGE_PROPOSAL, proposalId);
+                });
+        if (proposal.getStatus() != ProposalStatus.PENDING) {
+            logger.warn("Merge proposal {} is already {}", proposalId, proposal.getStatus());
+            throw new BusinessLogicException("Merge proposal " + proposalId + " is already " + proposal.getStatus());
+        }
+        return proposal;
+    }
+
+    private void resolve(GuestMergeProposal proposal, ProposalStatus status) {
+        proposal.setStatus(status);
+        proposal.setResolvedAt(LocalDateTime.now());
+        // Flushed so that the bulk delete of pending proposals does not see it as pending
+        proposalRepository.saveAndFlush(proposal);
+    }
+
+    private static void fillBlank(Supplier<String> current, Consumer<String> setter, String value) {
+        String existing = current.get();
+        if ((existing == null || existing.isBlank()) && value != null && !value.isBlank()) {
+            setter.accept(value);
+        }
+    }
+
+    /**
+     * Sorts the candidates having a key of the given kind by that key and returns the runs
+     * of two or more equal keys, skipping (and counting) runs larger than the block limit.
+     */
+    private List<Block> blocksOf(List<Candidate> candidates, int kind, int[] oversized) {
+        Candidate[] keyed = candidates.stream()
+                .filter(candidate -> candidate.keys()[kind] != null)
+                .toArray(Candidate[]::new);
+        Arrays.parallelSort(keyed, Comparator.comparing((Candidate candidate) -> candidate.keys()[kind]));
+
+        List<Block> blocks = new ArrayList<>();
+        int from = 0;
+        while (from < keyed.length) {
+            String key = keyed[from].keys()[kind];
+            int to = from + 1;
+            while (to < keyed.length && key.equals(keyed[to].keys()[kind])) {
+                to++;
+            }
+            if (to - from > maxBlockSize) {
+                oversized[0]++;
+                logger.debug("Skipping block of {} guests sharing key kind {}", to - from, kind);
+            } else if (to - from > 1) {
+                blocks.add(new Block(keyed, from, to, kind));
+            }
+            from = to;
+        }
+        return blocks;
+    }
+
+    private List<Proposal> score(Block block, LongAdder pairsScored) {
+        List<Proposal> proposals = new ArrayList<>();
+        long scored = 0;
+        for (int i = block.from(); i < block.to(); i++) {
+            Candidate a = block.guests()[i];
+            for (int j = i + 1; j < block.to(); j++) {
+                Candidate b = block.guests()[j];
+                if (!GuestDuplicateMatcher.isFirstSharedKey(a, b, block.kind())) {
+                    continue;
+                }
+                scored++;
+                Match match = GuestDuplicateMatcher.score(a, b);
+                if (match.score() >= threshold) {
+                    proposals.add(new Proposal(Math.min(a.id(), b.id()), Math.max(a.id(), b.id()),
+                            match.score(), match.reasons()));
+                }
+            }
+        }
+        pairsScored.add(scored);
+        return proposals;
+    }
+
+    private <T> T inPool(Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Duplicate scan interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Duplicate scan failed", e.getCause());
+        }
+    }
+
+    private record Block(Candidate[] guests, int from, int to, int kind) {
+    }
+
+    private record Proposal(long survivorId, long duplicateId, double score, List<String> reasons) {
+    }
+
+    private record Pair(long survivorId, long duplicateId) {
+    }
+}
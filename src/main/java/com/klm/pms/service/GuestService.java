@@ -1,6 +1,6 @@
 package com.klm.pms.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.dto.CursorPageResponse;
 import com.klm.pms.dto.GuestDTO;
 import com.klm.pms.dto.GuestFilterRequest;
 import com.klm.pms.dto.PageResponse;
@@ -10,8 +10,13 @@ import com.klm.pms.mapper.GuestMapper;
 import com.klm.pms.model.Guest;
 import com.klm.pms.repository.GuestRepository;
 import com.klm.pms.repository.specification.GuestSpecification;
+import com.klm.pms.repository.specification.TextSearch;
 import com.klm.pms.util.Constants;
+import com.klm.pms.util.KeysetPaginationUtil;
+import com.klm.pms.util.StreamingUtil;
 import com.klm.pms.util.ValidationUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +29,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -35,14 +42,17 @@ public class GuestService {
     @Autowired
     private GuestRepository guestRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private GuestMapper guestMapper;
 
     @Autowired
-    private AuditService auditService;
+    private RoomOccupancyIndex occupancyIndex;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private RoomTypeInventoryService inventoryService;
 
     public GuestDTO createGuest(GuestDTO guestDTO) {
         logger.info("Creating new guest - email: {}", guestDTO != null ? guestDTO.getEmail() : "null");
@@ -69,15 +79,6 @@ public class GuestService {
         Guest savedGuest = guestRepository.save(guest);
         logger.info("Successfully created guest with ID: {} and email: {}", savedGuest.getId(), savedGuest.getEmail());
         
-        // Audit log
-        try {
-            auditService.logCreate(Constants.AUDIT_ENTITY_GUEST, savedGuest.getId(), savedGuest);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for guest creation, but guest was created successfully. Guest ID: {}", 
-                    savedGuest.getId(), e);
-            // Don't fail the operation if audit logging fails
-        }
-        
         return guestMapper.toDTO(savedGuest);
     }
 
@@ -94,31 +95,6 @@ public class GuestService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_GUEST, id);
                 });
         
-        // Store old state for audit BEFORE any modifications - create a deep copy
-        Guest oldGuest = null;
-        try {
-            // Use ObjectMapper to create a deep copy of the entity
-            String json = objectMapper.writeValueAsString(existingGuest);
-            oldGuest = objectMapper.readValue(json, Guest.class);
-            logger.debug("Created deep copy of guest {} for audit logging", id);
-        } catch (Exception e) {
-            logger.warn("Failed to create deep copy of guest for audit, will use partial copy", e);
-            // Fallback to partial copy if deep copy fails
-            oldGuest = new Guest();
-            oldGuest.setId(existingGuest.getId());
-            oldGuest.setFirstName(existingGuest.getFirstName());
-            oldGuest.setLastName(existingGuest.getLastName());
-            oldGuest.setEmail(existingGuest.getEmail());
-            oldGuest.setPhoneNumber(existingGuest.getPhoneNumber());
-            oldGuest.setAddress(existingGuest.getAddress());
-            oldGuest.setCity(existingGuest.getCity());
-            oldGuest.setState(existingGuest.getState());
-            oldGuest.setCountry(existingGuest.getCountry());
-            oldGuest.setPostalCode(existingGuest.getPostalCode());
-            oldGuest.setIdentificationType(existingGuest.getIdentificationType());
-            oldGuest.setIdentificationNumber(existingGuest.getIdentificationNumber());
-        }
-        
         // Check email uniqueness if it's being changed
         if (guestDTO.getEmail() != null && !guestDTO.getEmail().equals(existingGuest.getEmail())) {
             ValidationUtil.requireNonBlank(guestDTO.getEmail(), "email");
@@ -151,15 +127,6 @@ public class GuestService {
         Guest updatedGuest = guestRepository.save(existingGuest);
         logger.info("Successfully updated guest with ID: {}", id);
         
-        // Audit log
-        try {
-            auditService.logUpdate(Constants.AUDIT_ENTITY_GUEST, id, oldGuest, updatedGuest);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for guest update, but guest was updated successfully. Guest ID: {}", 
-                    id, e);
-            // Don't fail the operation if audit logging fails
-        }
-        
         return guestMapper.toDTO(updatedGuest);
     }
 
@@ -201,6 +168,19 @@ public class GuestService {
         return guests;
     }
 
+    /**
+     * Hands every guest to {@code consumer} as it is read, without holding them all in
+     * memory. The consumer runs within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllGuests(Consumer<GuestDTO> consumer) {
+        logger.debug("Streaming all guests");
+        try (Stream<Guest> guests = guestRepository.streamAll()) {
+            long count = StreamingUtil.forEach(guests, entityManager, guestMapper::toDTO, consumer);
+            logger.info("Streamed {} guest(s)", count);
+        }
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<GuestDTO> getAllGuestsPaginated(GuestFilterRequest filter, int page, int size, String sortBy, String sortDir) {
         logger.debug("Fetching guests with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
@@ -210,20 +190,19 @@ public class GuestService {
         int normalizedPage = pagination[0];
         int normalizedSize = pagination[1];
         
-        // Default sorting
-        Sort sort = Sort.by(Sort.Direction.ASC, "lastName");
-        if (sortBy != null && !sortBy.isEmpty()) {
-            Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
-        
-        Pageable pageable = PageRequest.of(normalizedPage, normalizedSize, sort);
+        Sort sort = Sort.by(sortOrder(sortBy, sortDir));
         
         // Build specification for filtering
         Specification<Guest> spec = GuestSpecification.withFilters(filter);
         
+        // Search results come best match first unless a sort is requested
+        if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty() && (sortBy == null || sortBy.isEmpty())) {
+            sort = Sort.unsorted();
+            spec = spec.and(TextSearch.rankedBySimilarity(filter.getSearchTerm()));
+        }
+        
+        Pageable pageable = PageRequest.of(normalizedPage, normalizedSize, sort);
+        
         Page<Guest> guestPage = guestRepository.findAll(spec, pageable);
         
         List<GuestDTO> guestDTOs = guestPage.getContent().stream()
@@ -241,6 +220,32 @@ public class GuestService {
         return response;
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllGuestsPaginated}: seeks past the
+     * {@code cursor} of the previous page instead of skipping rows, and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<GuestDTO> getAllGuestsByCursor(GuestFilterRequest filter, String cursor, Integer limit, String sortBy, String sortDir) {
+        logger.debug("Fetching guests by cursor - limit: {}, sortBy: {}, sortDir: {}", limit, sortBy, sortDir);
+        
+        CursorPageResponse<GuestDTO> response = KeysetPaginationUtil.fetch(guestRepository, Guest.class,
+                GuestSpecification.withFilters(filter), cursor, limit, sortOrder(sortBy, sortDir), guestMapper::toDTO);
+        
+        logger.info("Retrieved {} guest(s) by cursor, has next: {}", response.getContent().size(), response.isHasNext());
+        return response;
+    }
+
+    private static Sort.Order sortOrder(String sortBy, String sortDir) {
+        // Default sorting
+        if (sortBy == null || sortBy.isEmpty()) {
+            return new Sort.Order(Sort.Direction.ASC, "lastName");
+        }
+        Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
+            ? Sort.Direction.DESC 
+            : Sort.Direction.ASC;
+        return new Sort.Order(direction, sortBy);
+    }
+
     public void deleteGuest(Long id) {
         logger.info("Deleting guest with ID: {}", id);
         ValidationUtil.requireNonNull(id, "id");
@@ -251,14 +256,15 @@ public class GuestService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_GUEST, id);
                 });
         
-        // Audit log before deletion
-        try {
-            auditService.logDelete(Constants.AUDIT_ENTITY_GUEST, id, guest);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for guest deletion, but proceeding with deletion. Guest ID: {}", 
-                    id, e);
-            // Don't fail the operation if audit logging fails
-        }
+        // Reservations are removed with the guest, so free their nights in the occupancy index and inventory
+        guest.getReservations().stream()
+                .filter(reservation -> RoomOccupancyIndex.isOccupying(reservation.getStatus()))
+                .forEach(reservation -> {
+                    occupancyIndex.release(reservation.getRoom().getId(),
+                            reservation.getCheckInDate(), reservation.getCheckOutDate());
+                    inventoryService.releaseStay(reservation.getRoom().getRoomType().getId(),
+                            reservation.getCheckInDate(), reservation.getCheckOutDate());
+                });
         
         guestRepository.deleteById(id);
         logger.info("Successfully deleted guest with ID: {}", id);
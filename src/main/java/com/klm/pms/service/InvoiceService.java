@@ -1,5 +1,7 @@
 package com.klm.pms.service;
 
+import com.klm.pms.dto.CursorPageResponse;
+import com.klm.pms.dto.FieldSelection;
 import com.klm.pms.dto.InvoiceDTO;
 import com.klm.pms.dto.InvoiceFilterRequest;
 import com.klm.pms.dto.PageResponse;
@@ -15,7 +17,11 @@ import com.klm.pms.repository.InvoiceRepository;
 import com.klm.pms.repository.ReservationRepository;
 import com.klm.pms.repository.specification.InvoiceSpecification;
 import com.klm.pms.util.Constants;
+import com.klm.pms.util.KeysetPaginationUtil;
+import com.klm.pms.util.StreamingUtil;
 import com.klm.pms.util.ValidationUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,8 +36,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -42,6 +51,9 @@ public class InvoiceService {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ReservationRepository reservationRepository;
 
@@ -54,6 +66,9 @@ public class InvoiceService {
     @Autowired
     private RateTypeService rateTypeService;
 
+    @Autowired
+    private ReferenceNumberGenerator referenceNumberGenerator;
+
     public InvoiceDTO generateInvoice(Long reservationId) {
         logger.info("Generating invoice for reservation ID: {}", reservationId);
         
@@ -90,6 +105,7 @@ public class InvoiceService {
         
         // Create invoice
         Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(referenceNumberGenerator.next(Constants.INVOICE_NUMBER_PREFIX));
         invoice.setReservation(reservation);
         invoice.setSubtotal(subtotal);
         invoice.setTaxAmount(taxAmount);
@@ -256,7 +272,7 @@ public class InvoiceService {
     }
 
     @Transactional(readOnly = true)
-    public InvoiceDTO getInvoiceById(Long id) {
+    public InvoiceDTO getInvoiceById(Long id, FieldSelection selection) {
         logger.debug("Fetching invoice with ID: {}", id);
         ValidationUtil.requireNonNull(id, "id");
         
@@ -266,11 +282,11 @@ public class InvoiceService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_INVOICE, id);
                 });
         logger.debug("Successfully retrieved invoice with ID: {}", id);
-        return toDTO(invoice);
+        return toDTO(invoice, selection);
     }
 
     @Transactional(readOnly = true)
-    public InvoiceDTO getInvoiceByNumber(String invoiceNumber) {
+    public InvoiceDTO getInvoiceByNumber(String invoiceNumber, FieldSelection selection) {
         logger.debug("Fetching invoice with number: {}", invoiceNumber);
         ValidationUtil.requireNonBlank(invoiceNumber, "invoiceNumber");
         
@@ -280,7 +296,7 @@ public class InvoiceService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_INVOICE, invoiceNumber);
                 });
         logger.debug("Successfully retrieved invoice with number: {}", invoiceNumber);
-        return toDTO(invoice);
+        return toDTO(invoice, selection);
     }
 
     @Transactional(readOnly = true)
@@ -313,8 +329,22 @@ public class InvoiceService {
         return invoices;
     }
 
+    /**
+     * Hands every invoice to {@code consumer} as it is read, without holding them all in
+     * memory. The consumer runs within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllInvoices(Consumer<InvoiceDTO> consumer) {
+        logger.debug("Streaming all invoices");
+        try (Stream<Invoice> invoices = invoiceRepository.streamAll()) {
+            long count = StreamingUtil.forEach(invoices, entityManager, this::toDTO, consumer);
+            logger.info("Streamed {} invoice(s)", count);
+        }
+    }
+
     @Transactional(readOnly = true)
-    public PageResponse<InvoiceDTO> getAllInvoicesPaginated(InvoiceFilterRequest filter, int page, int size, String sortBy, String sortDir) {
+    public PageResponse<InvoiceDTO> getAllInvoicesPaginated(InvoiceFilterRequest filter, int page, int size, String sortBy, String sortDir,
+                                                             FieldSelection selection) {
         logger.debug("Fetching invoices with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
         
         // Validate and normalize pagination parameters
@@ -322,24 +352,19 @@ public class InvoiceService {
         int normalizedPage = pagination[0];
         int normalizedSize = pagination[1];
         
-        // Default sorting
-        Sort sort = Sort.by(Sort.Direction.DESC, "issuedDate");
-        if (sortBy != null && !sortBy.isEmpty()) {
-            Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
+        Sort sort = Sort.by(sortOrder(sortBy, sortDir));
         
         Pageable pageable = PageRequest.of(normalizedPage, normalizedSize, sort);
         
         // Build specification for filtering
         Specification<Invoice> spec = InvoiceSpecification.withFilters(filter);
         
-        Page<Invoice> invoicePage = invoiceRepository.findAll(spec, pageable);
+        // Fetch the reservations embedded in the page with it, and nothing else
+        List<String> fetchPaths = fetchPaths(selection);
+        Page<Invoice> invoicePage = invoiceRepository.findBy(spec, query -> query.project(fetchPaths).page(pageable));
         
         List<InvoiceDTO> invoiceDTOs = invoicePage.getContent().stream()
-                .map(this::toDTO)
+                .map(invoice -> toDTO(invoice, selection))
                 .collect(Collectors.toList());
         
         PageResponse<InvoiceDTO> response = new PageResponse<>(
@@ -353,7 +378,43 @@ public class InvoiceService {
         return response;
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllInvoicesPaginated}: seeks past the
+     * {@code cursor} of the previous page instead of skipping rows, and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InvoiceDTO> getAllInvoicesByCursor(InvoiceFilterRequest filter, String cursor, Integer limit, String sortBy, String sortDir,
+                                                                  FieldSelection selection) {
+        logger.debug("Fetching invoices by cursor - limit: {}, sortBy: {}, sortDir: {}", limit, sortBy, sortDir);
+        
+        CursorPageResponse<InvoiceDTO> response = KeysetPaginationUtil.fetch(invoiceRepository, Invoice.class,
+                InvoiceSpecification.withFilters(filter), cursor, limit, sortOrder(sortBy, sortDir),
+                fetchPaths(selection), invoice -> toDTO(invoice, selection));
+        
+        logger.info("Retrieved {} invoice(s) by cursor, has next: {}", response.getContent().size(), response.isHasNext());
+        return response;
+    }
+
+    private static Sort.Order sortOrder(String sortBy, String sortDir) {
+        // Default sorting
+        if (sortBy == null || sortBy.isEmpty()) {
+            return new Sort.Order(Sort.Direction.DESC, "issuedDate");
+        }
+        Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("asc") 
+            ? Sort.Direction.ASC 
+            : Sort.Direction.DESC;
+        return new Sort.Order(direction, sortBy);
+    }
+
     private InvoiceDTO toDTO(Invoice invoice) {
+        return toDTO(invoice, FieldSelection.ALL);
+    }
+
+    /**
+     * Maps an invoice, embedding only the nested objects {@code selection} expands; the
+     * others are not loaded.
+     */
+    private InvoiceDTO toDTO(Invoice invoice, FieldSelection selection) {
         InvoiceDTO dto = new InvoiceDTO();
         dto.setId(invoice.getId());
         dto.setInvoiceNumber(invoice.getInvoiceNumber());
@@ -370,12 +431,14 @@ public class InvoiceService {
         dto.setNotes(invoice.getNotes());
         
         // Include reservation details
-        if (invoice.getReservation() != null) {
-            dto.setReservation(reservationMapper.toDTO(invoice.getReservation()));
+        if (invoice.getReservation() != null && selection.expands("reservation")) {
+            dto.setReservation(reservationMapper.toDTO(invoice.getReservation(), selection.nested("reservation")));
         }
         
         // Include invoice items
-        if (invoice.getItems() != null) {
+        if (!selection.expands("items")) {
+            dto.setItems(null);
+        } else if (invoice.getItems() != null) {
             List<InvoiceDTO.InvoiceItemDTO> itemDTOs = invoice.getItems().stream()
                     .map(item -> {
                         InvoiceDTO.InvoiceItemDTO itemDTO = new InvoiceDTO.InvoiceItemDTO();
@@ -393,5 +456,18 @@ public class InvoiceService {
         
         return dto;
     }
-}
 
+    /**
+     * The associations {@link #toDTO(Invoice, FieldSelection)} reads, as paths from the
+     * invoice, to fetch with the invoices in the same query. Items are a collection and
+     * are never fetched this way, so that pages are still limited in SQL.
+     */
+    private List<String> fetchPaths(FieldSelection selection) {
+        List<String> paths = new ArrayList<>();
+        if (selection.expands("reservation")) {
+            paths.add("reservation");
+            reservationMapper.fetchPaths(selection.nested("reservation")).forEach(path -> paths.add("reservation." + path));
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,249 @@
+package com.klm.pms.service;
+
+import com.klm.pms.dto.RateMatrixMetricsDTO;
+import com.klm.pms.repository.RateTypeRoomTypeRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory matrix of the nightly rate of every rate type for every room type, read when
+ * pricing reservations and invoices instead of querying the rates table.
+ * <p>
+ * Rates are held in a dense two-dimensional array, with the row of each rate type and the
+ * column of each room type looked up in two small maps. The matrix is an immutable
+ * {@link Snapshot} published through a volatile field, so lookups take no lock. A change
+ * copies the snapshot, applies itself to the copy and swaps the copy in once the
+ * surrounding transaction commits, so a rolled back change never shows up.
+ * <p>
+ * The matrix is loaded once the application is ready and reloaded in full periodically,
+ * in case rates are changed other than through {@link RateTypeService}. Until it is
+ * loaded, and for rates it does not hold, callers fall back to the database.
+ */
+@Component
+public class RateMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateMatrix.class);
+
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    @Autowired
+    private RateTypeRoomTypeRateRepository rateRepository;
+
+    private volatile Snapshot snapshot; // Null until loaded
+    private long version; // Guarded by this; bumped by every change so that a reload racing with one is retried
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private volatile LocalDateTime lastReloadAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${rate.matrix.reload-cron:0 0 * * * *}")
+    public void reload() {
+        for (int attempt = 1; ; attempt++) {
+            long seen;
+            synchronized (this) {
+                seen = version;
+            }
+            long start = System.nanoTime();
+            Snapshot loaded = Snapshot.of(rateRepository.findAllRates());
+            synchronized (this) {
+                // A change committed meanwhile may be missing from the rows read
+                if (version == seen || attempt == MAX_RELOAD_ATTEMPTS) {
+                    snapshot = loaded;
+                    reloads.increment();
+                    lastReloadAt = LocalDateTime.now();
+                    logger.info("Rate matrix loaded with {} rate(s) for {} rate type(s) and {} room type(s) in {} ms",
+                            loaded.size(), loaded.rows.size(), loaded.columns.size(), (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+            }
+            logger.debug("Rates changed while the rate matrix was loading; loading again");
+        }
+    }
+
+    /**
+     * Returns the rate of the given rate type for the given room type, or null when the
+     * matrix is not loaded or holds no such rate.
+     */
+    public BigDecimal get(Long rateTypeId, Long roomTypeId) {
+        Snapshot current = snapshot;
+        BigDecimal rate = current != null ? current.get(rateTypeId, roomTypeId) : null;
+        (rate != null ? hits : misses).increment();
+        return rate;
+    }
+
+    /**
+     * Sets a rate once the current transaction commits.
+     */
+    public void put(Long rateTypeId, Long roomTypeId, BigDecimal rate) {
+        afterCommit(() -> update(current -> current.with(rateTypeId, roomTypeId, rate)));
+    }
+
+    /**
+     * Removes a rate once the current transaction commits.
+     */
+    public void remove(Long rateTypeId, Long roomTypeId) {
+        afterCommit(() -> update(current -> current.with(rateTypeId, roomTypeId, null)));
+    }
+
+    /**
+     * Removes every rate of a deleted rate type once the current transaction commits.
+     */
+    public void removeRateType(Long rateTypeId) {
+        afterCommit(() -> update(current -> current.withoutRow(rateTypeId)));
+    }
+
+    public RateMatrixMetricsDTO getMetrics() {
+        Snapshot current = snapshot;
+        RateMatrixMetricsDTO metrics = new RateMatrixMetricsDTO();
+        metrics.setLoaded(current != null);
+        if (current != null) {
+            metrics.setRateTypes(current.rows.size());
+            metrics.setRoomTypes(current.columns.size());
+            metrics.setRates(current.size());
+        }
+        metrics.setHits(hits.sum());
+        metrics.setMisses(misses.sum());
+        metrics.setUpdates(updates.sum());
+        metrics.setReloads(reloads.sum());
+        metrics.setLastReloadAt(lastReloadAt);
+        return metrics;
+    }
+
+    private synchronized void update(UnaryOperator<Snapshot> change) {
+        version++;
+        updates.increment();
+        if (snapshot != null) {
+            snapshot = change.apply(snapshot);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * An immutable matrix of rates: rows are rate types, columns room types. Rows are
+     * shared between snapshots and never written once published.
+     */
+    static final class Snapshot {
+
+        private final Map<Long, Integer> rows;
+        private final Map<Long, Integer> columns;
+        private final BigDecimal[][] rates;
+        private final int size;
+
+        private Snapshot(Map<Long, Integer> rows, Map<Long, Integer> columns, BigDecimal[][] rates, int size) {
+            this.rows = rows;
+            this.columns = columns;
+            this.rates = rates;
+            this.size = size;
+        }
+
+        /**
+         * Builds a snapshot from {@code [rateTypeId, roomTypeId, rate]} rows.
+         */
+        static Snapshot of(List<Object[]> rateRows) {
+            Map<Long, Integer> rows = new HashMap<>();
+            Map<Long, Integer> columns = new HashMap<>();
+            for (Object[] rateRow : rateRows) {
+                rows.putIfAbsent((Long) rateRow[0], rows.size());
+                columns.putIfAbsent((Long) rateRow[1], columns.size());
+            }
+            BigDecimal[][] rates = new BigDecimal[rows.size()][columns.size()];
+            for (Object[] rateRow : rateRows) {
+                rates[rows.get((Long) rateRow[0])][columns.get((Long) rateRow[1])] = (BigDecimal) rateRow[2];
+            }
+            return new Snapshot(rows, columns, rates, rateRows.size());
+        }
+
+        BigDecimal get(Long rateTypeId, Long roomTypeId) {
+            Integer row = rows.get(rateTypeId);
+            Integer column = columns.get(roomTypeId);
+            return row != null && column != null ? rates[row][column] : null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns a copy with the given rate set, or removed when {@code rate} is null.
+         */
+        Snapshot with(Long rateTypeId, Long roomTypeId, BigDecimal rate) {
+            if (rate == null && get(rateTypeId, roomTypeId) == null) {
+                return this;
+            }
+            Map<Long, Integer> newRows = withIndex(rows, rateTypeId);
+            Map<Long, Integer> newColumns = withIndex(columns, roomTypeId);
+            int width = newColumns.size();
+            BigDecimal[][] newRates = Arrays.copyOf(rates, newRows.size());
+            if (width > columns.size()) {
+                // A room type was added: every row grows by a column
+                for (int row = 0; row < rates.length; row++) {
+                    newRates[row] = Arrays.copyOf(rates[row], width);
+                }
+            }
+            int row = newRows.get(rateTypeId);
+            int column = newColumns.get(roomTypeId);
+            if (row >= rates.length) {
+                newRates[row] = new BigDecimal[width];
+            } else if (newRates[row] == rates[row]) {
+                newRates[row] = rates[row].clone();
+            }
+            BigDecimal previous = newRates[row][column];
+            newRates[row][column] = rate;
+            return new Snapshot(newRows, newColumns, newRates, size - (previous != null ? 1 : 0) + (rate != null ? 1 : 0));
+        }
+
+        /**
+         * Returns a copy without any rate of the given rate type.
+         */
+        Snapshot withoutRow(Long rateTypeId) {
+            Integer row = rows.get(rateTypeId);
+            if (row == null) {
+                return this;
+            }
+            int removed = (int) Arrays.stream(rates[row]).filter(rate -> rate != null).count();
+            BigDecimal[][] newRates = rates.clone();
+            newRates[row] = new BigDecimal[columns.size()];
+            return new Snapshot(rows, columns, newRates, size - removed);
+        }
+
+        private static Map<Long, Integer> withIndex(Map<Long, Integer> index, Long id) {
+            if (index.containsKey(id)) {
+                return index;
+            }
+            Map<Long, Integer> copy = new HashMap<>(index);
+            copy.put(id, index.size());
+            return copy;
+        }
+    }
+}
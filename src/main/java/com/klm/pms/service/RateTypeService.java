@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -36,6 +37,12 @@ public class RateTypeService {
     @Autowired
     private RateTypeMapper rateTypeMapper;
 
+    @Autowired
+    private RateMatrix rateMatrix;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     public RateTypeDTO createRateType(RateTypeDTO rateTypeDTO) {
         logger.info("Creating new rate type with name: {} and {} room type rate(s)", 
                 rateTypeDTO.getName(), rateTypeDTO.getRoomTypeRates() != null ? rateTypeDTO.getRoomTypeRates().size() : 0);
@@ -69,6 +76,9 @@ public class RateTypeService {
                 logger.debug("Added rate {} for room type: {}", roomTypeRateDTO.getRate(), roomType.getName());
             }
             savedRateType = rateTypeRepository.save(savedRateType);
+            for (RateTypeRoomTypeRate rate : savedRateType.getRoomTypeRates()) {
+                rateMatrix.put(savedRateType.getId(), rate.getRoomType().getId(), rate.getRate());
+            }
         }
         
         logger.info("Successfully created rate type with ID: {} and name: {}", savedRateType.getId(), savedRateType.getName());
@@ -128,6 +138,7 @@ public class RateTypeService {
         
         rateTypeRoomTypeRateRepository.save(rateTypeRoomTypeRate);
         rateType.getRoomTypeRates().add(rateTypeRoomTypeRate);
+        rateMatrix.put(rateTypeId, roomType.getId(), roomTypeRateDTO.getRate());
         logger.info("Successfully added rate {} for room type: {}", roomTypeRateDTO.getRate(), roomType.getName());
         
         return rateTypeMapper.toDTO(rateType);
@@ -147,6 +158,7 @@ public class RateTypeService {
         BigDecimal oldRate = rateTypeRoomTypeRate.getRate();
         rateTypeRoomTypeRate.setRate(newRate);
         rateTypeRoomTypeRateRepository.save(rateTypeRoomTypeRate);
+        rateMatrix.put(rateTypeId, roomTypeId, newRate);
         logger.info("Rate updated from {} to {}", oldRate, newRate);
         
         RateType rateType = rateTypeRepository.findById(rateTypeId)
@@ -169,6 +181,7 @@ public class RateTypeService {
                 });
         
         rateTypeRoomTypeRateRepository.delete(rateTypeRoomTypeRate);
+        rateMatrix.remove(rateTypeId, roomTypeId);
         logger.info("Successfully removed room type rate");
     }
 
@@ -199,17 +212,35 @@ public class RateTypeService {
     @Transactional(readOnly = true)
     public List<RateTypeDTO> getAllRateTypes() {
         logger.debug("Fetching all rate types");
-        List<RateTypeDTO> rateTypes = rateTypeRepository.findAll().stream()
+        List<RateTypeDTO> rateTypes = rateTypeRepository.findAllWithRoomTypeRates().stream()
                 .map(rateTypeMapper::toDTO)
                 .collect(Collectors.toList());
         logger.info("Retrieved {} rate type(s)", rateTypes.size());
         return rateTypes;
     }
 
+    /**
+     * The JSON of {@link #getAllRateTypes()}, serialized once per version of the rate types.
+     * The version and, when it changed, the rate types are read in one read-only transaction.
+     */
     @Transactional(readOnly = true)
+    public byte[] getAllRateTypesJson() {
+        return referenceDataCache.json(ReferenceDataCache.Resource.RATE_TYPES, this::getAllRateTypes);
+    }
+
+    /**
+     * Answered from the {@link RateMatrix} where it holds the rate; no transaction is started
+     * for that, and the database is queried only otherwise.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BigDecimal getRateForRoomType(Long rateTypeId, Long roomTypeId) {
         logger.debug("Fetching rate for rate type ID: {} and room type ID: {}", rateTypeId, roomTypeId);
         
+        BigDecimal cachedRate = rateMatrix.get(rateTypeId, roomTypeId);
+        if (cachedRate != null) {
+            return cachedRate;
+        }
+        
         RateTypeRoomTypeRate rateTypeRoomTypeRate = rateTypeRoomTypeRateRepository
                 .findByRateTypeIdAndRoomTypeId(rateTypeId, roomTypeId)
                 .orElseThrow(() -> {
@@ -241,6 +272,7 @@ public class RateTypeService {
         }
         
         rateTypeRepository.deleteById(id);
+        rateMatrix.removeRateType(id);
         logger.info("Successfully deleted rate type with ID: {}", id);
     }
 }
@@ -0,0 +1,101 @@
+package com.klm.pms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Versions of the reference data every client screen loads, for conditional GETs.
+ * <p>
+ * Each {@link Resource} has a version row in {@value #VERSIONS_TABLE}, bumped by a database
+ * trigger in the same transaction as any insert, update or delete of a table it is built from
+ * (see {@link com.klm.pms.config.ReferenceDataVersionInitializer}). Every write counts, whichever
+ * instance or tool makes it, and a version becomes visible when the write commits. The version
+ * is the resource's ETag; a client presenting the current one gets a 304 after a single
+ * primary-key lookup.
+ * <p>
+ * The serialized JSON of a resource can be cached against its version too. A version is
+ * always read before the data, so a payload is never stored under a version newer than
+ * the data it holds.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    public static final String VERSIONS_TABLE = "reference_data_versions";
+
+    private static final String SELECT_VERSION = "SELECT version FROM " + VERSIONS_TABLE + " WHERE resource = ?";
+
+    public enum Resource {
+        ROOM_TYPES,
+        RATE_TYPES,
+        ROOMS
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Resource, AtomicReference<Payload>> payloads = new EnumMap<>(Resource.class);
+
+    private record Payload(long version, byte[] json) {
+    }
+
+    public ReferenceDataCache() {
+        for (Resource resource : Resource.values()) {
+            payloads.put(resource, new AtomicReference<>());
+        }
+    }
+
+    /**
+     * The strong ETag of the current version of a resource.
+     */
+    public String etag(Resource resource) {
+        return "\"" + version(resource) + "\"";
+    }
+
+    /**
+     * Returns the JSON of a resource, serializing what {@code loader} returns only if no
+     * payload is cached for its current version.
+     */
+    public byte[] json(Resource resource, Supplier<?> loader) {
+        long version = version(resource);
+        AtomicReference<Payload> cached = payloads.get(resource);
+        Payload payload = cached.get();
+        if (payload != null && payload.version() == version) {
+            return payload.json();
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        Payload loaded = new Payload(version, json);
+        cached.accumulateAndGet(loaded, (current, candidate) ->
+                current == null || current.version() < candidate.version() ? candidate : current);
+        logger.debug("Cached {} byte(s) of {} at version {}", json.length, resource, version);
+        return json;
+    }
+
+    private long version(Resource resource) {
+        Long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class, resource.name());
+        if (version == null) {
+            throw new IllegalStateException("No version row for " + resource + " in " + VERSIONS_TABLE);
+        }
+        return version;
+    }
+}
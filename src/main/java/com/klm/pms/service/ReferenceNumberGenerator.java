@@ -0,0 +1,17 @@
+package com.klm.pms.service;
+
+/**
+ * Generates the human-facing reference numbers of reservations and invoices.
+ * <p>
+ * The default implementation is {@link TimeBasedReferenceNumberGenerator}. Another
+ * strategy, for example one backed by a database sequence, can be plugged in by
+ * declaring a {@code @Primary} bean of this type.
+ */
+public interface ReferenceNumberGenerator {
+
+    /**
+     * Returns a new reference number starting with the given prefix, unique across all
+     * calls of this and every other instance configured with a different node id.
+     */
+    String next(String prefix);
+}
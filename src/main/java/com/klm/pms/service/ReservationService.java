@@ -1,11 +1,13 @@
 package com.klm.pms.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.dto.CursorPageResponse;
+import com.klm.pms.dto.FieldSelection;
 import com.klm.pms.dto.PageResponse;
 import com.klm.pms.dto.ReservationDTO;
 import com.klm.pms.dto.ReservationFilterRequest;
 import com.klm.pms.exception.BusinessLogicException;
 import com.klm.pms.exception.EntityNotFoundException;
+import com.klm.pms.exception.ValidationException;
 import com.klm.pms.mapper.ReservationMapper;
 import com.klm.pms.model.Guest;
 import com.klm.pms.model.RateType;
@@ -17,25 +19,41 @@ import com.klm.pms.repository.RateTypeRepository;
 import com.klm.pms.repository.ReservationRepository;
 import com.klm.pms.repository.RoomRepository;
 import com.klm.pms.repository.specification.ReservationSpecification;
+import com.klm.pms.repository.specification.TextSearch;
 import com.klm.pms.util.Constants;
+import com.klm.pms.util.KeysetPaginationUtil;
+import com.klm.pms.util.StreamingUtil;
 import com.klm.pms.util.ValidationUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -43,9 +61,15 @@ public class ReservationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
 
+    // PostgreSQL exclusion_violation, raised by the reservation overlap constraint
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private GuestRepository guestRepository;
 
@@ -65,8 +89,21 @@ public class ReservationService {
     private AuditService auditService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private RoomOccupancyIndex occupancyIndex;
 
+    @Autowired
+    private RoomTypeInventoryService inventoryService;
+
+    @Autowired
+    private RoomBookingLocks bookingLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReferenceNumberGenerator referenceNumberGenerator;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationDTO createReservation(ReservationDTO reservationDTO) {
         logger.info("Creating new reservation for guest ID: {}, room ID: {}, rate type ID: {}, check-in: {}, check-out: {}", 
                 reservationDTO != null ? reservationDTO.getGuestId() : null,
@@ -75,6 +112,160 @@ public class ReservationService {
                 reservationDTO != null ? reservationDTO.getCheckInDate() : null,
                 reservationDTO != null ? reservationDTO.getCheckOutDate() : null);
         
+        validateNewReservation(reservationDTO);
+        
+        // Bookings of the same room are serialized: the room lock is held until the transaction completes
+        return bookingLocks.withLock(reservationDTO.getRoomId(), 
+                () -> transactionTemplate.execute(status -> doCreateReservation(reservationDTO)));
+    }
+
+    /**
+     * Creates a group of reservations in one transaction: either all of them are booked
+     * or none is. Guests, rooms and rate types are loaded once for the whole group,
+     * availability is checked with a single query over all requested rooms, each
+     * (rate type, room type) rate is resolved once and the rows are inserted in one
+     * JDBC batch.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ReservationDTO> createReservations(List<ReservationDTO> reservationDTOs) {
+        logger.info("Creating batch of {} reservation(s)", reservationDTOs != null ? reservationDTOs.size() : 0);
+        
+        ValidationUtil.requireNonNull(reservationDTOs, "reservations");
+        if (reservationDTOs.isEmpty() || reservationDTOs.size() > Constants.MAX_RESERVATIONS_PER_BATCH) {
+            logger.warn("Invalid batch size: {}", reservationDTOs.size());
+            throw new ValidationException("reservations", String.format(
+                    "A batch must contain between 1 and %d reservations", Constants.MAX_RESERVATIONS_PER_BATCH));
+        }
+        for (int i = 0; i < reservationDTOs.size(); i++) {
+            try {
+                validateNewReservation(reservationDTOs.get(i));
+            } catch (ValidationException e) {
+                throw new ValidationException(e.getFieldName(), 
+                        String.format(Constants.ERROR_BATCH_ITEM, i + 1, e.getMessage()));
+            }
+        }
+        
+        Set<Long> roomIds = reservationDTOs.stream().map(ReservationDTO::getRoomId).collect(Collectors.toSet());
+        return bookingLocks.withLocks(roomIds, 
+                () -> transactionTemplate.execute(status -> doCreateReservations(reservationDTOs)));
+    }
+
+    private List<ReservationDTO> doCreateReservations(List<ReservationDTO> reservationDTOs) {
+        Map<Long, Guest> guests = loadAll(guestRepository.findAllById(idsOf(reservationDTOs, ReservationDTO::getGuestId)),
+                Guest::getId, idsOf(reservationDTOs, ReservationDTO::getGuestId), Constants.AUDIT_ENTITY_GUEST);
+        Map<Long, Room> rooms = loadAll(roomRepository.findAllByIdWithRoomType(idsOf(reservationDTOs, ReservationDTO::getRoomId)),
+                Room::getId, idsOf(reservationDTOs, ReservationDTO::getRoomId), Constants.AUDIT_ENTITY_ROOM);
+        Map<Long, RateType> rateTypes = loadAll(rateTypeRepository.findAllById(idsOf(reservationDTOs, ReservationDTO::getRateTypeId)),
+                RateType::getId, idsOf(reservationDTOs, ReservationDTO::getRateTypeId), Constants.AUDIT_ENTITY_RATE_TYPE);
+        
+        // One query for the stays of every requested room across the whole batch window
+        LocalDate windowStart = reservationDTOs.stream().map(ReservationDTO::getCheckInDate)
+                .min(LocalDate::compareTo).orElseThrow();
+        LocalDate windowEnd = reservationDTOs.stream().map(ReservationDTO::getCheckOutDate)
+                .max(LocalDate::compareTo).orElseThrow();
+        Map<Long, List<Stay>> staysByRoom = new HashMap<>();
+        for (Object[] stay : reservationRepository.findActiveStaysOfRoomsOverlapping(rooms.keySet(), windowStart, windowEnd)) {
+            staysByRoom.computeIfAbsent((Long) stay[0], id -> new ArrayList<>())
+                    .add(new Stay((LocalDate) stay[1], (LocalDate) stay[2]));
+        }
+        logger.debug("Found {} existing stay(s) across {} room(s) between {} and {}", 
+                staysByRoom.values().stream().mapToInt(List::size).sum(), rooms.size(), windowStart, windowEnd);
+        
+        Map<RateKey, BigDecimal> ratesByRateAndRoomType = new HashMap<>();
+        List<Reservation> reservations = new ArrayList<>(reservationDTOs.size());
+        for (int i = 0; i < reservationDTOs.size(); i++) {
+            ReservationDTO reservationDTO = reservationDTOs.get(i);
+            Room room = rooms.get(reservationDTO.getRoomId());
+            RateType rateType = rateTypes.get(reservationDTO.getRateTypeId());
+            
+            // Earlier reservations of the batch count as stays, so the batch cannot double-book a room itself
+            Stay requested = new Stay(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
+            List<Stay> roomStays = staysByRoom.computeIfAbsent(room.getId(), id -> new ArrayList<>());
+            for (Stay stay : roomStays) {
+                if (stay.overlaps(requested)) {
+                    logger.warn("Failed to create reservation batch: Room {} is not available from {} to {}", 
+                            room.getRoomNumber(), reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
+                    throw new BusinessLogicException(String.format(Constants.ERROR_BATCH_ITEM, i + 1, 
+                            Constants.ERROR_ROOM_NOT_AVAILABLE));
+                }
+            }
+            roomStays.add(requested);
+            
+            if (room.getMaxOccupancy() != null && reservationDTO.getNumberOfGuests() > room.getMaxOccupancy()) {
+                logger.warn("Failed to create reservation batch: Number of guests {} exceeds room {} capacity {}", 
+                        reservationDTO.getNumberOfGuests(), room.getRoomNumber(), room.getMaxOccupancy());
+                throw new BusinessLogicException(String.format(Constants.ERROR_BATCH_ITEM, i + 1, 
+                        Constants.ERROR_EXCEEDS_CAPACITY));
+            }
+            
+            BigDecimal ratePerNight = ratesByRateAndRoomType.computeIfAbsent(
+                    new RateKey(rateType.getId(), room.getRoomType().getId()),
+                    key -> rateTypeService.getRateForRoomType(key.rateTypeId(), key.roomTypeId()));
+            long nights = ChronoUnit.DAYS.between(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
+            
+            Reservation reservation = reservationMapper.toEntity(reservationDTO);
+            if (reservation.getReservationNumber() == null) {
+                reservation.setReservationNumber(referenceNumberGenerator.next(Constants.RESERVATION_NUMBER_PREFIX));
+            }
+            reservation.setGuest(guests.get(reservationDTO.getGuestId()));
+            reservation.setRoom(room);
+            reservation.setRateType(rateType);
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation.setTotalAmount(ratePerNight.multiply(BigDecimal.valueOf(nights)));
+            reservations.add(reservation);
+        }
+        logger.debug("Resolved {} distinct rate(s) for {} reservation(s)", ratesByRateAndRoomType.size(), reservations.size());
+        
+        try {
+            reservationRepository.insertAll(reservations);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                logger.warn("Reservation batch rejected by overlap constraint");
+                throw new BusinessLogicException(Constants.ERROR_ROOM_NOT_AVAILABLE, e);
+            }
+            throw e;
+        }
+        
+        Map<SoldKey, Integer> soldByTypeAndStay = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            occupancyIndex.book(reservation.getRoom().getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            soldByTypeAndStay.merge(new SoldKey(reservation.getRoom().getRoomType().getId(), 
+                    new Stay(reservation.getCheckInDate(), reservation.getCheckOutDate())), 1, Integer::sum);
+        }
+        soldByTypeAndStay.forEach((key, count) -> inventoryService.recordStays(
+                key.roomTypeId(), key.stay().checkInDate(), key.stay().checkOutDate(), count));
+        logger.info("Successfully created batch of {} reservation(s) with IDs {} to {}", 
+                reservations.size(), reservations.get(0).getId(), reservations.get(reservations.size() - 1).getId());
+        
+        // Audit log; rows inserted over JDBC raise no Hibernate events
+        List<Long> reservationIds = reservations.stream().map(Reservation::getId).collect(Collectors.toList());
+        try {
+            auditService.logCreates(Constants.AUDIT_ENTITY_RESERVATION, reservationIds);
+        } catch (Exception e) {
+            logger.error("Failed to create audit logs for reservation batch, but reservations were created successfully. Reservation IDs: {}", 
+                    reservationIds, e);
+            // Don't fail the operation if audit logging fails
+        }
+        
+        return reservations.stream().map(reservationMapper::toDTO).collect(Collectors.toList());
+    }
+
+    private static Set<Long> idsOf(List<ReservationDTO> reservationDTOs, Function<ReservationDTO, Long> id) {
+        return reservationDTOs.stream().map(id).collect(Collectors.toSet());
+    }
+
+    private <T> Map<Long, T> loadAll(List<T> entities, Function<T, Long> id, Set<Long> requestedIds, String entityType) {
+        Map<Long, T> byId = entities.stream().collect(Collectors.toMap(id, Function.identity()));
+        for (Long requestedId : requestedIds) {
+            if (!byId.containsKey(requestedId)) {
+                logger.error("{} not found with ID: {}", entityType, requestedId);
+                throw new EntityNotFoundException(entityType, requestedId);
+            }
+        }
+        return byId;
+    }
+
+    private void validateNewReservation(ReservationDTO reservationDTO) {
         // Defensive checks
         ValidationUtil.requireNonNull(reservationDTO, "reservationDTO");
         ValidationUtil.requireNonNull(reservationDTO.getGuestId(), "guestId");
@@ -89,7 +280,9 @@ public class ReservationService {
         ValidationUtil.validateDateRange(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate(), 
                 "checkInDate", "checkOutDate");
         ValidationUtil.requireNotInPast(reservationDTO.getCheckInDate(), "checkInDate");
-        
+    }
+
+    private ReservationDTO doCreateReservation(ReservationDTO reservationDTO) {
         // Get guest and room
         Guest guest = guestRepository.findById(reservationDTO.getGuestId())
                 .orElseThrow(() -> {
@@ -132,6 +325,9 @@ public class ReservationService {
         
         // Create reservation
         Reservation reservation = reservationMapper.toEntity(reservationDTO);
+        if (reservation.getReservationNumber() == null) {
+            reservation.setReservationNumber(referenceNumberGenerator.next(Constants.RESERVATION_NUMBER_PREFIX));
+        }
         reservation.setGuest(guest);
         reservation.setRoom(room);
         reservation.setRateType(rateType);
@@ -150,19 +346,13 @@ public class ReservationService {
         
         // Room status is not updated here - availability is determined by date range and reservations
         
-        Reservation savedReservation = reservationRepository.save(reservation);
+        Reservation savedReservation = saveBooking(reservation);
+        occupancyIndex.book(room.getId(), savedReservation.getCheckInDate(), savedReservation.getCheckOutDate());
+        inventoryService.recordStay(room.getRoomType().getId(), savedReservation.getCheckInDate(), 
+                savedReservation.getCheckOutDate());
         logger.info("Successfully created reservation with ID: {} and number: {} for total amount: {}", 
                 savedReservation.getId(), savedReservation.getReservationNumber(), totalAmount);
         
-        // Audit log
-        try {
-            auditService.logCreate(Constants.AUDIT_ENTITY_RESERVATION, savedReservation.getId(), savedReservation);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for reservation creation, but reservation was created successfully. Reservation ID: {}", 
-                    savedReservation.getId(), e);
-            // Don't fail the operation if audit logging fails
-        }
-        
         return reservationMapper.toDTO(savedReservation);
     }
 
@@ -177,20 +367,6 @@ public class ReservationService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, reservationId);
                 });
         
-        // Store old state for audit - create a deep copy
-        Reservation oldReservation = null;
-        try {
-            String json = objectMapper.writeValueAsString(reservation);
-            oldReservation = objectMapper.readValue(json, Reservation.class);
-            logger.debug("Created deep copy of reservation {} for check-in audit logging", reservationId);
-        } catch (Exception e) {
-            logger.warn("Failed to create deep copy of reservation for audit, will use partial copy", e);
-            oldReservation = new Reservation();
-            oldReservation.setId(reservation.getId());
-            oldReservation.setStatus(reservation.getStatus());
-            oldReservation.setActualCheckInTime(reservation.getActualCheckInTime());
-        }
-        
         if (reservation.getStatus() != ReservationStatus.CONFIRMED && 
             reservation.getStatus() != ReservationStatus.PENDING) {
             logger.warn("Failed to check in reservation ID {}: Invalid status {}", reservationId, reservation.getStatus());
@@ -208,15 +384,6 @@ public class ReservationService {
         logger.info("Successfully checked in reservation ID: {} for room: {}", 
                 reservationId, reservation.getRoom().getRoomNumber());
         
-        // Audit log
-        try {
-            auditService.logUpdate(Constants.AUDIT_ENTITY_RESERVATION, reservationId, oldReservation, updatedReservation);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for check-in, but check-in was successful. Reservation ID: {}", 
-                    reservationId, e);
-            // Don't fail the operation if audit logging fails
-        }
-        
         return reservationMapper.toDTO(updatedReservation);
     }
 
@@ -231,20 +398,6 @@ public class ReservationService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, reservationId);
                 });
         
-        // Store old state for audit - create a deep copy
-        Reservation oldReservation = null;
-        try {
-            String json = objectMapper.writeValueAsString(reservation);
-            oldReservation = objectMapper.readValue(json, Reservation.class);
-            logger.debug("Created deep copy of reservation {} for check-out audit logging", reservationId);
-        } catch (Exception e) {
-            logger.warn("Failed to create deep copy of reservation for audit, will use partial copy", e);
-            oldReservation = new Reservation();
-            oldReservation.setId(reservation.getId());
-            oldReservation.setStatus(reservation.getStatus());
-            oldReservation.setActualCheckOutTime(reservation.getActualCheckOutTime());
-        }
-        
         if (reservation.getStatus() != ReservationStatus.CHECKED_IN) {
             logger.warn("Failed to check out reservation ID {}: Status is not CHECKED_IN, current status: {}", 
                     reservationId, reservation.getStatus());
@@ -263,17 +416,14 @@ public class ReservationService {
         logger.debug("Room {} status updated to CLEANING", room.getRoomNumber());
         
         Reservation updatedReservation = reservationRepository.save(reservation);
+        occupancyIndex.release(room.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+        // Nights already stayed remain sold; an early departure returns the rest to inventory
+        LocalDate today = LocalDate.now();
+        inventoryService.releaseStay(room.getRoomType().getId(), 
+                reservation.getCheckInDate().isAfter(today) ? reservation.getCheckInDate() : today, 
+                reservation.getCheckOutDate());
         logger.info("Successfully checked out reservation ID: {} for room: {}", reservationId, room.getRoomNumber());
         
-        // Audit log
-        try {
-            auditService.logUpdate(Constants.AUDIT_ENTITY_RESERVATION, reservationId, oldReservation, updatedReservation);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for check-out, but check-out was successful. Reservation ID: {}", 
-                    reservationId, e);
-            // Don't fail the operation if audit logging fails
-        }
-        
         return reservationMapper.toDTO(updatedReservation);
     }
 
@@ -288,24 +438,12 @@ public class ReservationService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, reservationId);
                 });
         
-        // Store old state for audit - create a deep copy
-        Reservation oldReservation = null;
-        try {
-            String json = objectMapper.writeValueAsString(reservation);
-            oldReservation = objectMapper.readValue(json, Reservation.class);
-            logger.debug("Created deep copy of reservation {} for cancel audit logging", reservationId);
-        } catch (Exception e) {
-            logger.warn("Failed to create deep copy of reservation for audit, will use partial copy", e);
-            oldReservation = new Reservation();
-            oldReservation.setId(reservation.getId());
-            oldReservation.setStatus(reservation.getStatus());
-        }
-        
         if (reservation.getStatus() == ReservationStatus.CHECKED_OUT) {
             logger.warn("Failed to cancel reservation ID {}: Already checked out", reservationId);
             throw new BusinessLogicException("Cannot cancel a reservation that has been checked out");
         }
         
+        boolean wasOccupying = RoomOccupancyIndex.isOccupying(reservation.getStatus());
         reservation.setStatus(ReservationStatus.CANCELLED);
         logger.debug("Reservation {} status updated to CANCELLED", reservation.getReservationNumber());
         
@@ -313,22 +451,18 @@ public class ReservationService {
         // If room status is MAINTENANCE or CLEANING, it remains as is. If it's READY, it stays READY.
         
         Reservation updatedReservation = reservationRepository.save(reservation);
-        logger.info("Successfully cancelled reservation ID: {}", reservationId);
-        
-        // Audit log
-        try {
-            auditService.logUpdate(Constants.AUDIT_ENTITY_RESERVATION, reservationId, oldReservation, updatedReservation);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for reservation cancellation, but reservation was cancelled successfully. Reservation ID: {}", 
-                    reservationId, e);
-            // Don't fail the operation if audit logging fails
+        if (wasOccupying) {
+            occupancyIndex.release(reservation.getRoom().getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            inventoryService.releaseStay(reservation.getRoom().getRoomType().getId(), 
+                    reservation.getCheckInDate(), reservation.getCheckOutDate());
         }
+        logger.info("Successfully cancelled reservation ID: {}", reservationId);
         
         return reservationMapper.toDTO(updatedReservation);
     }
 
     @Transactional(readOnly = true)
-    public ReservationDTO getReservationById(Long id) {
+    public ReservationDTO getReservationById(Long id, FieldSelection selection) {
         logger.debug("Fetching reservation with ID: {}", id);
         ValidationUtil.requireNonNull(id, "id");
         
@@ -338,11 +472,11 @@ public class ReservationService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, id);
                 });
         logger.debug("Successfully retrieved reservation with ID: {}", id);
-        return reservationMapper.toDTO(reservation);
+        return reservationMapper.toDTO(reservation, selection);
     }
 
     @Transactional(readOnly = true)
-    public ReservationDTO getReservationByNumber(String reservationNumber) {
+    public ReservationDTO getReservationByNumber(String reservationNumber, FieldSelection selection) {
         logger.debug("Fetching reservation with number: {}", reservationNumber);
         ValidationUtil.requireNonBlank(reservationNumber, "reservationNumber");
         
@@ -352,7 +486,7 @@ public class ReservationService {
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, reservationNumber);
                 });
         logger.debug("Successfully retrieved reservation with number: {}", reservationNumber);
-        return reservationMapper.toDTO(reservation);
+        return reservationMapper.toDTO(reservation, selection);
     }
 
     @Transactional(readOnly = true)
@@ -365,8 +499,22 @@ public class ReservationService {
         return reservations;
     }
 
+    /**
+     * Hands every reservation to {@code consumer} as it is read, without holding them all in
+     * memory. The consumer runs within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllReservations(Consumer<ReservationDTO> consumer) {
+        logger.debug("Streaming all reservations");
+        try (Stream<Reservation> reservations = reservationRepository.streamAll()) {
+            long count = StreamingUtil.forEach(reservations, entityManager, reservationMapper::toDTO, consumer);
+            logger.info("Streamed {} reservation(s)", count);
+        }
+    }
+
     @Transactional(readOnly = true)
-    public PageResponse<ReservationDTO> getAllReservationsPaginated(ReservationFilterRequest filter, int page, int size, String sortBy, String sortDir) {
+    public PageResponse<ReservationDTO> getAllReservationsPaginated(ReservationFilterRequest filter, int page, int size, String sortBy, String sortDir,
+                                                                     FieldSelection selection) {
         logger.debug("Fetching reservations with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
         
         // Validate and normalize pagination parameters
@@ -374,24 +522,25 @@ public class ReservationService {
         int normalizedPage = pagination[0];
         int normalizedSize = pagination[1];
         
-        // Default sorting
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
-        if (sortBy != null && !sortBy.isEmpty()) {
-            Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
-        
-        Pageable pageable = PageRequest.of(normalizedPage, normalizedSize, sort);
+        Sort sort = Sort.by(sortOrder(sortBy, sortDir));
         
         // Build specification for filtering
         Specification<Reservation> spec = ReservationSpecification.withFilters(filter);
         
-        Page<Reservation> reservationPage = reservationRepository.findAll(spec, pageable);
+        // Search results come best match first unless a sort is requested
+        if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty() && (sortBy == null || sortBy.isEmpty())) {
+            sort = Sort.unsorted();
+            spec = spec.and(TextSearch.rankedBySimilarity(filter.getSearchTerm()));
+        }
+        
+        Pageable pageable = PageRequest.of(normalizedPage, normalizedSize, sort);
+        
+        // Fetch the guests and rooms embedded in the page with it, and nothing else
+        List<String> fetchPaths = reservationMapper.fetchPaths(selection);
+        Page<Reservation> reservationPage = reservationRepository.findBy(spec, query -> query.project(fetchPaths).page(pageable));
         
         List<ReservationDTO> reservationDTOs = reservationPage.getContent().stream()
-                .map(reservationMapper::toDTO)
+                .map(reservation -> reservationMapper.toDTO(reservation, selection))
                 .collect(Collectors.toList());
         
         PageResponse<ReservationDTO> response = new PageResponse<>(
@@ -405,6 +554,34 @@ public class ReservationService {
         return response;
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllReservationsPaginated}: seeks past the
+     * {@code cursor} of the previous page instead of skipping rows, and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReservationDTO> getAllReservationsByCursor(ReservationFilterRequest filter, String cursor, Integer limit, String sortBy, String sortDir,
+                                                                          FieldSelection selection) {
+        logger.debug("Fetching reservations by cursor - limit: {}, sortBy: {}, sortDir: {}", limit, sortBy, sortDir);
+        
+        CursorPageResponse<ReservationDTO> response = KeysetPaginationUtil.fetch(reservationRepository, Reservation.class,
+                ReservationSpecification.withFilters(filter), cursor, limit, sortOrder(sortBy, sortDir),
+                reservationMapper.fetchPaths(selection), reservation -> reservationMapper.toDTO(reservation, selection));
+        
+        logger.info("Retrieved {} reservation(s) by cursor, has next: {}", response.getContent().size(), response.isHasNext());
+        return response;
+    }
+
+    private static Sort.Order sortOrder(String sortBy, String sortDir) {
+        // Default sorting
+        if (sortBy == null || sortBy.isEmpty()) {
+            return new Sort.Order(Sort.Direction.DESC, "createdAt");
+        }
+        Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("asc") 
+            ? Sort.Direction.ASC 
+            : Sort.Direction.DESC;
+        return new Sort.Order(direction, sortBy);
+    }
+
     @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByGuest(Long guestId) {
         logger.debug("Fetching reservations for guest ID: {}", guestId);
@@ -435,41 +612,32 @@ public class ReservationService {
         return reservations;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
         logger.info("Updating reservation ID: {}", id);
         
         ValidationUtil.requireNonNull(id, "id");
         ValidationUtil.requireNonNull(reservationDTO, "reservationDTO");
         
+        // Lock the room the reservation will occupy after the update
+        Long targetRoomId = reservationDTO.getRoomId() != null 
+                ? reservationDTO.getRoomId() 
+                : reservationRepository.findRoomIdById(id)
+                        .orElseThrow(() -> {
+                            logger.error("Reservation not found with ID: {}", id);
+                            return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, id);
+                        });
+        return bookingLocks.withLock(targetRoomId, 
+                () -> transactionTemplate.execute(status -> doUpdateReservation(id, reservationDTO)));
+    }
+
+    private ReservationDTO doUpdateReservation(Long id, ReservationDTO reservationDTO) {
         Reservation existingReservation = reservationRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Reservation not found with ID: {}", id);
                     return new EntityNotFoundException(Constants.AUDIT_ENTITY_RESERVATION, id);
                 });
         
-        // Store old state for audit BEFORE any modifications - create a deep copy
-        Reservation oldReservation = null;
-        try {
-            // Use ObjectMapper to create a deep copy of the entity
-            String json = objectMapper.writeValueAsString(existingReservation);
-            oldReservation = objectMapper.readValue(json, Reservation.class);
-            logger.debug("Created deep copy of reservation {} for audit logging", id);
-        } catch (Exception e) {
-            logger.warn("Failed to create deep copy of reservation for audit, will use partial copy", e);
-            // Fallback to partial copy if deep copy fails
-            oldReservation = new Reservation();
-            oldReservation.setId(existingReservation.getId());
-            oldReservation.setCheckInDate(existingReservation.getCheckInDate());
-            oldReservation.setCheckOutDate(existingReservation.getCheckOutDate());
-            oldReservation.setNumberOfGuests(existingReservation.getNumberOfGuests());
-            oldReservation.setStatus(existingReservation.getStatus());
-            oldReservation.setTotalAmount(existingReservation.getTotalAmount());
-            oldReservation.setSpecialRequests(existingReservation.getSpecialRequests());
-            oldReservation.setGuest(existingReservation.getGuest());
-            oldReservation.setRoom(existingReservation.getRoom());
-            oldReservation.setRateType(existingReservation.getRateType());
-        }
-        
         // Cannot update checked out reservations
         if (existingReservation.getStatus() == ReservationStatus.CHECKED_OUT) {
             logger.warn("Failed to update reservation ID {}: Already checked out", id);
@@ -522,7 +690,9 @@ public class ReservationService {
             logger.debug("Rate type changed to: {}", rateType.getName());
         }
         
-        // Save original dates for comparison
+        // Save original room and dates for comparison
+        Long originalRoomId = existingReservation.getRoom().getId();
+        Long originalRoomTypeId = existingReservation.getRoom().getRoomType().getId();
         LocalDate originalCheckInDate = existingReservation.getCheckInDate();
         LocalDate originalCheckOutDate = existingReservation.getCheckOutDate();
         
@@ -592,19 +762,54 @@ public class ReservationService {
             logger.debug("Recalculated total amount: {} for {} night(s) at rate: {}", totalAmount, nights, ratePerNight);
         }
         
-        Reservation updatedReservation = reservationRepository.save(existingReservation);
+        Reservation updatedReservation = saveBooking(existingReservation);
+        if ((roomChanged || datesChanged) && RoomOccupancyIndex.isOccupying(existingReservation.getStatus())) {
+            occupancyIndex.release(originalRoomId, originalCheckInDate, originalCheckOutDate);
+            occupancyIndex.book(room.getId(), checkInDate, checkOutDate);
+            inventoryService.releaseStay(originalRoomTypeId, originalCheckInDate, originalCheckOutDate);
+            inventoryService.recordStay(room.getRoomType().getId(), checkInDate, checkOutDate);
+        }
         logger.info("Successfully updated reservation ID: {}", id);
         
-        // Audit log
+        return reservationMapper.toDTO(updatedReservation);
+    }
+
+    /**
+     * Saves and flushes a reservation so that an overlap rejected by the database
+     * exclusion constraint surfaces here as a business error rather than at commit.
+     */
+    private Reservation saveBooking(Reservation reservation) {
         try {
-            auditService.logUpdate(Constants.AUDIT_ENTITY_RESERVATION, id, oldReservation, updatedReservation);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log for reservation update, but reservation was updated successfully. Reservation ID: {}", 
-                    id, e);
-            // Don't fail the operation if audit logging fails
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                logger.warn("Reservation for room {} from {} to {} rejected by overlap constraint", 
+                        reservation.getRoom().getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+                throw new BusinessLogicException(Constants.ERROR_ROOM_NOT_AVAILABLE, e);
+            }
+            throw e;
         }
-        
-        return reservationMapper.toDTO(updatedReservation);
     }
-}
 
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException 
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Stay(LocalDate checkInDate, LocalDate checkOutDate) {
+        boolean overlaps(Stay other) {
+            return checkInDate.isBefore(other.checkOutDate) && checkOutDate.isAfter(other.checkInDate);
+        }
+    }
+
+    private record RateKey(Long rateTypeId, Long roomTypeId) {
+    }
+
+    private record SoldKey(Long roomTypeId, Stay stay) {
+    }
+}
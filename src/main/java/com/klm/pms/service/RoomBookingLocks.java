@@ -0,0 +1,99 @@
+package com.klm.pms.service;
+
+import com.klm.pms.exception.BusinessLogicException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-room locks serializing the check-then-insert booking path.
+ * <p>
+ * A booking runs its whole transaction (conflict check, insert, commit) while holding
+ * its room's stripe, so the next booking for that room only checks for conflicts once
+ * the previous one is committed or rolled back. Bookings for rooms on different stripes
+ * proceed in parallel. Locks are taken before the transaction starts, so requests that
+ * wait do not hold a pooled database connection.
+ * <p>
+ * The locks only cover this process. The {@code ex_reservations_room_stay} exclusion
+ * constraint (see {@code ReservationConstraintInitializer}) remains the final guard
+ * when several instances share a database.
+ */
+@Component
+public class RoomBookingLocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomBookingLocks.class);
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public RoomBookingLocks(@Value("${booking.lock.stripes:256}") int stripeCount,
+                            @Value("${booking.lock.timeout-ms:10000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs {@code booking}, which must open and complete its own transaction, while
+     * holding the lock of the given room.
+     */
+    public <T> T withLock(Long roomId, Supplier<T> booking) {
+        return withLocks(List.of(roomId), booking);
+    }
+
+    /**
+     * Runs {@code booking}, which must open and complete its own transaction, while
+     * holding the locks of all given rooms. Stripes are taken in ascending order so that
+     * concurrent multi-room bookings cannot deadlock each other.
+     */
+    public <T> T withLocks(Collection<Long> roomIds, Supplier<T> booking) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The lock would be released before the outer transaction commits
+            throw new IllegalStateException("Room booking locks must be taken outside a transaction");
+        }
+        TreeSet<Integer> ordered = new TreeSet<>();
+        roomIds.forEach(roomId -> ordered.add(stripeOf(roomId)));
+
+        List<ReentrantLock> held = new ArrayList<>(ordered.size());
+        try {
+            for (int stripe : ordered) {
+                held.add(acquire(stripe));
+            }
+            return booking.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private int stripeOf(Long roomId) {
+        return Math.floorMod(Long.hashCode(roomId), stripes.length);
+    }
+
+    private ReentrantLock acquire(int stripe) {
+        ReentrantLock lock = stripes[stripe];
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Timed out after {} ms waiting for booking lock stripe {}", timeoutMillis, stripe);
+                throw new BusinessLogicException("Room is being booked by another request, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("Interrupted while waiting for room booking lock", e);
+        }
+        return lock;
+    }
+}
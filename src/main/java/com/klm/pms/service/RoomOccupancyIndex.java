@@ -0,0 +1,232 @@
+package com.klm.pms.service;
+
+import com.klm.pms.model.Reservation.ReservationStatus;
+import com.klm.pms.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of booked room-nights used to answer availability searches
+ * without querying reservations room by room.
+ * <p>
+ * Each room owns a {@link BitSet} where bit {@code n} is set when the night starting
+ * on {@code origin + n days} is held by an active reservation (any status other than
+ * CANCELLED, NO_SHOW or CHECKED_OUT, the same rule as
+ * {@link ReservationRepository#findConflictingReservations}). A room is free for
+ * {@code [checkIn, checkOut)} when no bit is set in that range.
+ * <p>
+ * The index is rebuilt from the reservations table once the application is ready, and
+ * nightly as a safety net, and is kept in sync by the services that change reservations.
+ * Changes are applied only after the surrounding transaction commits, so a rolled back
+ * booking never shows up. Changes made while a rebuild is reading the table are also
+ * recorded and replayed onto the rebuilt index, so a booking committed meanwhile is kept.
+ * Until the index is loaded, or for ranges starting before its origin, callers fall
+ * back to the database.
+ */
+@Component
+public class RoomOccupancyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomOccupancyIndex.class);
+
+    /**
+     * Number of past nights kept in the index, so recent back-dated searches are still
+     * served from memory.
+     */
+    private static final int HISTORY_DAYS = 31;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> nightsByRoom = new HashMap<>();
+    private long originEpochDay;
+    private List<Runnable> changesDuringRebuild; // Guarded by lock; non-null while a rebuild reads the table
+    private volatile boolean ready;
+
+    /**
+     * Returns true when a reservation with the given status holds its room.
+     */
+    public static boolean isOccupying(ReservationStatus status) {
+        return status != ReservationStatus.CANCELLED
+                && status != ReservationStatus.NO_SHOW
+                && status != ReservationStatus.CHECKED_OUT;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${occupancy.index.rebuild-cron:0 15 0 * * *}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        LocalDate origin = LocalDate.now().minusDays(HISTORY_DAYS);
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> stays;
+        try {
+            stays = reservationRepository.findActiveStaysEndingAfter(origin);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Map<Long, BitSet> rebuilt = new HashMap<>();
+        long originDay = origin.toEpochDay();
+        for (Object[] stay : stays) {
+            Long roomId = (Long) stay[0];
+            LocalDate checkIn = (LocalDate) stay[1];
+            LocalDate checkOut = (LocalDate) stay[2];
+            setNights(rebuilt.computeIfAbsent(roomId, id -> new BitSet()), originDay, checkIn, checkOut, true);
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            nightsByRoom.clear();
+            nightsByRoom.putAll(rebuilt);
+            originEpochDay = originDay;
+            // Reapplied in order: the rows read may predate any of them
+            replayed = changesDuringRebuild.size();
+            changesDuringRebuild.forEach(Runnable::run);
+            changesDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Room occupancy index rebuilt from {} active reservation(s) across {} room(s), "
+                        + "replaying {} concurrent change(s), in {} ms",
+                stays.size(), rebuilt.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns true when the index can answer a search for a stay starting on the given date.
+     */
+    public boolean covers(LocalDate checkInDate) {
+        if (!ready) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return checkInDate.toEpochDay() >= originEpochDay;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the given rooms that have at least one booked night in
+     * {@code [checkInDate, checkOutDate)}. Callers must check {@link #covers(LocalDate)} first.
+     */
+    public Set<Long> findOccupiedRoomIds(Collection<Long> roomIds, LocalDate checkInDate, LocalDate checkOutDate) {
+        Set<Long> occupied = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            int from = (int) (checkInDate.toEpochDay() - originEpochDay);
+            int to = (int) (checkOutDate.toEpochDay() - originEpochDay);
+            for (Long roomId : roomIds) {
+                BitSet nights = nightsByRoom.get(roomId);
+                if (nights != null) {
+                    int next = nights.nextSetBit(from);
+                    if (next >= 0 && next < to) {
+                        occupied.add(roomId);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return occupied;
+    }
+
+    /**
+     * Marks the nights of a stay as booked once the current transaction commits.
+     */
+    public void book(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        afterCommit(() -> update(roomId, checkInDate, checkOutDate, true));
+    }
+
+    /**
+     * Frees the nights of a stay once the current transaction commits.
+     */
+    public void release(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        afterCommit(() -> update(roomId, checkInDate, checkOutDate, false));
+    }
+
+    /**
+     * Drops a deleted room from the index once the current transaction commits.
+     */
+    public void removeRoom(Long roomId) {
+        afterCommit(() -> apply(() -> nightsByRoom.remove(roomId)));
+    }
+
+    private void update(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, boolean booked) {
+        apply(() -> {
+            BitSet nights = booked
+                    ? nightsByRoom.computeIfAbsent(roomId, id -> new BitSet())
+                    : nightsByRoom.get(roomId);
+            if (nights != null) {
+                setNights(nights, originEpochDay, checkInDate, checkOutDate, booked);
+            }
+        });
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void setNights(BitSet nights, long originDay, LocalDate checkInDate, LocalDate checkOutDate,
+                                  boolean booked) {
+        int from = (int) Math.max(0, checkInDate.toEpochDay() - originDay);
+        int to = (int) (checkOutDate.toEpochDay() - originDay);
+        if (to > from) {
+            nights.set(from, to, booked);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
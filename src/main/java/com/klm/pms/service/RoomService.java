@@ -1,10 +1,12 @@
 package com.klm.pms.service;
 
+import com.klm.pms.dto.CursorPageResponse;
 import com.klm.pms.dto.PageResponse;
+import com.klm.pms.dto.RoomAvailabilityCalendarDTO;
 import com.klm.pms.dto.RoomDTO;
 import com.klm.pms.dto.RoomFilterRequest;
+import com.klm.pms.exception.ValidationException;
 import com.klm.pms.mapper.RoomMapper;
-import com.klm.pms.model.Reservation;
 import com.klm.pms.model.Room;
 import com.klm.pms.model.Room.RoomStatus;
 import com.klm.pms.model.RoomType;
@@ -12,6 +14,13 @@ import com.klm.pms.repository.ReservationRepository;
 import com.klm.pms.repository.RoomRepository;
 import com.klm.pms.repository.RoomTypeRepository;
 import com.klm.pms.repository.specification.RoomSpecification;
+import com.klm.pms.repository.specification.TextSearch;
+import com.klm.pms.util.Constants;
+import com.klm.pms.util.KeysetPaginationUtil;
+import com.klm.pms.util.StreamingUtil;
+import com.klm.pms.util.ValidationUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,9 +33,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -37,6 +52,9 @@ public class RoomService {
     @Autowired
     private RoomRepository roomRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private RoomTypeRepository roomTypeRepository;
 
@@ -47,7 +65,10 @@ public class RoomService {
     private ReservationRepository reservationRepository;
 
     @Autowired
-    private AuditService auditService;
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private RoomTypeInventoryService inventoryService;
 
     public RoomDTO createRoom(RoomDTO roomDTO) {
         logger.info("Creating new room with number: {} and room type ID: {}", roomDTO.getRoomNumber(), roomDTO.getRoomTypeId());
@@ -72,9 +93,6 @@ public class RoomService {
         Room savedRoom = roomRepository.save(room);
         logger.info("Successfully created room with ID: {} and number: {}", savedRoom.getId(), savedRoom.getRoomNumber());
         
-        // Audit log
-        auditService.logCreate("Room", savedRoom.getId(), savedRoom);
-        
         return roomMapper.toDTO(savedRoom);
     }
 
@@ -87,18 +105,6 @@ public class RoomService {
                     return new RuntimeException("Room not found with id: " + id);
                 });
         
-        // Store old state for audit
-        Room oldRoom = new Room();
-        oldRoom.setId(existingRoom.getId());
-        oldRoom.setRoomNumber(existingRoom.getRoomNumber());
-        oldRoom.setStatus(existingRoom.getStatus());
-        oldRoom.setMaxOccupancy(existingRoom.getMaxOccupancy());
-        oldRoom.setAmenities(existingRoom.getAmenities());
-        oldRoom.setDescription(existingRoom.getDescription());
-        oldRoom.setFloor(existingRoom.getFloor());
-        oldRoom.setHasBalcony(existingRoom.getHasBalcony());
-        oldRoom.setHasView(existingRoom.getHasView());
-        
         // Check room number uniqueness if it's being changed
         if (!roomDTO.getRoomNumber().equals(existingRoom.getRoomNumber())) {
             if (roomRepository.findByRoomNumber(roomDTO.getRoomNumber()).isPresent()) {
@@ -135,9 +141,6 @@ public class RoomService {
         Room updatedRoom = roomRepository.save(existingRoom);
         logger.info("Successfully updated room with ID: {}", id);
         
-        // Audit log
-        auditService.logUpdate("Room", id, oldRoom, updatedRoom);
-        
         return roomMapper.toDTO(updatedRoom);
     }
 
@@ -175,24 +178,36 @@ public class RoomService {
         return rooms;
     }
 
+    /**
+     * Hands every room to {@code consumer} as it is read, without holding them all in
+     * memory. The consumer runs within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllRooms(Consumer<RoomDTO> consumer) {
+        logger.debug("Streaming all rooms");
+        try (Stream<Room> rooms = roomRepository.streamAll()) {
+            long count = StreamingUtil.forEach(rooms, entityManager, roomMapper::toDTO, consumer);
+            logger.info("Streamed {} room(s)", count);
+        }
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<RoomDTO> getAllRoomsPaginated(RoomFilterRequest filter, int page, int size, String sortBy, String sortDir) {
         logger.debug("Fetching rooms with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
         
-        // Default sorting
-        Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        if (sortBy != null && !sortBy.isEmpty()) {
-            Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
-        
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Sort sort = Sort.by(sortOrder(sortBy, sortDir));
         
         // Build specification for filtering
         Specification<Room> spec = RoomSpecification.withFilters(filter);
         
+        // Search results come best match first unless a sort is requested
+        if (filter.getSearchTerm() != null && !filter.getSearchTerm().isEmpty() && (sortBy == null || sortBy.isEmpty())) {
+            sort = Sort.unsorted();
+            spec = spec.and(TextSearch.rankedBySimilarity(filter.getSearchTerm()));
+        }
+        
+        Pageable pageable = PageRequest.of(page, size, sort);
+        
         Page<Room> roomPage = roomRepository.findAll(spec, pageable);
         
         List<RoomDTO> roomDTOs = roomPage.getContent().stream()
@@ -210,6 +225,32 @@ public class RoomService {
         return response;
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllRoomsPaginated}: seeks past the
+     * {@code cursor} of the previous page instead of skipping rows, and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<RoomDTO> getAllRoomsByCursor(RoomFilterRequest filter, String cursor, Integer limit, String sortBy, String sortDir) {
+        logger.debug("Fetching rooms by cursor - limit: {}, sortBy: {}, sortDir: {}", limit, sortBy, sortDir);
+        
+        CursorPageResponse<RoomDTO> response = KeysetPaginationUtil.fetch(roomRepository, Room.class,
+                RoomSpecification.withFilters(filter), cursor, limit, sortOrder(sortBy, sortDir), roomMapper::toDTO);
+        
+        logger.info("Retrieved {} room(s) by cursor, has next: {}", response.getContent().size(), response.isHasNext());
+        return response;
+    }
+
+    private static Sort.Order sortOrder(String sortBy, String sortDir) {
+        // Default sorting
+        if (sortBy == null || sortBy.isEmpty()) {
+            return new Sort.Order(Sort.Direction.ASC, "id");
+        }
+        Sort.Direction direction = sortDir != null && sortDir.equalsIgnoreCase("desc") 
+            ? Sort.Direction.DESC 
+            : Sort.Direction.ASC;
+        return new Sort.Order(direction, sortBy);
+    }
+
     @Transactional(readOnly = true)
     public List<RoomDTO> getAvailableRooms() {
         logger.debug("Fetching available rooms");
@@ -229,20 +270,24 @@ public class RoomService {
         }
         
         // Get all rooms that are in READY or CLEANING status (not MAINTENANCE)
-        List<Room> availableStatusRooms = roomRepository.findAll().stream()
-                .filter(room -> room.getStatus() == RoomStatus.READY || room.getStatus() == RoomStatus.CLEANING)
-                .collect(Collectors.toList());
+        List<Room> availableStatusRooms = roomRepository.findByStatusInWithRoomType(
+                List.of(RoomStatus.READY, RoomStatus.CLEANING));
         logger.debug("Found {} room(s) with READY or CLEANING status", availableStatusRooms.size());
         
-        // Find all rooms that have conflicting reservations for the given date range
-        Set<Long> occupiedRoomIds = availableStatusRooms.stream()
-                .filter(room -> {
-                    List<Reservation> conflictingReservations = reservationRepository.findConflictingReservations(
-                            room.getId(), checkInDate, checkOutDate);
-                    return !conflictingReservations.isEmpty();
-                })
+        // Find all rooms that have conflicting reservations for the given date range.
+        // The occupancy index answers this from memory; empty ranges and ranges older than
+        // the index keep the original overlap semantics by asking the database in one query.
+        List<Long> roomIds = availableStatusRooms.stream()
                 .map(Room::getId)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
+        Set<Long> occupiedRoomIds;
+        if (checkInDate.isBefore(checkOutDate) && occupancyIndex.covers(checkInDate)) {
+            occupiedRoomIds = occupancyIndex.findOccupiedRoomIds(roomIds, checkInDate, checkOutDate);
+        } else if (roomIds.isEmpty()) {
+            occupiedRoomIds = Set.of();
+        } else {
+            occupiedRoomIds = new HashSet<>(reservationRepository.findOccupiedRoomIds(roomIds, checkInDate, checkOutDate));
+        }
         
         logger.debug("Found {} room(s) with conflicting reservations", occupiedRoomIds.size());
         
@@ -257,6 +302,98 @@ public class RoomService {
         return availableRooms;
     }
 
+    /**
+     * Validates a calendar window and returns its number of nights.
+     */
+    public int getAvailabilityCalendarNights(LocalDate from, LocalDate to) {
+        ValidationUtil.validateDateRange(from, to, "from", "to");
+        long nights = ChronoUnit.DAYS.between(from, to);
+        if (nights > Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR) {
+            logger.warn("Invalid calendar range: {} night(s) requested, maximum is {}", 
+                    nights, Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR);
+            throw new ValidationException("to", String.format("Calendar range cannot exceed %d nights", 
+                    Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR));
+        }
+        return (int) nights;
+    }
+
+    /**
+     * Hands each room's calendar row to {@code consumer} in room number order, as soon as it
+     * is encoded. Rooms and the stays overlapping the window are read in the same order and
+     * merged in one pass, so only the current room's nights are held in memory. The consumer
+     * runs within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamAvailabilityCalendar(LocalDate from, LocalDate to,
+                                           Consumer<RoomAvailabilityCalendarDTO.RoomOccupancyDTO> consumer) {
+        int nights = getAvailabilityCalendarNights(from, to);
+        logger.debug("Streaming availability calendar from {} to {}", from, to);
+        
+        long fromDay = from.toEpochDay();
+        long roomCount = 0;
+        long bookedRoomCount = 0;
+        try (Stream<Room> rooms = roomRepository.streamAllOrderByRoomNumber();
+             Stream<Object[]> stays = reservationRepository.streamActiveStaysOverlapping(from, to)) {
+            Iterator<Object[]> stayIterator = stays.iterator();
+            Object[] stay = stayIterator.hasNext() ? stayIterator.next() : null;
+            BitSet booked = new BitSet(nights);
+            for (Iterator<Room> roomIterator = rooms.iterator(); roomIterator.hasNext(); ) {
+                Room room = roomIterator.next();
+                // Stays come grouped by room in the same order, so this room's stays are next
+                booked.clear();
+                while (stay != null && room.getId().equals(stay[0])) {
+                    int start = (int) Math.max(0, ((LocalDate) stay[1]).toEpochDay() - fromDay);
+                    int end = (int) Math.min(nights, ((LocalDate) stay[2]).toEpochDay() - fromDay);
+                    booked.set(start, end);
+                    stay = stayIterator.hasNext() ? stayIterator.next() : null;
+                }
+                if (!booked.isEmpty()) {
+                    bookedRoomCount++;
+                }
+                consumer.accept(new RoomAvailabilityCalendarDTO.RoomOccupancyDTO(
+                        room.getId(),
+                        room.getRoomNumber(),
+                        room.getRoomType() != null ? room.getRoomType().getId() : null,
+                        room.getStatus(),
+                        encodeOccupancy(booked, nights)));
+                if (++roomCount % Constants.STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        
+        logger.info("Streamed availability calendar for {} room(s) over {} night(s), {} room(s) with bookings", 
+                roomCount, nights, bookedRoomCount);
+    }
+
+    /**
+     * Run-length encodes booked nights as alternating runs of free ({@code F}) and
+     * occupied ({@code O}) nights, e.g. {@code "3F2O5F"}.
+     */
+    private static String encodeOccupancy(BitSet booked, int nights) {
+        if (booked == null || booked.isEmpty()) {
+            return nights + "F";
+        }
+        StringBuilder encoded = new StringBuilder();
+        int position = 0;
+        while (position < nights) {
+            int occupiedStart = booked.nextSetBit(position);
+            if (occupiedStart < 0 || occupiedStart >= nights) {
+                occupiedStart = nights;
+            }
+            if (occupiedStart > position) {
+                encoded.append(occupiedStart - position).append('F');
+            }
+            if (occupiedStart == nights) {
+                break;
+            }
+            int occupiedEnd = Math.min(booked.nextClearBit(occupiedStart), nights);
+            encoded.append(occupiedEnd - occupiedStart).append('O');
+            position = occupiedEnd;
+        }
+        return encoded.toString();
+    }
+
     @Transactional(readOnly = true)
     public List<RoomDTO> getRoomsByType(Long roomTypeId) {
         logger.debug("Fetching rooms for room type ID: {}", roomTypeId);
@@ -280,10 +417,14 @@ public class RoomService {
                     return new RuntimeException("Room not found with id: " + id);
                 });
         
-        // Audit log before deletion
-        auditService.logDelete("Room", id, room);
+        // Reservations are removed with the room, so return their nights to inventory
+        room.getReservations().stream()
+                .filter(reservation -> RoomOccupancyIndex.isOccupying(reservation.getStatus()))
+                .forEach(reservation -> inventoryService.releaseStay(room.getRoomType().getId(),
+                        reservation.getCheckInDate(), reservation.getCheckOutDate()));
         
         roomRepository.deleteById(id);
+        occupancyIndex.removeRoom(id);
         logger.info("Successfully deleted room with ID: {}", id);
     }
 }
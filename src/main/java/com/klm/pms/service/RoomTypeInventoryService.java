@@ -0,0 +1,217 @@
+package com.klm.pms.service;
+
+import com.klm.pms.dto.RoomTypeInventoryDTO;
+import com.klm.pms.exception.EntityNotFoundException;
+import com.klm.pms.exception.ValidationException;
+import com.klm.pms.model.Room.RoomStatus;
+import com.klm.pms.model.RoomTypeInventory;
+import com.klm.pms.repository.RoomRepository;
+import com.klm.pms.repository.RoomTypeInventoryRepository;
+import com.klm.pms.repository.RoomTypeRepository;
+import com.klm.pms.util.Constants;
+import com.klm.pms.util.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code room_type_inventory} rollup: sold and out-of-order room counts
+ * per room type and night.
+ * <p>
+ * Sold counts are adjusted in the same transaction as the reservation change that
+ * causes them. Out-of-order counts, and any drift in sold counts (for example after a
+ * room is moved to another room type), are corrected by {@link #reconcile(LocalDate, LocalDate)},
+ * which runs nightly over the next {@value Constants#INVENTORY_RECONCILE_HORIZON_DAYS} nights.
+ * <p>
+ * Adjustments add to the stored counts while reconciliation overwrites them, so the two
+ * must not overlap. Adjustments hold the {@link Constants#INVENTORY_LOCK_KEY} advisory lock
+ * shared until their transaction ends, and reconciliation holds it exclusively, so it
+ * waits for bookings in flight and sees them committed, and later bookings add to the
+ * corrected counts.
+ */
+@Service
+@Transactional
+public class RoomTypeInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomTypeInventoryService.class);
+
+    @Autowired
+    private RoomTypeInventoryRepository inventoryRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    /**
+     * Counts the nights {@code [checkInDate, checkOutDate)} as sold for the room type.
+     */
+    public void recordStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
+        adjust(roomTypeId, checkInDate, checkOutDate, 1);
+    }
+
+    /**
+     * Counts the nights {@code [checkInDate, checkOutDate)} as sold {@code rooms} times for
+     * the room type, for group bookings of several rooms with the same dates.
+     */
+    public void recordStays(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate, int rooms) {
+        adjust(roomTypeId, checkInDate, checkOutDate, rooms);
+    }
+
+    /**
+     * Returns the nights {@code [checkInDate, checkOutDate)} of the room type to inventory.
+     */
+    public void releaseStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
+        adjust(roomTypeId, checkInDate, checkOutDate, -1);
+    }
+
+    private void adjust(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate, int delta) {
+        if (roomTypeId == null || !checkInDate.isBefore(checkOutDate)) {
+            return;
+        }
+        inventoryRepository.lockShared(Constants.INVENTORY_LOCK_KEY);
+        int rows = inventoryRepository.adjustSold(roomTypeId, checkInDate, checkOutDate, delta);
+        logger.debug("Adjusted sold count by {} for room type ID {} on {} night(s) from {}",
+                delta, roomTypeId, rows, checkInDate);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RoomTypeInventoryDTO> getInventory(Long roomTypeId, LocalDate from, LocalDate to) {
+        logger.debug("Fetching inventory for room type ID: {} from {} to {}", roomTypeId, from, to);
+        ValidationUtil.requireNonNull(roomTypeId, "roomTypeId");
+        validateRange(from, to);
+
+        if (!roomTypeRepository.existsById(roomTypeId)) {
+            logger.error("Room type not found with ID: {}", roomTypeId);
+            throw new EntityNotFoundException(Constants.AUDIT_ENTITY_ROOM_TYPE, roomTypeId);
+        }
+
+        int totalRooms = (int) roomRepository.countByRoomTypeId(roomTypeId);
+        Map<LocalDate, RoomTypeInventory> rows = inventoryRepository
+                .findByRoomTypeIdAndStayDateGreaterThanEqualAndStayDateLessThanOrderByStayDate(roomTypeId, from, to)
+                .stream()
+                .collect(Collectors.toMap(RoomTypeInventory::getStayDate, Function.identity()));
+
+        List<RoomTypeInventoryDTO> inventory = new ArrayList<>();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            RoomTypeInventory row = rows.get(night);
+            inventory.add(new RoomTypeInventoryDTO(roomTypeId, night, totalRooms,
+                    row != null ? row.getSold() : 0,
+                    row != null ? row.getOutOfOrder() : 0));
+        }
+        logger.info("Retrieved inventory for room type ID: {} over {} night(s)", roomTypeId, inventory.size());
+        return inventory;
+    }
+
+    @Scheduled(cron = "${inventory.reconcile.cron:0 15 3 * * *}")
+    public void reconcileUpcomingNights() {
+        LocalDate today = LocalDate.now();
+        reconcile(today, today.plusDays(Constants.INVENTORY_RECONCILE_HORIZON_DAYS));
+    }
+
+    /**
+     * Recomputes the rollup for {@code [from, to)} from the reservations and rooms tables
+     * and corrects every row that disagrees. Out-of-order counts are only rewritten for
+     * tonight and later; past nights keep the value recorded at the time.
+     *
+     * @return the number of rows that were corrected
+     */
+    public int reconcile(LocalDate from, LocalDate to) {
+        logger.info("Reconciling room type inventory from {} to {}", from, to);
+        validateRange(from, to);
+        // Waits for sold adjustments in flight; the counts below include them
+        inventoryRepository.lockExclusive(Constants.INVENTORY_LOCK_KEY);
+
+        Map<InventoryKey, Integer> expectedSold = new HashMap<>();
+        for (Object[] row : inventoryRepository.computeSoldNights(from, to)) {
+            expectedSold.put(new InventoryKey(((Number) row[0]).longValue(), toLocalDate(row[1])),
+                    ((Number) row[2]).intValue());
+        }
+
+        Map<Long, Integer> outOfOrderByType = new HashMap<>();
+        for (Object[] row : roomRepository.countByRoomTypeWithStatus(RoomStatus.MAINTENANCE)) {
+            outOfOrderByType.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Map<InventoryKey, RoomTypeInventory> stored = inventoryRepository
+                .findByStayDateGreaterThanEqualAndStayDateLessThan(from, to)
+                .stream()
+                .collect(Collectors.toMap(row -> new InventoryKey(row.getRoomTypeId(), row.getStayDate()),
+                        Function.identity()));
+
+        // Every night that is stored, sold, or has rooms out of order needs checking
+        Map<InventoryKey, RoomTypeInventory> toCheck = new HashMap<>(stored);
+        expectedSold.keySet().forEach(key -> toCheck.putIfAbsent(key, null));
+        LocalDate firstCurrentNight = from.isAfter(LocalDate.now()) ? from : LocalDate.now();
+        outOfOrderByType.keySet().forEach(roomTypeId -> {
+            for (LocalDate night = firstCurrentNight; night.isBefore(to); night = night.plusDays(1)) {
+                toCheck.putIfAbsent(new InventoryKey(roomTypeId, night), null);
+            }
+        });
+
+        List<RoomTypeInventory> corrections = new ArrayList<>();
+        toCheck.forEach((key, row) -> {
+            int sold = expectedSold.getOrDefault(key, 0);
+            int outOfOrder = key.stayDate().isBefore(firstCurrentNight)
+                    ? (row != null ? row.getOutOfOrder() : 0)
+                    : outOfOrderByType.getOrDefault(key.roomTypeId(), 0);
+            if (row == null) {
+                row = new RoomTypeInventory();
+                row.setRoomTypeId(key.roomTypeId());
+                row.setStayDate(key.stayDate());
+            } else if (row.getSold() == sold && row.getOutOfOrder() == outOfOrder) {
+                return;
+            } else {
+                logger.warn("Inventory drift for room type ID {} on {}: stored sold={} outOfOrder={}, expected sold={} outOfOrder={}",
+                        key.roomTypeId(), key.stayDate(), row.getSold(), row.getOutOfOrder(), sold, outOfOrder);
+            }
+            row.setSold(sold);
+            row.setOutOfOrder(outOfOrder);
+            corrections.add(row);
+        });
+        inventoryRepository.saveAll(corrections);
+
+        logger.info("Reconciled room type inventory from {} to {}: checked {} row(s), corrected {}",
+                from, to, toCheck.size(), corrections.size());
+        return corrections.size();
+    }
+
+    /**
+     * Drops the rollup rows of a room type that is being deleted.
+     */
+    public void deleteInventory(Long roomTypeId) {
+        int deleted = inventoryRepository.deleteByRoomTypeId(roomTypeId);
+        logger.debug("Deleted {} inventory row(s) for room type ID: {}", deleted, roomTypeId);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        ValidationUtil.validateDateRange(from, to, "from", "to");
+        long nights = ChronoUnit.DAYS.between(from, to);
+        if (nights > Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR) {
+            logger.warn("Invalid inventory range: {} night(s) requested, maximum is {}",
+                    nights, Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR);
+            throw new ValidationException("to", String.format("Inventory range cannot exceed %d nights",
+                    Constants.MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR));
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private record InventoryKey(Long roomTypeId, LocalDate stayDate) {
+    }
+}
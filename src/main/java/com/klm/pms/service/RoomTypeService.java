@@ -26,7 +26,10 @@ public class RoomTypeService {
     private RoomTypeMapper roomTypeMapper;
 
     @Autowired
-    private AuditService auditService;
+    private RoomTypeInventoryService inventoryService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
     public RoomTypeDTO createRoomType(RoomTypeDTO roomTypeDTO) {
         logger.info("Creating new room type with name: {}", roomTypeDTO.getName());
@@ -41,9 +44,6 @@ public class RoomTypeService {
         RoomType savedRoomType = roomTypeRepository.save(roomType);
         logger.info("Successfully created room type with ID: {} and name: {}", savedRoomType.getId(), savedRoomType.getName());
         
-        // Audit log
-        auditService.logCreate("RoomType", savedRoomType.getId(), savedRoomType);
-        
         return roomTypeMapper.toDTO(savedRoomType);
     }
 
@@ -56,22 +56,6 @@ public class RoomTypeService {
                     return new RuntimeException("Room type not found with id: " + id);
                 });
         
-        // Store old state for audit
-        RoomType oldRoomType = new RoomType();
-        oldRoomType.setId(existingRoomType.getId());
-        oldRoomType.setName(existingRoomType.getName());
-        oldRoomType.setDescription(existingRoomType.getDescription());
-        oldRoomType.setBasePricePerNight(existingRoomType.getBasePricePerNight());
-        oldRoomType.setMaxOccupancy(existingRoomType.getMaxOccupancy());
-        oldRoomType.setAmenities(existingRoomType.getAmenities());
-        oldRoomType.setDefaultRoomSize(existingRoomType.getDefaultRoomSize());
-        oldRoomType.setHasBalcony(existingRoomType.getHasBalcony());
-        oldRoomType.setHasView(existingRoomType.getHasView());
-        oldRoomType.setHasMinibar(existingRoomType.getHasMinibar());
-        oldRoomType.setHasSafe(existingRoomType.getHasSafe());
-        oldRoomType.setHasAirConditioning(existingRoomType.getHasAirConditioning());
-        oldRoomType.setBedType(existingRoomType.getBedType());
-        
         // Check name uniqueness if it's being changed
         if (!roomTypeDTO.getName().equals(existingRoomType.getName()) && 
             roomTypeRepository.existsByName(roomTypeDTO.getName())) {
@@ -95,9 +79,6 @@ public class RoomTypeService {
         RoomType updatedRoomType = roomTypeRepository.save(existingRoomType);
         logger.info("Successfully updated room type with ID: {}", id);
         
-        // Audit log
-        auditService.logUpdate("RoomType", id, oldRoomType, updatedRoomType);
-        
         return roomTypeMapper.toDTO(updatedRoomType);
     }
 
@@ -135,6 +116,15 @@ public class RoomTypeService {
         return roomTypes;
     }
 
+    /**
+     * The JSON of {@link #getAllRoomTypes()}, serialized once per version of the room types.
+     * The version and, when it changed, the room types are read in one read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getAllRoomTypesJson() {
+        return referenceDataCache.json(ReferenceDataCache.Resource.ROOM_TYPES, this::getAllRoomTypes);
+    }
+
     public void deleteRoomType(Long id) {
         logger.info("Deleting room type with ID: {}", id);
         RoomType roomType = roomTypeRepository.findById(id)
@@ -150,9 +140,7 @@ public class RoomTypeService {
                     roomType.getRooms().size() + " room(s) using this room type");
         }
         
-        // Audit log before deletion
-        auditService.logDelete("RoomType", id, roomType);
-        
+        inventoryService.deleteInventory(id);
         roomTypeRepository.deleteById(id);
         logger.info("Successfully deleted room type with ID: {}", id);
     }
@@ -0,0 +1,79 @@
+package com.klm.pms.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free reference number generator combining time, node and sequence.
+ * <p>
+ * Each number packs a 63-bit value: 41 bits of milliseconds since 2024-01-01 UTC
+ * (enough for 69 years), a 10-bit node id taken from {@code reference-number.node-id}
+ * and a 12-bit sequence within the millisecond. The value is written as 13 Crockford
+ * base32 characters after the prefix, e.g. {@code RES01JB7Q2K4M0A3}: no ambiguous
+ * letters (I, L, O, U), fixed width, and sorted by creation time.
+ * <p>
+ * Time and sequence share one {@link AtomicLong} updated by compare-and-set, so callers
+ * never block. When the 4096 numbers of a millisecond are used up, the sequence carries
+ * into the timestamp and numbers are briefly issued ahead of the clock; if the clock
+ * moves backwards, the last issued value keeps counting. Either way numbers stay unique
+ * and increasing. Instances sharing a database must be given different node ids.
+ */
+@Component
+public class TimeBasedReferenceNumberGenerator implements ReferenceNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeBasedReferenceNumberGenerator.class);
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+
+    // Milliseconds since EPOCH_MILLIS shifted left by SEQUENCE_BITS, plus the sequence
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    public TimeBasedReferenceNumberGenerator(@Value("${reference-number.node-id:0}") int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "reference-number.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        logger.info("Reference number generator initialized with node id {}", nodeId);
+    }
+
+    @Override
+    public String next(String prefix) {
+        long timeAndSequence = nextTimeAndSequence();
+        long millis = timeAndSequence >>> SEQUENCE_BITS;
+        long value = (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (timeAndSequence & SEQUENCE_MASK);
+
+        char[] chars = new char[prefix.length() + ENCODED_LENGTH];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = chars.length - 1; i >= prefix.length(); i--) {
+            chars[i] = CROCKFORD_BASE32[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private long nextTimeAndSequence() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastTimeAndSequence.get();
+            long next = now > last ? now : last + 1;
+            if (lastTimeAndSequence.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -23,9 +23,26 @@ public final class Constants {
     public static final int MIN_PAGE_SIZE = 1;
     public static final int MAX_PAGE_SIZE = 100;
 
+    // Streaming list constants
+    public static final String STREAM_FETCH_SIZE = "500"; // JDBC fetch size hint of stream queries
+    public static final int STREAM_CLEAR_INTERVAL = 500; // Rows between persistence context clears
+    public static final long STREAM_REQUEST_TIMEOUT_MS = 30 * 60 * 1000L; // Async timeout of export responses
+
+    // Second-level cache regions (see SecondLevelCache)
+    public static final String CACHE_REGION_ROOM = "room";
+    public static final String CACHE_REGION_ROOM_NATURAL_ID = "room.naturalId"; // Room number to id
+    public static final String CACHE_REGION_ROOM_TYPE = "roomType";
+    public static final String CACHE_REGION_RATE_TYPE = "rateType";
+    public static final String CACHE_REGION_RATE_TYPE_NATURAL_ID = "rateType.naturalId"; // Rate type name to id
+    public static final String CACHE_REGION_RATE = "rateTypeRoomTypeRate";
+
     // Date and time constants
     public static final int MIN_NIGHTS_FOR_RESERVATION = 1;
     public static final int MAX_NIGHTS_FOR_RESERVATION = 365; // 1 year maximum
+    public static final int MAX_NIGHTS_FOR_AVAILABILITY_CALENDAR = 365;
+    public static final int MAX_RESERVATIONS_PER_BATCH = 100;
+    public static final int INVENTORY_RECONCILE_HORIZON_DAYS = 365;
+    public static final long INVENTORY_LOCK_KEY = 0x706D73_494E56L; // PostgreSQL advisory lock guarding sold counts
 
     // String length limits
     public static final int MAX_EMAIL_LENGTH = 255;
@@ -35,6 +52,10 @@ public final class Constants {
     public static final int MAX_ROOM_NUMBER_LENGTH = 20;
     public static final int MAX_RESERVATION_NUMBER_LENGTH = 50;
 
+    // Reference number prefixes
+    public static final String RESERVATION_NUMBER_PREFIX = "RES";
+    public static final String INVOICE_NUMBER_PREFIX = "INV";
+
     // Room capacity limits
     public static final int MIN_ROOM_CAPACITY = 1;
     public static final int MAX_ROOM_CAPACITY = 20;
@@ -47,12 +68,14 @@ public final class Constants {
     public static final String AUDIT_ENTITY_INVOICE = "Invoice";
     public static final String AUDIT_ENTITY_ROOM_TYPE = "RoomType";
     public static final String AUDIT_ENTITY_RATE_TYPE = "RateType";
+    public static final String AUDIT_ENTITY_GUEST_MERGE_PROPOSAL = "GuestMergeProposal";
 
     // JWT and security constants
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String USERNAME_ATTRIBUTE = "username";
     public static final String ROLES_ATTRIBUTE = "roles";
+    public static final String ROLE_MASK_ATTRIBUTE = "roleMask";
 
     // Error messages
     public static final String ERROR_ENTITY_NOT_FOUND = "%s not found with identifier: %s";
@@ -62,5 +85,6 @@ public final class Constants {
     public static final String ERROR_ROOM_NOT_AVAILABLE = "Room is not available for the selected dates";
     public static final String ERROR_EXCEEDS_CAPACITY = "Number of guests exceeds room capacity";
     public static final String ERROR_INVALID_STATUS_TRANSITION = "Invalid status transition: %s -> %s";
+    public static final String ERROR_BATCH_ITEM = "Reservation %d of the batch: %s";
 }
 
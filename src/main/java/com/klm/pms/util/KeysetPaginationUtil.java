@@ -0,0 +1,84 @@
+package com.klm.pms.util;
+
+import com.klm.pms.dto.CursorPageResponse;
+import com.klm.pms.repository.specification.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for keyset (cursor) pagination of filtered list endpoints.
+ * <p>
+ * Instead of skipping {@code page * size} rows, each page seeks past the last row of the
+ * previous one (see {@link KeysetCursor}), so deep pages cost the same as the first. No
+ * count query is run; one extra row is read to tell whether there is a next page.
+ */
+public class KeysetPaginationUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeysetPaginationUtil.class);
+
+    private KeysetPaginationUtil() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Reads one page of rows matching {@code filters}.
+     *
+     * @param repository the repository to read from
+     * @param entityType the entity class, used to check the sort field
+     * @param filters    the filter specification of the endpoint
+     * @param cursor     the {@code nextCursor} of the previous page, or null for the first page
+     * @param limit      the page size, normalized like a page size
+     * @param sort       the sort of the first page; later pages keep the sort of their cursor
+     * @param toDTO      maps a row to its DTO
+     */
+    public static <E, D> CursorPageResponse<D> fetch(JpaSpecificationExecutor<E> repository, Class<E> entityType,
+                                                     Specification<E> filters, String cursor, Integer limit,
+                                                     Sort.Order sort, Function<E, D> toDTO) {
+        return fetch(repository, entityType, filters, cursor, limit, sort, List.of(), toDTO);
+    }
+
+    /**
+     * Reads one page of rows matching {@code filters}, fetching the associations at
+     * {@code fetchPaths} in the same query.
+     */
+    public static <E, D> CursorPageResponse<D> fetch(JpaSpecificationExecutor<E> repository, Class<E> entityType,
+                                                     Specification<E> filters, String cursor, Integer limit,
+                                                     Sort.Order sort, Collection<String> fetchPaths,
+                                                     Function<E, D> toDTO) {
+        int normalizedLimit = ValidationUtil.validateAndNormalizePagination(null, limit)[1];
+
+        String sortBy = sort.getProperty();
+        Sort.Direction direction = sort.getDirection();
+        Specification<E> spec = filters;
+        if (cursor != null && !cursor.isEmpty()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            position.requireValidFor(entityType);
+            sortBy = position.getSortBy();
+            direction = position.getDirection();
+            spec = spec.and(position.after());
+        } else {
+            KeysetCursor.requireSortable(entityType, sortBy);
+        }
+
+        Sort keysetSort = KeysetCursor.sort(sortBy, direction);
+        List<E> rows = repository.findBy(spec, query -> query.sortBy(keysetSort).limit(normalizedLimit + 1)
+                .project(fetchPaths).all());
+
+        String nextCursor = null;
+        if (rows.size() > normalizedLimit) {
+            rows = rows.subList(0, normalizedLimit);
+            nextCursor = KeysetCursor.after(rows.get(normalizedLimit - 1), sortBy, direction).encode();
+        }
+        logger.debug("Read {} {} row(s) by cursor sorted by {} {}, has next: {}",
+                rows.size(), entityType.getSimpleName(), sortBy, direction, nextCursor != null);
+        return new CursorPageResponse<>(rows.stream().map(toDTO).toList(), normalizedLimit, nextCursor);
+    }
+}
@@ -0,0 +1,100 @@
+package com.klm.pms.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for the export endpoints, which return every row of a table.
+ * <p>
+ * Rows are read from a repository {@link Stream} backed by a JDBC cursor, mapped one at a
+ * time and written straight to the response as elements of a JSON array. The persistence
+ * context is cleared every {@link Constants#STREAM_CLEAR_INTERVAL} rows, so neither the
+ * entities nor their DTOs accumulate and memory stays flat whatever the row count.
+ */
+public class StreamingUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingUtil.class);
+
+    private StreamingUtil() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Maps each row of {@code rows} and hands it to {@code sink}, clearing the persistence
+     * context periodically. Must run in the transaction that opened the stream.
+     *
+     * @return the number of rows read
+     */
+    public static <E, D> long forEach(Stream<E> rows, EntityManager entityManager, Function<E, D> toDTO,
+                                      Consumer<D> sink) {
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            sink.accept(toDTO.apply(iterator.next()));
+            if (++count % Constants.STREAM_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A JSON array response of the elements that {@code producer} hands to its consumer.
+     * Its async request timeout is raised to {@link Constants#STREAM_REQUEST_TIMEOUT_MS},
+     * so large tables can finish; other async responses keep the default timeout.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> jsonArrayResponse(HttpServletRequest request,
+                                                                              ObjectMapper objectMapper,
+                                                                              Consumer<Consumer<T>> producer) {
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(Constants.STREAM_REQUEST_TIMEOUT_MS);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(jsonArray(objectMapper, producer));
+    }
+
+    /**
+     * A response body writing the elements that {@code producer} hands to its consumer as a
+     * JSON array, serialized like any other response of the application.
+     */
+    public static <T> StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        // Let the generator fill its buffer instead of flushing the response after every element
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                producer.accept(element -> {
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; the response is already committed
+                logger.warn("Streaming response aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+}
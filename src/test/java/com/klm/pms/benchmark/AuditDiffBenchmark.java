@@ -0,0 +1,143 @@
+package com.klm.pms.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.klm.pms.model.Guest;
+import com.klm.pms.model.RateType;
+import com.klm.pms.model.Reservation;
+import com.klm.pms.model.Reservation.ReservationStatus;
+import com.klm.pms.model.Room;
+import com.klm.pms.service.EntityAuditPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways of turning the state arrays of a reservation update into the audit
+ * change JSON.
+ * <p>
+ * {@code mapDiff} compares every property, collects the changed values into a map and
+ * serializes it. {@code planDiff} is {@link EntityAuditPlan#diff} given the dirty
+ * properties, as Hibernate's post-update event provides them; {@code planDiffWithoutDirty}
+ * is the same plan comparing every audited property itself.
+ * <p>
+ * Run with {@code mvn test-compile} followed by this class's {@code main} method, e.g.
+ * from the IDE. Benchmarks are not picked up by {@code mvn test}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditDiffBenchmark {
+
+    // Reservation's properties in Hibernate's (alphabetical) order, without the id
+    private static final String[] PROPERTIES = {"checkInDate", "checkOutDate", "createdAt", "depositAmount",
+            "guest", "invoice", "numberOfGuests", "paymentStatus", "rateType", "reservationNumber", "room",
+            "specialRequests", "status", "totalAmount", "updatedAt"};
+    private static final int CHECK_OUT_DATE = 1;
+    private static final int STATUS = 12;
+    private static final int TOTAL_AMOUNT = 13;
+    private static final int UPDATED_AT = 14;
+
+    private ObjectMapper objectMapper;
+    private EntityAuditPlan plan;
+    private Object[] oldState;
+    private Object[] state;
+    private int[] dirty;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        EntityAuditPlan.Builder builder = EntityAuditPlan.builder("Reservation", PROPERTIES.length);
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            switch (PROPERTIES[i]) {
+                case "guest" -> builder.reference(i, "guest", guest -> ((Guest) guest).getId());
+                case "rateType" -> builder.reference(i, "rateType", rateType -> ((RateType) rateType).getId());
+                case "room" -> builder.reference(i, "room", room -> ((Room) room).getId());
+                case "invoice" -> {
+                }
+                default -> builder.value(i, PROPERTIES[i]);
+            }
+        }
+        plan = builder.build();
+
+        Reservation reservation = BenchmarkFixtures.reservation();
+        oldState = new Object[] {reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getCreatedAt(), reservation.getDepositAmount(), reservation.getGuest(), null,
+                reservation.getNumberOfGuests(), reservation.getPaymentStatus(), reservation.getRateType(),
+                reservation.getReservationNumber(), reservation.getRoom(), reservation.getSpecialRequests(),
+                reservation.getStatus(), reservation.getTotalAmount(), reservation.getUpdatedAt()};
+        state = oldState.clone();
+        state[CHECK_OUT_DATE] = reservation.getCheckOutDate().plusDays(1);
+        state[STATUS] = ReservationStatus.CHECKED_IN;
+        state[TOTAL_AMOUNT] = reservation.getTotalAmount().add(new BigDecimal("150.00"));
+        state[UPDATED_AT] = reservation.getUpdatedAt().plusMinutes(5);
+        dirty = new int[] {CHECK_OUT_DATE, STATUS, TOTAL_AMOUNT, UPDATED_AT};
+    }
+
+    @Benchmark
+    public String mapDiff() throws JsonProcessingException {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            String name = PROPERTIES[i];
+            if (name.equals("invoice") || name.equals("createdAt") || name.equals("updatedAt")) {
+                continue;
+            }
+            Object oldValue = oldState[i];
+            Object newValue = state[i];
+            if (name.equals("guest")) {
+                oldValue = ((Guest) oldValue).getId();
+                newValue = ((Guest) newValue).getId();
+            } else if (name.equals("room")) {
+                oldValue = ((Room) oldValue).getId();
+                newValue = ((Room) newValue).getId();
+            } else if (name.equals("rateType")) {
+                oldValue = ((RateType) oldValue).getId();
+                newValue = ((RateType) newValue).getId();
+            }
+            boolean same = oldValue instanceof BigDecimal oldDecimal && newValue instanceof BigDecimal newDecimal
+                    ? oldDecimal.compareTo(newDecimal) == 0
+                    : Objects.equals(oldValue, newValue);
+            if (!same) {
+                changed.put(name, newValue);
+            }
+        }
+        return changed.isEmpty() ? null : objectMapper.writeValueAsString(changed);
+    }
+
+    @Benchmark
+    public String planDiff() {
+        return plan.diff(oldState, state, dirty, objectMapper);
+    }
+
+    @Benchmark
+    public String planDiffWithoutDirty() {
+        return plan.diff(oldState, state, null, objectMapper);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditDiffBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.klm.pms.benchmark;
+
+import com.klm.pms.model.Guest;
+import com.klm.pms.model.RateType;
+import com.klm.pms.model.Reservation;
+import com.klm.pms.model.Room;
+import com.klm.pms.model.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Detached, fully populated entities shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Reservation reservation() {
+        RoomType roomType = new RoomType();
+        roomType.setId(3L);
+        roomType.setName("DELUXE");
+        roomType.setBasePricePerNight(new BigDecimal("180.00"));
+        roomType.setMaxOccupancy(3);
+
+        Room room = new Room();
+        room.setId(42L);
+        room.setRoomNumber("412");
+        room.setRoomType(roomType);
+        room.setMaxOccupancy(3);
+        room.setFloor(4);
+        room.setHasBalcony(true);
+        room.setHasView(false);
+        room.setAmenities("WiFi,TV,Minibar");
+
+        Guest guest = new Guest();
+        guest.setId(7L);
+        guest.setFirstName("Ada");
+        guest.setLastName("Lovelace");
+        guest.setEmail("ada@example.com");
+        guest.setPhoneNumber("+441234567890");
+        guest.setCity("London");
+        guest.setCountry("UK");
+
+        RateType rateType = new RateType();
+        rateType.setId(2L);
+        rateType.setName("Standard");
+
+        Reservation reservation = new Reservation();
+        reservation.setId(1001L);
+        reservation.setReservationNumber("RES0A89H08BW0000");
+        reservation.setGuest(guest);
+        reservation.setRoom(room);
+        reservation.setRateType(rateType);
+        reservation.setCheckInDate(LocalDate.of(2026, 3, 1));
+        reservation.setCheckOutDate(LocalDate.of(2026, 3, 5));
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservation.setSpecialRequests("Late arrival, high floor");
+        reservation.setPaymentStatus("PENDING");
+        reservation.setTotalAmount(new BigDecimal("720.00"));
+        reservation.setDepositAmount(new BigDecimal("100.00"));
+        reservation.setCreatedAt(LocalDateTime.of(2026, 1, 10, 9, 30));
+        reservation.setUpdatedAt(LocalDateTime.of(2026, 1, 10, 9, 30));
+        return reservation;
+    }
+}
@@ -0,0 +1,102 @@
+package com.klm.pms.benchmark;
+
+import com.klm.pms.security.AuthorizationTable;
+import com.klm.pms.security.JwtAuthenticationInterceptor;
+import com.klm.pms.security.JwtTokenValidator;
+import com.klm.pms.util.TestJwtTokenGenerator;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of {@link JwtAuthenticationInterceptor} for a request
+ * carrying a valid bearer token.
+ * <p>
+ * {@code cachedToken} repeats a token the validator has already verified, as a client
+ * does across its requests. {@code uncachedToken} runs with the verified-token cache
+ * disabled, so every request checks the signature and parses the claims.
+ * {@code keyAndParserPerRequest} is that check with the signing key and parser built per
+ * request, as the validator did before they were built once.
+ * <p>
+ * Run with {@code mvn test-compile} followed by this class's {@code main} method, e.g.
+ * from the IDE. Benchmarks are not picked up by {@code mvn test}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final AuthorizationTable NO_ROLES = new AuthorizationTable(List.of());
+
+    private String token;
+    private JwtAuthenticationInterceptor cachingInterceptor;
+    private JwtAuthenticationInterceptor nonCachingInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        token = TestJwtTokenGenerator.generateTokenWithRoles("frontdesk", List.of("ROLE_USER", "ROLE_ADMIN"));
+        cachingInterceptor = interceptor(new JwtTokenValidator(SECRET, 10_000, NO_ROLES));
+        nonCachingInterceptor = interceptor(new JwtTokenValidator(SECRET, 0, NO_ROLES));
+
+        request = new MockHttpServletRequest("GET", "/api/reservations");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    private static JwtAuthenticationInterceptor interceptor(JwtTokenValidator validator) {
+        JwtAuthenticationInterceptor interceptor = new JwtAuthenticationInterceptor();
+        ReflectionTestUtils.setField(interceptor, "jwtTokenValidator", validator);
+        return interceptor;
+    }
+
+    @Benchmark
+    public boolean cachedToken() {
+        return cachingInterceptor.preHandle(request, response, null);
+    }
+
+    @Benchmark
+    public boolean uncachedToken() {
+        return nonCachingInterceptor.preHandle(request, response, null);
+    }
+
+    @Benchmark
+    public Claims keyAndParserPerRequest() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package com.klm.pms.benchmark;
+
+import com.klm.pms.service.TimeBasedReferenceNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link TimeBasedReferenceNumberGenerator} with eight threads
+ * sharing one generator, as concurrent bookings and invoices do.
+ * <p>
+ * Run with {@code mvn test-compile} followed by this class's {@code main} method, e.g.
+ * from the IDE. Benchmarks are not picked up by {@code mvn test}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ReferenceNumberGeneratorBenchmark {
+
+    private TimeBasedReferenceNumberGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new TimeBasedReferenceNumberGenerator(3);
+    }
+
+    @Benchmark
+    public String next() {
+        return generator.next("RES");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReferenceNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
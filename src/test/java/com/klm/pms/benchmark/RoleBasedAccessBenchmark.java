@@ -0,0 +1,98 @@
+package com.klm.pms.benchmark;
+
+import com.klm.pms.controller.AuditController;
+import com.klm.pms.security.AuthorizationTable;
+import com.klm.pms.security.RequireRole;
+import com.klm.pms.security.RoleBasedAccessInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the role check for an admin calling an {@code @RequireRole("admin")} endpoint.
+ * <p>
+ * {@code precompiledTable} is {@link RoleBasedAccessInterceptor}: one lookup in the
+ * {@link AuthorizationTable} and an AND with the role mask stored at token validation.
+ * {@code reflectPerRequest} reads the annotation and normalizes every role name per
+ * request, as the interceptor did before the table.
+ * <p>
+ * Run with {@code mvn test-compile} followed by this class's {@code main} method, e.g.
+ * from the IDE. Benchmarks are not picked up by {@code mvn test}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoleBasedAccessBenchmark {
+
+    private static final List<String> ROLES = List.of("ROLE_USER", "frontdesk", "ROLE_ADMIN");
+
+    private HandlerMethod handlerMethod;
+    private RoleBasedAccessInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handlerMethod = new HandlerMethod(new AuditController(),
+                AuditController.class.getMethod("getAuditLogById", Long.class));
+        AuthorizationTable table = new AuthorizationTable(List.of(handlerMethod));
+        interceptor = new RoleBasedAccessInterceptor();
+        ReflectionTestUtils.setField(interceptor, "authorizationTable", table);
+
+        request = new MockHttpServletRequest("GET", "/api/audit-logs/1");
+        request.setAttribute("roles", ROLES);
+        request.setAttribute("roleMask", table.roleMask(ROLES));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean precompiledTable() {
+        return interceptor.preHandle(request, response, handlerMethod);
+    }
+
+    @Benchmark
+    public boolean reflectPerRequest() {
+        Method method = handlerMethod.getMethod();
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        if (requireRole == null) {
+            requireRole = handlerMethod.getBeanType().getAnnotation(RequireRole.class);
+        }
+        return Arrays.stream(requireRole.value())
+                .anyMatch(required -> ROLES.stream()
+                        .map(RoleBasedAccessBenchmark::normalizeRole)
+                        .anyMatch(normalizeRole(required)::equals));
+    }
+
+    private static String normalizeRole(String role) {
+        String normalized = role.trim().toLowerCase();
+        return normalized.startsWith("role_") ? normalized.substring(5) : normalized;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RoleBasedAccessBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,13 +1,28 @@
 package com.klm.pms.config;
 
+import com.klm.pms.util.Constants;
 import com.klm.pms.util.TestJwtTokenGenerator;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeAll;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Base test configuration for REST Assured integration tests.
@@ -44,6 +59,10 @@ public class TestConfig {
     
     protected static RequestSpecification requestSpec;
     protected static RequestSpecification authenticatedRequestSpec;
+    protected static RequestSpecification adminRequestSpec;
+    
+    // Bound on the pages a cursor walk may take before it is considered stuck
+    private static final int MAX_CURSOR_PAGES = 200;
 
     @BeforeAll
     public static void setup() {
@@ -76,6 +95,14 @@ public class TestConfig {
                 .addHeader("Authorization", "Bearer " + testToken)
                 .build();
         
+        // Create admin request specification (JWT token with the admin role)
+        adminRequestSpec = new RequestSpecBuilder()
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .addHeader("Authorization", "Bearer " + 
+                        TestJwtTokenGenerator.generateTokenWithRoles(DEFAULT_TEST_USER, List.of("admin")))
+                .build();
+        
         logger.info("REST Assured configuration completed");
     }
     
@@ -117,5 +144,138 @@ public class TestConfig {
     protected static String getInvalidToken(String username) {
         return TestJwtTokenGenerator.generateInvalidToken(username);
     }
+    
+    /**
+     * Get the number of SQL statements the application prepared through JPA while a request ran,
+     * read from the metrics endpoint before and after.
+     * 
+     * @param request The request to measure
+     * @return The number of statements prepared meanwhile
+     */
+    protected static long statementsFor(Runnable request) {
+        long before = jpaStatementCount();
+        request.run();
+        return jpaStatementCount() - before;
+    }
+    
+    private static long jpaStatementCount() {
+        return RestAssured.given()
+                .spec(adminRequestSpec)
+                .when()
+                .get("/metrics")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("jpa.statements");
+    }
+    
+    /**
+     * Walk a list endpoint by cursor pagination until its last page, checking on the way that
+     * every page before the last is full and has a next cursor. The same query parameters are
+     * sent with every page; the cursor carries the sort of the first page.
+     * 
+     * @param spec The request specification to send
+     * @param path The list endpoint, e.g. "/rooms"
+     * @param params Query parameters sent with every page (filters, sort, fields)
+     * @param limit The page size
+     * @return The rows of every page, in order
+     */
+    protected static List<Map<String, Object>> walkCursorPages(RequestSpecification spec, String path,
+                                                               Map<String, ?> params, int limit) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String cursor = null;
+        for (int pageCount = 0; pageCount < MAX_CURSOR_PAGES; pageCount++) {
+            RequestSpecification request = RestAssured.given()
+                    .spec(spec)
+                    .queryParams(params)
+                    .queryParam("limit", limit);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            JsonPath page = request
+                    .when()
+                    .get(path)
+                    .then()
+                    .statusCode(200)
+                    .body("limit", equalTo(limit))
+                    .extract()
+                    .jsonPath();
+            List<Map<String, Object>> content = page.getList("content");
+            rows.addAll(content);
+            cursor = page.getString("nextCursor");
+            assertEquals(cursor != null, page.getBoolean("hasNext"));
+            if (cursor == null) {
+                assertTrue(content.size() <= limit);
+                return rows;
+            }
+            assertEquals(limit, content.size(), "Every page before the last should be full");
+        }
+        fail("Cursor pagination of " + path + " did not reach the last page within " + MAX_CURSOR_PAGES + " pages");
+        return rows;
+    }
+    
+    /**
+     * Get the ids of the rows a list endpoint returns by offset pagination, all on one page.
+     * 
+     * @param spec The request specification to send
+     * @param path The list endpoint, e.g. "/rooms"
+     * @param params Query parameters (filters, sort)
+     * @return The ids of the first page of the maximum size, which must hold every row
+     */
+    protected static List<Long> idsOnOnePage(RequestSpecification spec, String path, Map<String, ?> params) {
+        JsonPath page = RestAssured.given()
+                .spec(spec)
+                .queryParams(params)
+                .queryParam("size", Constants.MAX_PAGE_SIZE)
+                .when()
+                .get(path)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath();
+        assertTrue(page.getLong("totalElements") <= Constants.MAX_PAGE_SIZE, "Every row should fit on one page");
+        return page.getList("content.id", Long.class);
+    }
+    
+    /**
+     * Assert that values are in the order PostgreSQL sorts them: nulls last when ascending
+     * and first when descending.
+     * 
+     * @param values The sort field of each row, in the order returned
+     * @param ascending Whether the rows were sorted ascending
+     */
+    protected static <T extends Comparable<? super T>> void assertKeysetOrder(List<T> values, boolean ascending) {
+        Comparator<T> order = ascending ? Comparator.nullsLast(Comparator.<T>naturalOrder())
+                : Comparator.nullsFirst(Comparator.<T>reverseOrder());
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(order);
+        assertEquals(sorted, values, "Rows should be sorted " + (ascending ? "ascending" : "descending"));
+    }
+    
+    /**
+     * Get a data source for the application's database, as configured in
+     * application-test.properties, for tests that set up or check rows directly.
+     * 
+     * @return A data source opening a new connection per call
+     */
+    protected static DriverManagerDataSource databaseDataSource() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = TestConfig.class.getResourceAsStream("/application-test.properties")) {
+            properties.load(in);
+        }
+        return new DriverManagerDataSource(
+                System.getProperty("test.db.url", properties.getProperty("spring.datasource.url")),
+                properties.getProperty("spring.datasource.username"),
+                properties.getProperty("spring.datasource.password"));
+    }
+    
+    /**
+     * Open a connection to the application's database.
+     * 
+     * @return A new connection, to be closed by the caller
+     */
+    protected static Connection openDatabaseConnection() throws Exception {
+        return databaseDataSource().getConnection();
+    }
 }
-
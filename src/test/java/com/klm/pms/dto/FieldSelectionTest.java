@@ -0,0 +1,61 @@
+package com.klm.pms.dto;
+
+import com.klm.pms.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FieldSelection} parsing and expansion rules.
+ */
+public class FieldSelectionTest {
+
+    @Test
+    @DisplayName("Without parameters everything is selected")
+    public void testDefaults() {
+        FieldSelection selection = FieldSelection.parse(null, null, InvoiceDTO.class, InvoiceDTO.EXPANSIONS);
+        assertSame(FieldSelection.ALL, selection);
+        assertNull(selection.getFields());
+        assertTrue(selection.expands("reservation.room"));
+        assertTrue(selection.nested("reservation").expands("guest"));
+    }
+
+    @Test
+    @DisplayName("A nested object is expanded when it or an object beneath it is named")
+    public void testExpand() {
+        FieldSelection selection = FieldSelection.parse(null, "reservation.guest", InvoiceDTO.class, InvoiceDTO.EXPANSIONS);
+        assertTrue(selection.expands("reservation"));
+        assertFalse(selection.expands("items"));
+        assertTrue(selection.nested("reservation").expands("guest"));
+        assertFalse(selection.nested("reservation").expands("room"));
+
+        FieldSelection none = FieldSelection.parse(null, "", ReservationDTO.class, ReservationDTO.EXPANSIONS);
+        assertFalse(none.expands("guest"));
+        assertFalse(none.expands("room"));
+    }
+
+    @Test
+    @DisplayName("Nested objects left out of fields are not expanded")
+    public void testFields() {
+        FieldSelection selection = FieldSelection.parse(" id, status ,", null, ReservationDTO.class, ReservationDTO.EXPANSIONS);
+        assertEquals(Set.of("id", "status"), selection.getFields());
+        assertFalse(selection.expands("guest"));
+
+        assertTrue(FieldSelection.parse("id,guest", null, ReservationDTO.class, ReservationDTO.EXPANSIONS).expands("guest"));
+        assertFalse(FieldSelection.parse("id,guest", "room", ReservationDTO.class, ReservationDTO.EXPANSIONS).expands("guest"));
+    }
+
+    @Test
+    @DisplayName("Unknown fields and expansions are rejected")
+    public void testUnknown() {
+        ValidationException fields = assertThrows(ValidationException.class,
+                () -> FieldSelection.parse("id,EXPANSIONS", null, ReservationDTO.class, ReservationDTO.EXPANSIONS));
+        assertEquals("fields", fields.getFieldName());
+        ValidationException expand = assertThrows(ValidationException.class,
+                () -> FieldSelection.parse(null, "guest.reservations", ReservationDTO.class, ReservationDTO.EXPANSIONS));
+        assertEquals("expand", expand.getFieldName());
+    }
+}
@@ -0,0 +1,347 @@
+package com.klm.pms.integration;
+
+import com.klm.pms.config.TestConfig;
+import com.klm.pms.util.TestJwtTokenGenerator;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Audit Log API and the audit rows written for entity changes.
+ * 
+ * Prerequisites:
+ * - Application must be running on localhost:8080
+ * - Database must be accessible and configured
+ */
+@TestMethodOrder(OrderAnnotation.class)
+public class AuditControllerIntegrationTest extends TestConfig {
+
+    private static Long createdGuestId;
+    private static Long deletedGuestId;
+    private static Map<String, Object> guest;
+    private static Long streamedGuestId;
+    private static Long streamedEventId;
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/guests - Creation is audited")
+    public void testCreateAudited() throws InterruptedException {
+        long timestamp = System.currentTimeMillis();
+        guest = new HashMap<>();
+        guest.put("firstName", "Audit");
+        guest.put("lastName", "Test");
+        guest.put("email", "audit.test" + timestamp + "@example.com");
+        guest.put("phoneNumber", "+1234567890");
+        guest.put("city", "Lisbon");
+        createdGuestId = given()
+                .spec(authenticatedRequestSpec)
+                .body(guest)
+                .when()
+                .post("/guests")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+
+        JsonPath logs = awaitAuditLogs(1);
+        assertEquals("CREATE", logs.getString("[0].action"));
+        assertNull(logs.get("[0].changes"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("PUT /api/guests/{id} - Update records only the changed fields")
+    public void testUpdateAuditedWithChangedFields() throws InterruptedException {
+        assertNotNull(createdGuestId, "Guest should be created first");
+        guest.put("city", "Porto");
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(guest)
+                .when()
+                .put("/guests/{id}", createdGuestId)
+                .then()
+                .statusCode(200);
+
+        JsonPath logs = awaitAuditLogs(2);
+        List<String> actions = logs.getList("action");
+        int update = actions.indexOf("UPDATE");
+        assertTrue(update >= 0, "An UPDATE audit log should be written: " + actions);
+        assertEquals("{\"city\":\"Porto\"}", logs.getString("[" + update + "].changes"));
+        assertEquals("PUT", logs.getString("[" + update + "].requestMethod"));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("DELETE /api/guests/{id} - Deletion is audited")
+    public void testDeleteAudited() throws InterruptedException {
+        assertNotNull(createdGuestId, "Guest should be created first");
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .delete("/guests/{id}", createdGuestId)
+                .then()
+                .statusCode(204);
+
+        JsonPath logs = awaitAuditLogs(3);
+        assertTrue(logs.getList("action").contains("DELETE"), "A DELETE audit log should be written");
+        deletedGuestId = createdGuestId;
+        createdGuestId = null;
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/audit-logs/entity/{entityType}/{entityId} - Non-admin is rejected")
+    public void testGetAuditLogsByEntity_NotAdmin() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/audit-logs/entity/Guest/{id}", 1)
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/audit-logs - Filter by entity type and ID")
+    public void testGetAuditLogs_FilterByEntity() {
+        assertNotNull(deletedGuestId, "Guest should be deleted first");
+        given()
+                .spec(adminRequestSpec)
+                .queryParam("entityType", "Guest")
+                .queryParam("entityId", deletedGuestId)
+                .when()
+                .get("/audit-logs")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(3))
+                .body("content.entityId", everyItem(equalTo(deletedGuestId.intValue())))
+                .body("content[0].action", equalTo("DELETE"))
+                .body("totalElements", equalTo(3));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/audit-logs - Filter by username, action and date range")
+    public void testGetAuditLogs_FilterByUsernameActionAndDates() {
+        assertNotNull(deletedGuestId, "Guest should be deleted first");
+        LocalDateTime now = LocalDateTime.now();
+        given()
+                .spec(adminRequestSpec)
+                .queryParam("username", "test_user")
+                .queryParam("action", "UPDATE")
+                .queryParam("entityType", "Guest")
+                .queryParam("startDate", now.minusHours(1).toString())
+                .queryParam("endDate", now.plusHours(1).toString())
+                .queryParam("size", 100)
+                .when()
+                .get("/audit-logs")
+                .then()
+                .statusCode(200)
+                .body("content.action", everyItem(equalTo("UPDATE")))
+                .body("content.username", everyItem(equalTo("test_user")))
+                .body("content.entityId", hasItem(deletedGuestId.intValue()));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /api/audit-logs - Date range in the past returns nothing")
+    public void testGetAuditLogs_FilterByPastDates() {
+        assertNotNull(deletedGuestId, "Guest should be deleted first");
+        given()
+                .spec(adminRequestSpec)
+                .queryParam("entityType", "Guest")
+                .queryParam("entityId", deletedGuestId)
+                .queryParam("endDate", "2000-01-01T00:00:00")
+                .when()
+                .get("/audit-logs")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(0))
+                .body("totalElements", equalTo(0));
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /api/audit-logs/stream - Audit logs are pushed as they are written")
+    public void testStreamAuditLogs_Live() throws Exception {
+        try (Stream<String> lines = openStream(null)) {
+            Map<String, Object> streamedGuest = new HashMap<>(guest);
+            streamedGuest.put("email", "audit.stream" + System.currentTimeMillis() + "@example.com");
+            streamedGuestId = given()
+                    .spec(authenticatedRequestSpec)
+                    .body(streamedGuest)
+                    .when()
+                    .post("/guests")
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getLong("id");
+
+            JsonPath event = awaitEvent(lines, log -> "Guest".equals(log.getString("entityType"))
+                    && streamedGuestId.equals(log.getLong("entityId")));
+            assertEquals("CREATE", event.getString("action"));
+            assertEquals("test_user", event.getString("username"));
+            streamedEventId = event.getLong("id");
+        }
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("GET /api/audit-logs/stream - Reconnecting with Last-Event-ID replays missed audit logs")
+    public void testStreamAuditLogs_ResumeFromLastEventId() throws Exception {
+        assertNotNull(streamedEventId, "An audit log should be streamed first");
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .delete("/guests/{id}", streamedGuestId)
+                .then()
+                .statusCode(204);
+        createdGuestId = streamedGuestId;
+        awaitAuditLogs(2);
+        createdGuestId = null;
+
+        // The DELETE was written while no stream was open, so it can only come from the replay
+        try (Stream<String> lines = openStream(streamedEventId)) {
+            JsonPath event = awaitEvent(lines, log -> streamedGuestId.equals(log.getLong("entityId")));
+            assertEquals("DELETE", event.getString("action"));
+            assertTrue(event.getLong("id") > streamedEventId, "Replayed events should follow the last event ID");
+        }
+        streamedGuestId = null;
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("GET /api/audit-logs/stream - Non-admin is rejected")
+    public void testStreamAuditLogs_NotAdmin() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/audit-logs/stream")
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("GET /api/audit-logs - Cursor pagination walks every audit log once, newest first")
+    public void testGetAuditLogs_CursorPagination() {
+        assertNotNull(deletedGuestId, "Guest should be deleted first");
+        Map<String, Object> params = Map.of("entityType", "Guest", "entityId", deletedGuestId);
+
+        List<Map<String, Object>> logs = walkCursorPages(adminRequestSpec, "/audit-logs", params, 2);
+
+        List<Long> ids = logs.stream().map(log -> ((Number) log.get("id")).longValue()).toList();
+        assertEquals(3, ids.size(), "Create, update and delete should be walked over two pages: " + ids);
+        assertEquals(3, new HashSet<>(ids).size(), "No audit log should be returned twice: " + ids);
+        assertEquals(new HashSet<>(idsOnOnePage(adminRequestSpec, "/audit-logs", params)), new HashSet<>(ids));
+        assertEquals("DELETE", logs.get(0).get("action"));
+        assertKeysetOrder(logs.stream().map(log -> LocalDateTime.parse((String) log.get("timestamp"))).toList(), false);
+    }
+
+    /**
+     * Opens the audit log stream as an admin and returns its lines.
+     */
+    private static Stream<String> openStream(Long lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + API_BASE_PATH + "/audit-logs/stream"))
+                .header("Accept", "text/event-stream")
+                .header("Authorization", "Bearer " + TestJwtTokenGenerator.generateTokenWithRoles(DEFAULT_TEST_USER, List.of("admin")))
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", String.valueOf(lastEventId));
+        }
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request.GET().build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    /**
+     * Reads stream events until one's audit log matches, failing after 10 seconds.
+     */
+    private static JsonPath awaitEvent(Stream<String> lines, Predicate<JsonPath> matches) throws Exception {
+        Iterator<String> iterator = lines.iterator();
+        CompletableFuture<JsonPath> event = CompletableFuture.supplyAsync(() -> {
+            String id = null;
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("data:")) {
+                    JsonPath log = JsonPath.from(line.substring(5));
+                    assertEquals(id, log.getString("id"), "Event ID should be the audit log ID");
+                    if (matches.test(log)) {
+                        return log;
+                    }
+                }
+            }
+            return null;
+        });
+        JsonPath log = event.get(10, TimeUnit.SECONDS);
+        assertNotNull(log, "Stream ended before the expected audit log arrived");
+        return log;
+    }
+
+    /**
+     * Audit logs are written after commit by a background writer; poll until the guest
+     * has the expected number of them.
+     */
+    private static JsonPath awaitAuditLogs(int expected) throws InterruptedException {
+        Long guestId = createdGuestId;
+        JsonPath logs = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            logs = given()
+                    .spec(adminRequestSpec)
+                    .when()
+                    .get("/audit-logs/entity/Guest/{id}", guestId)
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .jsonPath();
+            if (logs.getList("$").size() >= expected) {
+                return logs;
+            }
+            Thread.sleep(100);
+        }
+        fail("Expected " + expected + " audit log(s) for guest " + guestId + " but found " + logs.getList("$").size());
+        return logs;
+    }
+
+    @AfterAll
+    @DisplayName("Cleanup - Delete the test guest")
+    public static void cleanupTestData() {
+        if (createdGuestId != null) {
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .delete("/guests/{id}", createdGuestId);
+        }
+        if (streamedGuestId != null) {
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .delete("/guests/{id}", streamedGuestId);
+        }
+    }
+}
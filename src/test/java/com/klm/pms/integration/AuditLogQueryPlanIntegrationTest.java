@@ -0,0 +1,113 @@
+package com.klm.pms.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression tests for the query plans of the audit log filters.
+ * <p>
+ * Each test EXPLAINs the SQL that the audit log filter generates for a common access path
+ * and checks that PostgreSQL can answer it from the matching composite index on every
+ * partition. Sequential scans are disabled for the session, because the test database is
+ * small enough that the planner would otherwise prefer them.
+ * <p>
+ * Prerequisites:
+ * - Database must be accessible as configured in application-test.properties
+ * - The application must have started once against it, so audit_logs is partitioned
+ */
+public class AuditLogQueryPlanIntegrationTest {
+
+    private static final String SELECT = "SELECT id, action, changes, description, entity_id, entity_type, " +
+            "request_method, request_path, timestamp, username FROM audit_logs a ";
+
+    private static Connection connection;
+
+    @BeforeAll
+    public static void connect() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = AuditLogQueryPlanIntegrationTest.class.getResourceAsStream("/application-test.properties")) {
+            properties.load(in);
+        }
+        connection = DriverManager.getConnection(
+                System.getProperty("test.db.url", properties.getProperty("spring.datasource.url")),
+                properties.getProperty("spring.datasource.username"),
+                properties.getProperty("spring.datasource.password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @Test
+    @DisplayName("Entity history filter uses (entity_type, entity_id, timestamp)")
+    public void testEntityFilterUsesCompositeIndex() throws Exception {
+        String plan = explain(SELECT + "WHERE a.entity_type = ? AND a.entity_id = ? ORDER BY a.timestamp DESC LIMIT 20",
+                "Guest", 1L);
+
+        assertUsesIndex(plan, "entity_type_entity_id_timestamp_idx");
+    }
+
+    @Test
+    @DisplayName("Username filter uses (username, timestamp)")
+    public void testUsernameFilterUsesCompositeIndex() throws Exception {
+        String plan = explain(SELECT + "WHERE a.username = ? ORDER BY a.timestamp DESC LIMIT 20", "test_user");
+
+        assertUsesIndex(plan, "username_timestamp_idx");
+    }
+
+    @Test
+    @DisplayName("Date filter only scans the partitions of the months in range")
+    public void testUsernameAndDateFilterPrunesPartitions() throws Exception {
+        LocalDateTime end = LocalDateTime.now();
+        String plan = explain(SELECT + "WHERE a.username = ? AND a.timestamp >= ? AND a.timestamp <= ? " +
+                        "ORDER BY a.timestamp DESC LIMIT 20",
+                "test_user", Timestamp.valueOf(end.minusDays(1)), Timestamp.valueOf(end));
+
+        // Either timestamp index may win on a small table; both avoid scanning the partition
+        assertUsesIndex(plan, "timestamp_idx");
+        assertFalse(plan.contains("audit_logs_p" + end.plusMonths(2).getYear()
+                        + String.format("_%02d", end.plusMonths(2).getMonthValue())),
+                "Partitions outside the date range should be pruned:\n" + plan);
+    }
+
+    private static String explain(String sql, Object... parameters) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static void assertUsesIndex(String plan, String indexSuffix) {
+        assertTrue(plan.matches("(?s).*(Index Scan|Index Only Scan|Bitmap Index Scan)( Backward)? (using|on) \\S*"
+                + indexSuffix + ".*"), "Expected a scan of *" + indexSuffix + ":\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), "Expected no sequential scan:\n" + plan);
+    }
+
+    @AfterAll
+    public static void disconnect() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.klm.pms.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klm.pms.config.TestConfig;
+import com.klm.pms.service.AuditPartitionService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for {@link AuditPartitionService} against PostgreSQL.
+ *
+ * The service runs in a schema of its own, so converting, detaching and dropping
+ * {@code audit_logs} there leaves the application's audit log alone.
+ *
+ * Prerequisites:
+ * - Database must be accessible and configured (see application-test.properties)
+ *
+ * Test Order:
+ * 1. Convert a plain table holding rows
+ * 2. Create partitions, including a month already in the default partition
+ * 3. Detach partitions past retention
+ * 4. Archive detached partitions, first with a failing export
+ */
+@TestMethodOrder(OrderAnnotation.class)
+public class AuditPartitionServiceIntegrationTest extends TestConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionServiceIntegrationTest.class);
+
+    private static final String SCHEMA = "audit_partition_test";
+    private static final int RETENTION_MONTHS = 24;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    // Hibernate's DDL for the AuditLog entity
+    private static final String CREATE_PLAIN_TABLE =
+            "CREATE TABLE audit_logs (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "entity_type VARCHAR(255) NOT NULL, " +
+            "entity_id BIGINT NOT NULL, " +
+            "action VARCHAR(255) NOT NULL, " +
+            "username VARCHAR(255) NOT NULL, " +
+            "timestamp TIMESTAMP(6) NOT NULL, " +
+            "changes TEXT, " +
+            "description VARCHAR(500), " +
+            "request_path VARCHAR(1000), " +
+            "request_method VARCHAR(50))";
+
+    private static final YearMonth NOW = YearMonth.now();
+    private static final YearMonth EXPIRED = NOW.minusMonths(RETENTION_MONTHS + 6);
+
+    private static JdbcTemplate jdbcTemplate;
+    private static DriverManagerDataSource dataSource;
+    private static Path archiveDirectory;
+    private static AuditPartitionService auditPartitionService;
+
+    @BeforeAll
+    public static void setupSchema() throws Exception {
+        JdbcTemplate admin = new JdbcTemplate(databaseDataSource());
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        dataSource = databaseDataSource();
+        dataSource.setSchema(SCHEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        archiveDirectory = Files.createTempDirectory("audit-archive");
+        auditPartitionService = partitionService(archiveDirectory);
+    }
+
+    private static AuditPartitionService partitionService(Path archive) {
+        AuditPartitionService service = new AuditPartitionService(
+                new DataSourceTransactionManager(dataSource), dataSource, 3, RETENTION_MONTHS, archive.toString());
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        return service;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "audit_logs" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static void insertRow(long id, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO audit_logs (id, entity_type, entity_id, action, username, timestamp, changes) " +
+                "VALUES (?, 'Guest', ?, 'UPDATE', 'test_user', ?, '{\"email\":[\"a\",\"b\"]}')", id, id * 10, timestamp);
+    }
+
+    private static long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ONLY " + table, Long.class);
+    }
+
+    private static boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    // ==================== CONVERSION ====================
+
+    @Test
+    @Order(1)
+    @DisplayName("convertToPartitioned - Rows and ids of a plain table are kept")
+    public void testConvertToPartitioned_KeepsRows() {
+        jdbcTemplate.execute(CREATE_PLAIN_TABLE);
+        insertRow(5, EXPIRED.atDay(10).atTime(8, 30));
+        insertRow(17, NOW.minusMonths(2).atDay(3).atStartOfDay());
+        insertRow(42, NOW.atDay(1).atTime(12, 0));
+        assertFalse(auditPartitionService.isPartitioned());
+
+        auditPartitionService.convertToPartitioned();
+
+        assertTrue(auditPartitionService.isPartitioned());
+        assertEquals(List.of(5L, 17L, 42L), jdbcTemplate.queryForList("SELECT id FROM audit_logs ORDER BY id", Long.class));
+        assertEquals(1, countRows(partitionName(EXPIRED)), "Oldest row should sit in its month's partition");
+        assertEquals(0, countRows("audit_logs_default"));
+
+        Long nextId = jdbcTemplate.queryForObject("INSERT INTO audit_logs (entity_type, entity_id, action, username, timestamp) " +
+                "VALUES ('Guest', 1, 'CREATE', 'test_user', LOCALTIMESTAMP) RETURNING id", Long.class);
+        assertEquals(43L, nextId, "audit_logs_id_seq should continue after the highest id");
+    }
+
+    // ==================== PARTITION CREATION ====================
+
+    @Test
+    @Order(10)
+    @DisplayName("createPartitions - Missing months are created")
+    public void testCreatePartitions() {
+        YearMonth first = NOW.plusMonths(4);
+        YearMonth last = NOW.plusMonths(5);
+
+        List<YearMonth> failed = auditPartitionService.createPartitions(first, last);
+
+        assertTrue(failed.isEmpty());
+        assertTrue(tableExists(partitionName(first)));
+        assertTrue(tableExists(partitionName(last)));
+        // Running again finds them in place
+        assertTrue(auditPartitionService.createPartitions(first, last).isEmpty());
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("createPartitions - Rows of the month already in the default partition move into it")
+    public void testCreatePartitions_MovesDefaultRows() {
+        YearMonth month = NOW.plusMonths(8);
+        insertRow(100, month.atDay(15).atTime(9, 0));
+        insertRow(101, month.plusMonths(1).atDay(2).atTime(9, 0));
+        assertEquals(2, countRows("audit_logs_default"));
+
+        List<YearMonth> failed = auditPartitionService.createPartitions(month, month);
+
+        assertTrue(failed.isEmpty(), "Partition should be created despite rows in the default partition");
+        assertEquals(1, countRows(partitionName(month)));
+        assertEquals(List.of(101L), jdbcTemplate.queryForList("SELECT id FROM ONLY audit_logs_default", Long.class),
+                "Rows of other months should stay in the default partition");
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT relispartition FROM pg_class " +
+                "WHERE relname = 'audit_logs_default' AND relnamespace = current_schema()::regnamespace", Boolean.class),
+                "Default partition should be attached again");
+        assertEquals(6L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class),
+                "No row should be lost");
+    }
+
+    // ==================== RETENTION ====================
+
+    @Test
+    @Order(20)
+    @DisplayName("detachPartitionsBefore - Partitions before the cutoff are detached")
+    public void testDetachPartitionsBefore() {
+        YearMonth cutoff = NOW.minusMonths(RETENTION_MONTHS);
+
+        List<String> detached = auditPartitionService.detachPartitionsBefore(cutoff);
+
+        List<String> expected = new ArrayList<>();
+        for (YearMonth month = EXPIRED; month.isBefore(cutoff); month = month.plusMonths(1)) {
+            expected.add(partitionName(month));
+        }
+        assertEquals(expected, detached);
+        assertTrue(tableExists(partitionName(EXPIRED)), "Detached partition should be kept until archived");
+        assertFalse(jdbcTemplate.queryForList("SELECT id FROM audit_logs", Long.class).contains(5L),
+                "Expired row should no longer be in audit_logs");
+        assertTrue(jdbcTemplate.queryForList("SELECT id FROM audit_logs", Long.class).contains(17L),
+                "Rows within retention should stay");
+    }
+
+    // ==================== ARCHIVAL ====================
+
+    @Test
+    @Order(30)
+    @DisplayName("archiveDetachedPartitions - A failed export keeps the partition")
+    public void testArchiveDetachedPartitions_FailedExportKeepsTable() throws Exception {
+        // A file where the archive directory should be makes every export fail
+        Path notADirectory = Files.createTempFile("audit-archive", ".txt");
+        try {
+            int archived = partitionService(notADirectory).archiveDetachedPartitions();
+
+            assertEquals(0, archived);
+            assertTrue(tableExists(partitionName(EXPIRED)), "Partition should be kept for the next run");
+            assertEquals(1, countRows(partitionName(EXPIRED)));
+        } finally {
+            Files.deleteIfExists(notADirectory);
+        }
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("archiveDetachedPartitions - Every row is exported and the partition dropped")
+    public void testArchiveDetachedPartitions() throws Exception {
+        insertExpiredRow(6, EXPIRED.atDay(20).atTime(23, 59, 59));
+
+        int archived = auditPartitionService.archiveDetachedPartitions();
+
+        assertEquals(6, archived, "Every detached partition should be archived");
+        assertFalse(tableExists(partitionName(EXPIRED)), "Archived partition should be dropped");
+
+        Path file = archiveDirectory.resolve(partitionName(EXPIRED) + ".ndjson.gz");
+        List<JsonNode> rows = new ArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        assertEquals(2, rows.size(), "Every row of the partition should be exported");
+        assertEquals(5, rows.get(0).get("id").asLong());
+        assertEquals(50, rows.get(0).get("entity_id").asLong());
+        assertEquals("UPDATE", rows.get(0).get("action").asText());
+        assertEquals(EXPIRED.atDay(10).atTime(8, 30).toString(), rows.get(0).get("timestamp").asText());
+        assertEquals("{\"email\":[\"a\",\"b\"]}", rows.get(0).get("changes").asText());
+        assertTrue(rows.get(0).get("description").isNull());
+        assertEquals(6, rows.get(1).get("id").asLong());
+        assertFalse(Files.exists(archiveDirectory.resolve(partitionName(EXPIRED) + ".ndjson.gz.tmp")));
+    }
+
+    private static void insertExpiredRow(long id, LocalDateTime timestamp) {
+        // Detached, the partition is a plain table that still takes rows of its month
+        jdbcTemplate.update("INSERT INTO " + partitionName(EXPIRED) + " (id, entity_type, entity_id, action, username, timestamp) " +
+                "VALUES (?, 'Guest', ?, 'DELETE', 'test_user', ?)", id, id * 10, timestamp);
+    }
+
+    @AfterAll
+    @DisplayName("Cleanup - Drop the test schema and archive files")
+    public static void cleanupTestData() throws Exception {
+        new JdbcTemplate(databaseDataSource()).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        if (archiveDirectory != null) {
+            try (Stream<Path> files = Files.walk(archiveDirectory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        logger.info("Cleanup completed - dropped schema {}", SCHEMA);
+    }
+}
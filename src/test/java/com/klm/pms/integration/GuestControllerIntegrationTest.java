@@ -3,13 +3,16 @@ package com.klm.pms.integration;
 import com.klm.pms.config.TestConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +41,7 @@ public class GuestControllerIntegrationTest extends TestConfig {
     private static Map<String, Object> testGuest1;
     private static Map<String, Object> testGuest2;
     private static Map<String, Object> testGuest3;
+    private static String uniqueSuffix;
     
     // Track all created guest IDs for cleanup
     private static final List<Long> createdGuestIds = new ArrayList<>();
@@ -49,7 +53,7 @@ public class GuestControllerIntegrationTest extends TestConfig {
     public static void setupTestData() {
         // Use unique test data with timestamp to avoid conflicts
         long timestamp = System.currentTimeMillis();
-        String uniqueSuffix = String.valueOf(timestamp).substring(7); // Last 6 digits
+        uniqueSuffix = String.valueOf(timestamp).substring(7); // Last 6 digits
         
         testGuest1 = createGuestMap("John", "Doe", "john.doe.test" + uniqueSuffix + "@example.com", 
                 "+1234567890", "123 Main St", "New York", "NY", "USA", "10001", 
@@ -390,6 +394,50 @@ public class GuestControllerIntegrationTest extends TestConfig {
         }
     }
 
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/guests?all=true - Export all guests as one array")
+    public void testExportAllGuests() {
+        Response response = given()
+                .spec(adminRequestSpec)
+                .queryParam("all", true)
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        assertInstanceOf(List.class, response.jsonPath().get("$"), "Export should not be paginated");
+        List<Long> ids = response.jsonPath().getList("id", Long.class);
+        assertFalse(ids.isEmpty(), "Should have at least some guests");
+        assertEquals(ids.stream().sorted().toList(), ids, "Guests should be exported in id order");
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/guests?all=true - Export without admin role should fail")
+    public void testExportAllGuests_NotAdmin() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("all", true)
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(401);
+
+        // Without all=true the list stays paginated
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(200)
+                .body("content", notNullValue())
+                .body("size", equalTo(10));
+    }
+
     // ==================== PAGINATION TESTS ====================
 
     @Test
@@ -567,6 +615,84 @@ public class GuestControllerIntegrationTest extends TestConfig {
         assertTrue(content.size() > 0);
     }
 
+    // ==================== CURSOR PAGINATION TESTS ====================
+
+    @Test
+    @Order(34)
+    @DisplayName("GET /api/guests - Cursor pagination walks every matching guest once, in order")
+    public void testGetAllGuests_CursorPagination() {
+        assertFalse(createdGuestIds.isEmpty(), "Test guests should be created first");
+        List<String> lastNames = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int pageCount = 0; pageCount < 10; pageCount++) {
+            RequestSpecification request = given()
+                    .spec(authenticatedRequestSpec)
+                    .queryParam("limit", 1);
+            if (cursor == null) {
+                request.queryParam("sortBy", "lastName")
+                        .queryParam("sortDir", "desc")
+                        .queryParam("email", ".test" + uniqueSuffix + "@");
+            } else {
+                // The cursor carries the sort, the filters are sent again
+                request.queryParam("cursor", cursor)
+                        .queryParam("email", ".test" + uniqueSuffix + "@");
+            }
+            Response response = request
+                    .when()
+                    .get("/guests")
+                    .then()
+                    .statusCode(200)
+                    .contentType(ContentType.JSON)
+                    .body("limit", equalTo(1))
+                    .body("$", not(hasKey("totalElements")))
+                    .extract()
+                    .response();
+
+            lastNames.addAll(response.jsonPath().getList("content.lastName", String.class));
+            ids.addAll(response.jsonPath().getList("content.id", Long.class));
+            cursor = response.jsonPath().getString("nextCursor");
+            assertEquals(cursor != null, response.jsonPath().getBoolean("hasNext"));
+            if (cursor == null) {
+                break;
+            }
+        }
+
+        assertNull(cursor, "The last page should have no next cursor");
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "No guest should be returned twice: " + ids);
+        assertTrue(ids.containsAll(createdGuestIds), "Every test guest should be returned: " + ids);
+        List<String> sorted = new ArrayList<>(lastNames);
+        sorted.sort(Comparator.reverseOrder());
+        assertEquals(sorted, lastNames, "Guests should be sorted by lastName in descending order");
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("GET /api/guests - Cursor pagination rejects a tampered cursor")
+    public void testGetAllGuests_CursorPagination_InvalidCursor() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("GET /api/guests - Cursor pagination rejects an unknown sort field")
+    public void testGetAllGuests_CursorPagination_InvalidSortField() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("limit", 5)
+                .queryParam("sortBy", "unknownField")
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(400);
+    }
+
     // ==================== FILTERING TESTS ====================
 
     @Test
@@ -770,6 +896,43 @@ public class GuestControllerIntegrationTest extends TestConfig {
         });
     }
 
+    @Test
+    @Order(51)
+    @DisplayName("GET /api/guests - Search results are ranked by similarity")
+    public void testGetAllGuests_SearchTermRanked() {
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("searchTerm", "john")
+                .queryParam("email", ".test" + uniqueSuffix + "@")
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        // "John Doe" matches the whole word, "Bob Johnson" only part of one
+        List<String> lastNames = response.jsonPath().getList("content.lastName", String.class);
+        assertEquals(List.of("Doe", "Johnson"), lastNames);
+    }
+
+    @Test
+    @Order(52)
+    @DisplayName("GET /api/guests - Search term spans first and last name")
+    public void testGetAllGuests_SearchTermFullName() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("searchTerm", "Jane Smith")
+                .queryParam("email", ".test" + uniqueSuffix + "@")
+                .when()
+                .get("/guests")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(1))
+                .body("content[0].firstName", equalTo("Jane"));
+    }
+
     // ==================== COMBINED FILTERING AND PAGINATION ====================
 
     @Test
@@ -0,0 +1,222 @@
+package com.klm.pms.integration;
+
+import com.klm.pms.config.TestConfig;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Guest Duplicates API.
+ *
+ * Prerequisites:
+ * - Application must be running on localhost:8080
+ * - Database must be accessible and configured
+ */
+@TestMethodOrder(OrderAnnotation.class)
+public class GuestDuplicateControllerIntegrationTest extends TestConfig {
+
+    private static final long timestamp = System.currentTimeMillis();
+    private static final String digits = String.format("%08d", timestamp % 100_000_000);
+
+    private static Long survivorId;
+    private static Long duplicateId;
+    private static Long rejectedSurvivorId;
+    private static Long rejectedDuplicateId;
+    private static Long mergeProposalId;
+    private static Long rejectProposalId;
+
+    @BeforeAll
+    public static void setupTestData() {
+        // Same phone number written differently, name misspelt; the survivor has no city
+        survivorId = createGuest("Margaret", "Holloway", "m.holloway" + timestamp + "@example.com",
+                "+44 77" + digits.substring(0, 2) + " " + digits.substring(2), null);
+        duplicateId = createGuest("Margret", "Holloway", "maggie" + timestamp + "@example.org",
+                "077" + digits.substring(0, 2) + "-" + digits.substring(2), "Leeds");
+        // Same mailbox with dots and a +tag, shortened first name
+        rejectedSurvivorId = createGuest("Theodore", "Blackwood", "theo.blackwood" + timestamp + "@example.com",
+                "+1 555 " + digits.substring(1), null);
+        rejectedDuplicateId = createGuest("Theo", "Blackwood", "theoblackwood" + timestamp + "+spa@example.com",
+                "+1 444 " + digits.substring(1), null);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/guests/duplicates/scan - Non-admin is rejected")
+    public void testScan_NotAdmin() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .post("/guests/duplicates/scan")
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST /api/guests/duplicates/scan - Proposes likely duplicates")
+    public void testScan() {
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/scan")
+                .then()
+                .statusCode(200)
+                .body("guestsScanned", greaterThanOrEqualTo(4))
+                .body("pairsScored", greaterThanOrEqualTo(2))
+                .body("proposals", greaterThanOrEqualTo(2));
+
+        Map<String, Object> merge = findPendingProposal(survivorId, duplicateId);
+        assertNotNull(merge, "The misspelt guest sharing a phone number should be proposed");
+        assertEquals(List.of("PHONE", "NAME"), merge.get("reasons"));
+        mergeProposalId = ((Number) merge.get("id")).longValue();
+
+        Map<String, Object> reject = findPendingProposal(rejectedSurvivorId, rejectedDuplicateId);
+        assertNotNull(reject, "The guest sharing a mailbox should be proposed");
+        assertEquals(List.of("EMAIL", "NAME"), reject.get("reasons"));
+        rejectProposalId = ((Number) reject.get("id")).longValue();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("POST /api/guests/duplicates/{id}/merge - Merges the duplicate into the survivor")
+    public void testMerge() {
+        assertNotNull(mergeProposalId, "Scan should propose the pair first");
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/{id}/merge", mergeProposalId)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(survivorId.intValue()))
+                .body("firstName", equalTo("Margaret"))
+                .body("city", equalTo("Leeds"));
+
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/guests/{id}", duplicateId)
+                .then()
+                .statusCode(404);
+        duplicateId = null;
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("POST /api/guests/duplicates/{id}/merge - Resolved proposal cannot be merged again")
+    public void testMerge_AlreadyResolved() {
+        assertNotNull(mergeProposalId, "Scan should propose the pair first");
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/{id}/merge", mergeProposalId)
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("POST /api/guests/duplicates/{id}/reject - Rejected pairs are not proposed again")
+    public void testReject() {
+        assertNotNull(rejectProposalId, "Scan should propose the pair first");
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/{id}/reject", rejectProposalId)
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("REJECTED"))
+                .body("resolvedAt", notNullValue());
+
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/scan")
+                .then()
+                .statusCode(200);
+        assertNull(findPendingProposal(rejectedSurvivorId, rejectedDuplicateId),
+                "A rejected pair should not be proposed again");
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/guests/{id}", rejectedDuplicateId)
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("POST /api/guests/duplicates/{id}/merge - Unknown proposal")
+    public void testMerge_NotFound() {
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .post("/guests/duplicates/{id}/merge", 999999999L)
+                .then()
+                .statusCode(404);
+    }
+
+    private static Long createGuest(String firstName, String lastName, String email, String phoneNumber, String city) {
+        Map<String, Object> guest = new HashMap<>();
+        guest.put("firstName", firstName);
+        guest.put("lastName", lastName);
+        guest.put("email", email);
+        guest.put("phoneNumber", phoneNumber);
+        guest.put("city", city);
+        return given()
+                .spec(authenticatedRequestSpec)
+                .body(guest)
+                .when()
+                .post("/guests")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private static Map<String, Object> findPendingProposal(Long survivorGuestId, Long duplicateGuestId) {
+        for (int page = 0; ; page++) {
+            JsonPath proposals = given()
+                    .spec(adminRequestSpec)
+                    .queryParam("page", page)
+                    .queryParam("size", 100)
+                    .when()
+                    .get("/guests/duplicates")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .jsonPath();
+            List<Map<String, Object>> content = proposals.getList("content");
+            for (Map<String, Object> proposal : content) {
+                if (survivorGuestId.equals(((Number) proposal.get("survivorGuestId")).longValue()) &&
+                    duplicateGuestId.equals(((Number) proposal.get("duplicateGuestId")).longValue())) {
+                    return proposal;
+                }
+            }
+            if (content.size() < 100) {
+                return null;
+            }
+        }
+    }
+
+    @AfterAll
+    @DisplayName("Cleanup - Delete the test guests")
+    public static void cleanupTestData() {
+        for (Long id : new Long[]{survivorId, duplicateId, rejectedSurvivorId, rejectedDuplicateId}) {
+            if (id != null) {
+                given()
+                        .spec(authenticatedRequestSpec)
+                        .when()
+                        .delete("/guests/{id}", id);
+            }
+        }
+    }
+}
@@ -16,8 +16,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
@@ -674,6 +677,76 @@ public class InvoiceControllerIntegrationTest extends TestConfig {
 
     // ==================== PAGINATION TESTS ====================
 
+    @Test
+    @Order(18)
+    @DisplayName("GET /api/invoices/{id} - fields and expand select properties and nested objects")
+    public void testGetInvoiceById_FieldsAndExpand() {
+        Assumptions.assumeTrue(createdInvoiceId != null, "Invoice should be generated first");
+        
+        Map<String, Object> invoice = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("fields", "id,invoiceNumber,reservation")
+                .queryParam("expand", "reservation.guest")
+                .when()
+                .get("/invoices/{id}", createdInvoiceId)
+                .then()
+                .statusCode(200)
+                .body("reservation.guest.id", notNullValue())
+                .extract()
+                .jsonPath()
+                .getMap("$");
+        assertEquals(Set.of("id", "invoiceNumber", "reservation"), invoice.keySet());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> reservation = (Map<String, Object>) invoice.get("reservation");
+        assertFalse(reservation.containsKey("room"), "Room was not expanded");
+        assertTrue(reservation.containsKey("roomId"), "Nested objects keep all their properties");
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("expand", "")
+                .when()
+                .get("/invoices/{id}", createdInvoiceId)
+                .then()
+                .statusCode(200)
+                .body("invoiceNumber", equalTo(createdInvoiceNumber))
+                .body("reservationId", notNullValue())
+                .body("$", not(hasKey("reservation")))
+                .body("$", not(hasKey("items")));
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("GET /api/invoices - fields applies to every invoice of a page; unknown fields are rejected")
+    public void testGetAllInvoices_Fields() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("size", 5)
+                .queryParam("fields", "id,totalAmount")
+                .when()
+                .get("/invoices")
+                .then()
+                .statusCode(200)
+                .body("content", not(empty()))
+                .body("content.findAll { it.keySet() != ['id', 'totalAmount'] as Set }", empty())
+                .body("totalElements", greaterThan(0));
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("fields", "id,guestName")
+                .when()
+                .get("/invoices")
+                .then()
+                .statusCode(400);
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("expand", "reservation.rateType")
+                .when()
+                .get("/invoices/{id}", 1)
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     @Order(20)
     @DisplayName("GET /api/invoices - Test pagination with page and size")
@@ -729,6 +802,91 @@ public class InvoiceControllerIntegrationTest extends TestConfig {
 
     // ==================== SORTING TESTS ====================
 
+    @Test
+    @Order(22)
+    @DisplayName("GET /api/invoices - Pages load items and reservations in a constant number of statements")
+    public void testGetAllInvoices_ConstantStatementsPerPage() {
+        long smallPage = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("page", 0)
+                .queryParam("size", 1)
+                .when()
+                .get("/invoices")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1)));
+        long largePage = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("page", 0)
+                .queryParam("size", 20)
+                .when()
+                .get("/invoices")
+                .then()
+                .statusCode(200)
+                .body("content.size()", greaterThanOrEqualTo(2))
+                .body("content.items.flatten().size()", greaterThanOrEqualTo(2))
+                .body("content.reservation.room.roomType", everyItem(notNullValue())));
+        
+        // The page, its count when the page is full, and the items of every invoice on it
+        assertTrue(smallPage <= 3, "Page of 1 ran " + smallPage + " statements");
+        assertTrue(largePage <= 3, "Page of 20 ran " + largePage + " statements");
+        
+        Assumptions.assumeTrue(reservationId != null, "Reservation should be created first");
+        assertEquals(2, statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/invoices/reservation/{reservationId}", reservationId)
+                .then()
+                .statusCode(200)
+                .body("reservation.guest", everyItem(notNullValue()))));
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("GET /api/invoices/{id} - Items are only loaded when expanded")
+    public void testGetInvoiceById_ItemsLoadedOnlyWhenExpanded() {
+        Assumptions.assumeTrue(createdInvoiceId != null, "Invoice should be generated first");
+        
+        long withoutItems = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("expand", "reservation")
+                .when()
+                .get("/invoices/{id}", createdInvoiceId)
+                .then()
+                .statusCode(200)
+                .body("$", not(hasKey("items"))));
+        long withItems = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("expand", "reservation,items")
+                .when()
+                .get("/invoices/{id}", createdInvoiceId)
+                .then()
+                .statusCode(200)
+                .body("items", not(empty())));
+        assertEquals(withoutItems + 1, withItems);
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("GET /api/invoices?all=true - Export all invoices as one array")
+    public void testExportAllInvoices() {
+        Response response = given()
+                .spec(adminRequestSpec)
+                .queryParam("all", true)
+                .when()
+                .get("/invoices")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        assertInstanceOf(List.class, response.jsonPath().get("$"), "Export should not be paginated");
+        List<Long> ids = response.jsonPath().getList("id", Long.class);
+        assertFalse(ids.isEmpty(), "Should have at least some invoices");
+        assertEquals(ids.stream().sorted().toList(), ids, "Invoices should be exported in id order");
+    }
+
     @Test
     @Order(30)
     @DisplayName("GET /api/invoices - Test sorting by issuedDate ascending")
@@ -1293,6 +1451,54 @@ public class InvoiceControllerIntegrationTest extends TestConfig {
         }
     }
 
+    @Test
+    @Order(66)
+    @DisplayName("GET /api/invoices - Cursor pagination on the nullable paidDate walks every invoice once, in order")
+    public void testGetAllInvoices_CursorPaginationByPaidDate() {
+        // One paid and one unpaid invoice, so that the walk crosses from dates to nulls
+        List<Long> newInvoiceIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Long invoiceId = given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .post("/invoices/generate/{reservationId}", createAdditionalReservation())
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getLong("id");
+            createdInvoiceIds.add(invoiceId);
+            newInvoiceIds.add(invoiceId);
+        }
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("paymentMethod", "CASH")
+                .when()
+                .post("/invoices/{invoiceId}/pay", newInvoiceIds.get(0))
+                .then()
+                .statusCode(200);
+
+        for (String sortDir : List.of("asc", "desc")) {
+            Map<String, Object> params = Map.of("sortBy", "paidDate", "sortDir", sortDir,
+                    "fields", "id,paidDate,reservation", "expand", "reservation");
+
+            List<Map<String, Object>> invoices = walkCursorPages(authenticatedRequestSpec, "/invoices", params, 1);
+
+            List<Long> ids = invoices.stream().map(invoice -> ((Number) invoice.get("id")).longValue()).toList();
+            assertEquals(ids.size(), new HashSet<>(ids).size(), "No invoice should be returned twice: " + ids);
+            assertEquals(new HashSet<>(idsOnOnePage(authenticatedRequestSpec, "/invoices", params)), new HashSet<>(ids),
+                    "Every invoice should be returned: " + ids);
+            assertTrue(ids.containsAll(newInvoiceIds), "The new invoices should be returned: " + ids);
+            List<LocalDateTime> paidDates = invoices.stream()
+                    .map(invoice -> invoice.get("paidDate") != null ? LocalDateTime.parse((String) invoice.get("paidDate")) : null)
+                    .toList();
+            assertTrue(paidDates.contains(null) && paidDates.stream().anyMatch(Objects::nonNull),
+                    "Both paid and unpaid invoices should be walked: " + paidDates);
+            assertKeysetOrder(paidDates, "asc".equals(sortDir));
+            invoices.forEach(invoice -> assertNotNull(invoice.get("reservation"), "Reservation should be expanded"));
+        }
+    }
+
     // ==================== PAYMENT OPERATIONS ====================
 
     @Test
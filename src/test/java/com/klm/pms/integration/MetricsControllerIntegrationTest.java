@@ -0,0 +1,117 @@
+package com.klm.pms.integration;
+
+import com.klm.pms.config.TestConfig;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Metrics API and the asynchronous audit log writer it reports on.
+ * 
+ * Prerequisites:
+ * - Application must be running on localhost:8080
+ * - Database must be accessible and configured
+ */
+@TestMethodOrder(OrderAnnotation.class)
+public class MetricsControllerIntegrationTest extends TestConfig {
+
+    private static Long createdGuestId;
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/metrics - Admin retrieves audit writer metrics")
+    public void testGetMetrics_Admin() {
+        given()
+                .spec(adminRequestSpec)
+                .when()
+                .get("/metrics")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("timestamp", notNullValue())
+                .body("auditWriter.running", equalTo(true))
+                .body("auditWriter.queueCapacity", greaterThan(0))
+                .body("auditWriter.queueDepth", greaterThanOrEqualTo(0))
+                .body("auditWriter.overflowPolicy", notNullValue())
+                .body("secondLevelCache.room.maxEntries", greaterThan(0))
+                .body("secondLevelCache.'room.naturalId'.hits", greaterThanOrEqualTo(0));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /api/metrics - Non-admin is rejected")
+    public void testGetMetrics_NotAdmin() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/metrics")
+                .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("POST /api/guests - Audit log is written asynchronously")
+    public void testAuditLogWrittenAsynchronously() throws InterruptedException {
+        long writtenBefore = given()
+                .spec(adminRequestSpec)
+                .when()
+                .get("/metrics")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("auditWriter.written");
+        
+        long timestamp = System.currentTimeMillis();
+        Map<String, Object> guest = new HashMap<>();
+        guest.put("firstName", "Metrics");
+        guest.put("lastName", "Test");
+        guest.put("email", "metrics.test" + timestamp + "@example.com");
+        guest.put("phoneNumber", "+1234567890");
+        createdGuestId = given()
+                .spec(authenticatedRequestSpec)
+                .body(guest)
+                .when()
+                .post("/guests")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+        
+        // The writer drains its queue in the background; give it a few seconds
+        long writtenAfter = writtenBefore;
+        for (int attempt = 0; attempt < 50 && writtenAfter == writtenBefore; attempt++) {
+            Thread.sleep(100);
+            writtenAfter = given()
+                    .spec(adminRequestSpec)
+                    .when()
+                    .get("/metrics")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .jsonPath()
+                    .getLong("auditWriter.written");
+        }
+        assertTrue(writtenAfter > writtenBefore, "Guest creation audit log should be written by the writer");
+    }
+
+    @AfterAll
+    @DisplayName("Cleanup - Delete the test guest")
+    public static void cleanupTestData() {
+        if (createdGuestId != null) {
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .delete("/guests/{id}", createdGuestId);
+        }
+    }
+}
@@ -391,6 +391,60 @@ public class RateTypeControllerIntegrationTest extends TestConfig {
         assertTrue(rateTypes.size() > 0, "Should have at least some rate types");
     }
 
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/rate-types - Unchanged rate types are served without querying the database")
+    public void testGetAllRateTypes_Cached() {
+        assertNotNull(createdRateTypeId, "Rate type should be created first");
+        String etag = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rate-types")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract()
+                .header("ETag");
+
+        long statements = statementsFor(() -> {
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .header("If-None-Match", etag)
+                    .when()
+                    .get("/rate-types")
+                    .then()
+                    .statusCode(304);
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .get("/rate-types")
+                    .then()
+                    .statusCode(200)
+                    .header("ETag", equalTo(etag))
+                    .body("id", hasItem(createdRateTypeId.intValue()));
+        });
+        assertEquals(0, statements, "Neither a 304 nor the cached payload should query the database");
+
+        Map<String, Object> updateData = createRateTypeMap(createdRateTypeName, "Changed for conditional GET");
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(updateData)
+                .when()
+                .put("/rate-types/{id}", createdRateTypeId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/rate-types")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("description", hasItem("Changed for conditional GET"));
+    }
+
     // ==================== UPDATE OPERATIONS ====================
 
     @Test
@@ -660,6 +714,52 @@ public class RateTypeControllerIntegrationTest extends TestConfig {
                 .statusCode(400); // Should return 400 as rate doesn't exist
     }
 
+    @Test
+    @Order(85)
+    @DisplayName("GET /api/rate-types/{rateTypeId}/room-type-rates/{roomTypeId} - Served from the rate matrix")
+    public void testGetRateForRoomType_FromRateMatrix() {
+        if (createdRateTypeId == null || roomTypeId1 == null) {
+            return; // Skip if prerequisites not met
+        }
+
+        BigDecimal newRate = new BigDecimal("182.50");
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("rate", newRate)
+                .when()
+                .put("/rate-types/{rateTypeId}/room-type-rates/{roomTypeId}", createdRateTypeId, roomTypeId1)
+                .then()
+                .statusCode(200);
+
+        long hitsBefore = rateMatrixHits();
+        String[] body = new String[1];
+        long statements = statementsFor(() -> body[0] = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rate-types/{rateTypeId}/room-type-rates/{roomTypeId}", createdRateTypeId, roomTypeId1)
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString());
+
+        assertEquals(0, newRate.compareTo(new BigDecimal(body[0])), "The updated rate should be returned at once");
+        assertEquals(0, statements, "The rate should be read from the matrix, not the database");
+        assertTrue(rateMatrixHits() > hitsBefore, "The lookup should count as a rate matrix hit");
+    }
+
+    private static long rateMatrixHits() {
+        return given()
+                .spec(adminRequestSpec)
+                .when()
+                .get("/metrics")
+                .then()
+                .statusCode(200)
+                .body("rateMatrix.loaded", equalTo(true))
+                .extract()
+                .jsonPath()
+                .getLong("rateMatrix.hits");
+    }
+
     // ==================== DELETE OPERATIONS ====================
 
     @Test
@@ -2,6 +2,7 @@ package com.klm.pms.integration;
 
 import com.klm.pms.config.TestConfig;
 import com.klm.pms.model.Room.RoomStatus;
+import com.klm.pms.util.Constants;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
@@ -10,12 +11,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
@@ -645,6 +657,50 @@ public class ReservationControllerIntegrationTest extends TestConfig {
         }
     }
 
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/reservations?all=true - Export all reservations as one array")
+    public void testExportAllReservations() {
+        Response response = given()
+                .spec(adminRequestSpec)
+                .queryParam("all", true)
+                .when()
+                .get("/reservations")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        assertInstanceOf(List.class, response.jsonPath().get("$"), "Export should not be paginated");
+        List<Long> ids = response.jsonPath().getList("id", Long.class);
+        assertFalse(ids.isEmpty(), "Should have at least some reservations");
+        assertEquals(ids.stream().sorted().toList(), ids, "Reservations should be exported in id order");
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("GET /api/reservations - Cursor pagination with fields and expand walks every reservation once, in order")
+    public void testGetAllReservations_CursorPagination() {
+        Map<String, Object> params = Map.of("sortBy", "checkInDate", "sortDir", "asc",
+                "fields", "id,checkInDate,guest", "expand", "guest");
+
+        List<Map<String, Object>> reservations = walkCursorPages(authenticatedRequestSpec, "/reservations", params, 2);
+
+        List<Long> ids = reservations.stream().map(reservation -> ((Number) reservation.get("id")).longValue()).toList();
+        assertTrue(ids.size() > 2, "Reservations should span more than one page");
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "No reservation should be returned twice: " + ids);
+        assertEquals(new HashSet<>(idsOnOnePage(authenticatedRequestSpec, "/reservations", params)), new HashSet<>(ids),
+                "Every reservation should be returned: " + ids);
+        assertKeysetOrder(reservations.stream()
+                .map(reservation -> LocalDate.parse((String) reservation.get("checkInDate")))
+                .toList(), true);
+        reservations.forEach(reservation -> {
+            assertEquals(Set.of("id", "checkInDate", "guest"), reservation.keySet());
+            assertNotNull(reservation.get("guest"), "Guest should be expanded");
+        });
+    }
+
     // ==================== PAGINATION TESTS ====================
 
     @Test
@@ -972,6 +1028,193 @@ public class ReservationControllerIntegrationTest extends TestConfig {
         assertTrue(reservations.size() >= 0, "Should return list of reservations in date range");
     }
 
+    @Test
+    @Order(53)
+    @DisplayName("GET /api/room-types/{id}/inventory - Reservation nights are counted as sold")
+    public void testRoomTypeInventory_CountsReservationNights() {
+        Long roomTypeId = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/{id}", roomId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("roomTypeId");
+        
+        // Reconcile first so the rollup matches the reservations table exactly
+        LocalDate from = LocalDate.parse((String) testReservation2.get("checkInDate"));
+        LocalDate to = LocalDate.parse((String) testReservation2.get("checkOutDate"));
+        given()
+                .spec(adminRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .post("/room-types/inventory/reconcile")
+                .then()
+                .statusCode(200);
+        
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/room-types/{id}/inventory", roomTypeId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+
+        List<Map<String, Object>> nights = response.jsonPath().getList("$");
+        assertEquals(3, nights.size());
+        nights.forEach(night -> assertTrue(((Number) night.get("sold")).intValue() >= 1,
+                "Reserved night " + night.get("stayDate") + " should be counted as sold"));
+    }
+
+    @Test
+    @Order(54)
+    @DisplayName("POST /api/room-types/inventory/reconcile - Waits for a cancellation in flight and keeps it")
+    public void testReconcileInventory_InterleavedWithCancellation() throws Exception {
+        LocalDate checkInDate = LocalDate.now().plusDays(280);
+        LocalDate checkOutDate = checkInDate.plusDays(2);
+        Long reservationId = given()
+                .spec(authenticatedRequestSpec)
+                .body(createReservationMap(guestId, roomId, rateTypeId, checkInDate, checkOutDate, 1, null, "CONFIRMED"))
+                .when()
+                .post("/reservations")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+        createdReservationIds.add(reservationId);
+        Long roomTypeId = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/{id}", roomId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("roomTypeId");
+
+        reconcileInventory(checkInDate, checkOutDate);
+        List<Integer> soldBefore = soldNights(roomTypeId, checkInDate, checkOutDate);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection connection = openDatabaseConnection()) {
+            // Drift the stored counts, so the reconcile has rows to rewrite
+            try (PreparedStatement drift = connection.prepareStatement("UPDATE room_type_inventory SET sold = sold + 5 " +
+                    "WHERE room_type_id = ? AND stay_date >= ? AND stay_date < ?")) {
+                drift.setLong(1, roomTypeId);
+                drift.setObject(2, checkInDate);
+                drift.setObject(3, checkOutDate);
+                drift.executeUpdate();
+            }
+
+            // A cancellation in flight, as the reservation service runs it: inventory lock
+            // shared, reservation changed and sold counts adjusted in one uncommitted transaction
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock_shared(?)")) {
+                lock.setLong(1, Constants.INVENTORY_LOCK_KEY);
+                lock.executeQuery().close();
+            }
+            try (PreparedStatement cancel = connection.prepareStatement(
+                    "UPDATE reservations SET status = 'CANCELLED' WHERE id = ?")) {
+                cancel.setLong(1, reservationId);
+                assertEquals(1, cancel.executeUpdate());
+            }
+            try (PreparedStatement release = connection.prepareStatement("UPDATE room_type_inventory SET sold = sold - 1 " +
+                    "WHERE room_type_id = ? AND stay_date >= ? AND stay_date < ?")) {
+                release.setLong(1, roomTypeId);
+                release.setObject(2, checkInDate);
+                release.setObject(3, checkOutDate);
+                assertEquals(2, release.executeUpdate());
+            }
+
+            Future<Integer> reconcile = executor.submit(() -> reconcileInventory(checkInDate, checkOutDate));
+            Thread.sleep(1000);
+            assertFalse(reconcile.isDone(), "Reconcile should wait for the cancellation to commit");
+
+            connection.commit();
+            assertTrue(reconcile.get(30, TimeUnit.SECONDS) >= 2, "Both drifted nights should be corrected");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> soldAfter = soldNights(roomTypeId, checkInDate, checkOutDate);
+        for (int night = 0; night < soldBefore.size(); night++) {
+            assertEquals(soldBefore.get(night) - 1, soldAfter.get(night),
+                    "The cancelled reservation should no longer be counted, and the drift should be gone");
+        }
+    }
+
+    @Test
+    @Order(55)
+    @DisplayName("GET /api/rooms/availability/calendar - Booked nights land on the reserved room")
+    public void testAvailabilityCalendar_ShowsReservation() {
+        LocalDate checkInDate = LocalDate.now().plusDays(300);
+        LocalDate checkOutDate = checkInDate.plusDays(3);
+        Long reservationId = given()
+                .spec(authenticatedRequestSpec)
+                .body(createReservationMap(guestId, roomId, rateTypeId, checkInDate, checkOutDate, 1, null, "CONFIRMED"))
+                .when()
+                .post("/reservations")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+        createdReservationIds.add(reservationId);
+
+        List<Map<String, Object>> rooms = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", checkInDate.minusDays(5).format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", checkOutDate.plusDays(7).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/rooms/availability/calendar")
+                .then()
+                .statusCode(200)
+                .body("nights", equalTo(15))
+                .extract()
+                .jsonPath()
+                .getList("rooms");
+
+        Map<String, Object> room = rooms.stream()
+                .filter(row -> roomId.equals(((Number) row.get("roomId")).longValue()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Calendar should include the reserved room"));
+        assertEquals("5F3O7F", room.get("occupancy"), "Reserved nights should be occupied");
+    }
+
+    private static int reconcileInventory(LocalDate from, LocalDate to) {
+        return given()
+                .spec(adminRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .post("/room-types/inventory/reconcile")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getInt("correctedRows");
+    }
+
+    private static List<Integer> soldNights(Long roomTypeId, LocalDate from, LocalDate to) {
+        return given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/room-types/{id}/inventory", roomTypeId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("sold", Integer.class);
+    }
+
     // ==================== CHECK-IN OPERATIONS ====================
 
     @Test
@@ -1335,6 +1578,114 @@ public class ReservationControllerIntegrationTest extends TestConfig {
                 .statusCode(400); // Cannot update checked-out reservation
     }
 
+    // ==================== BATCH OPERATIONS ====================
+
+    @Test
+    @Order(85)
+    @DisplayName("POST /api/reservations/batch - Create a group of reservations successfully")
+    public void testCreateReservationBatch_Success() {
+        // Back-to-back stays of the same room: adjacent dates do not overlap
+        LocalDate start = LocalDate.now().plusDays(5000 + ThreadLocalRandom.current().nextInt(2000));
+        List<Map<String, Object>> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            LocalDate checkInDate = start.plusDays(2L * i);
+            reservations.add(createReservationMap(guestId, roomId, rateTypeId,
+                    checkInDate, checkInDate.plusDays(2), 1, "Batch test", "PENDING"));
+        }
+        
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .body(Map.of("reservations", reservations))
+                .when()
+                .post("/reservations/batch")
+                .then()
+                .statusCode(201)
+                .contentType(ContentType.JSON)
+                .body("size()", equalTo(5))
+                .body("status", everyItem(equalTo("CONFIRMED")))
+                .body("totalAmount", everyItem(notNullValue()))
+                .extract()
+                .response();
+        
+        List<Long> ids = response.jsonPath().getList("id", Long.class);
+        createdReservationIds.addAll(ids);
+        assertEquals(5, ids.stream().distinct().count(), "Each reservation should get its own ID");
+        assertEquals(5, response.jsonPath().getList("reservationNumber").stream().distinct().count(),
+                "Each reservation should get its own reservation number");
+        
+        // The batch is visible to the single-reservation path
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(createReservationMap(guestId, roomId, rateTypeId, start, start.plusDays(1), 1, null, "PENDING"))
+                .when()
+                .post("/reservations")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(86)
+    @DisplayName("POST /api/reservations/batch - Overlapping reservations in one batch create nothing")
+    public void testCreateReservationBatch_OverlapRollsBackAll() {
+        LocalDate start = LocalDate.now().plusDays(7500 + ThreadLocalRandom.current().nextInt(2000));
+        List<Map<String, Object>> reservations = List.of(
+                createReservationMap(guestId, roomId, rateTypeId, start, start.plusDays(2), 1, null, "PENDING"),
+                createReservationMap(guestId, roomId, rateTypeId, start.plusDays(5), start.plusDays(7), 1, null, "PENDING"),
+                createReservationMap(guestId, roomId, rateTypeId, start.plusDays(1), start.plusDays(3), 1, null, "PENDING"));
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(Map.of("reservations", reservations))
+                .when()
+                .post("/reservations/batch")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("Reservation 3"));
+        
+        // Nothing from the rejected batch was kept, so its first stay can still be booked
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .body(reservations.get(0))
+                .when()
+                .post("/reservations")
+                .then()
+                .statusCode(201)
+                .extract()
+                .response();
+        createdReservationIds.add(response.jsonPath().getLong("id"));
+    }
+
+    @Test
+    @Order(87)
+    @DisplayName("POST /api/reservations/batch - Unknown room fails the whole batch")
+    public void testCreateReservationBatch_RoomNotFound() {
+        LocalDate start = LocalDate.now().plusDays(10000 + ThreadLocalRandom.current().nextInt(2000));
+        List<Map<String, Object>> reservations = List.of(
+                createReservationMap(guestId, roomId, rateTypeId, start, start.plusDays(2), 1, null, "PENDING"),
+                createReservationMap(guestId, 99999L, rateTypeId, start, start.plusDays(2), 1, null, "PENDING"));
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(Map.of("reservations", reservations))
+                .when()
+                .post("/reservations/batch")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(88)
+    @DisplayName("POST /api/reservations/batch - Empty batch is rejected")
+    public void testCreateReservationBatch_Empty() {
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(Map.of("reservations", List.of()))
+                .when()
+                .post("/reservations/batch")
+                .then()
+                .statusCode(400);
+    }
+
     // ==================== CANCEL OPERATIONS ====================
 
     @Test
@@ -1440,6 +1791,288 @@ public class ReservationControllerIntegrationTest extends TestConfig {
                 .statusCode(400); // Cannot cancel checked-out reservation
     }
 
+    // ==================== CONCURRENCY TESTS ====================
+
+    @Test
+    @Order(95)
+    @DisplayName("POST /api/reservations - Concurrent bookings of the same room and dates create exactly one reservation")
+    public void testConcurrentCreateReservation_SameRoomAndDates() throws Exception {
+        // Random far-future window so reruns against the same database do not collide
+        LocalDate checkInDate = LocalDate.now().plusDays(400 + ThreadLocalRandom.current().nextInt(2000));
+        Map<String, Object> reservation = createReservationMap(guestId, roomId, rateTypeId,
+                checkInDate, checkInDate.plusDays(3), 1, "Concurrency test", "PENDING");
+        
+        List<Response> responses = postConcurrently(Collections.nCopies(CONCURRENT_REQUESTS, reservation));
+        
+        List<Response> created = responses.stream().filter(r -> r.getStatusCode() == 201).toList();
+        created.forEach(r -> createdReservationIds.add(r.jsonPath().getLong("id")));
+        assertEquals(1, created.size(), "Exactly one concurrent booking should succeed");
+        responses.stream()
+                .filter(r -> r.getStatusCode() != 201)
+                .forEach(r -> assertEquals(400, r.getStatusCode(), "Losing bookings should be rejected as unavailable"));
+    }
+
+    @Test
+    @Order(96)
+    @DisplayName("POST /api/reservations - Concurrent bookings of disjoint dates all succeed")
+    public void testConcurrentCreateReservation_DisjointDates() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(2500 + ThreadLocalRandom.current().nextInt(2000));
+        List<Map<String, Object>> reservations = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            LocalDate checkInDate = start.plusDays(2L * i);
+            reservations.add(createReservationMap(guestId, roomId, rateTypeId,
+                    checkInDate, checkInDate.plusDays(2), 1, "Concurrency test", "PENDING"));
+        }
+        
+        List<Response> responses = postConcurrently(reservations);
+        
+        responses.stream()
+                .filter(r -> r.getStatusCode() == 201)
+                .forEach(r -> createdReservationIds.add(r.jsonPath().getLong("id")));
+        responses.forEach(r -> assertEquals(201, r.getStatusCode(), "Non-overlapping bookings should all succeed"));
+    }
+
+    // ==================== SQL STATEMENT TESTS ====================
+
+    private static LocalDate statementTestStart;
+    private static Long statementTestGuestId;
+
+    @Test
+    @Order(97)
+    @DisplayName("GET /api/reservations - Pages load guests, rooms and room types without a query per row")
+    public void testGetAllReservations_ConstantStatementsPerPage() {
+        createReservationsAcrossGuestsAndRooms();
+        
+        long smallPage = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("page", 0)
+                .queryParam("size", 1)
+                .queryParam("checkInDateFrom", statementTestStart.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("checkInDateTo", statementTestStart.plusDays(3).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/reservations")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1)));
+        long largePage = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("page", 0)
+                .queryParam("size", 10)
+                .queryParam("checkInDateFrom", statementTestStart.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("checkInDateTo", statementTestStart.plusDays(3).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/reservations")
+                .then()
+                .statusCode(200)
+                .body("content.size()", greaterThanOrEqualTo(4))
+                .body("content.guestId.unique().size()", greaterThanOrEqualTo(3))
+                .body("content.room.roomNumber", everyItem(notNullValue())));
+        
+        // One select for the page, plus the count query when the page is full
+        assertTrue(smallPage <= 2, "Page of 1 ran " + smallPage + " statements");
+        assertTrue(largePage <= 2, "Page of 10 ran " + largePage + " statements");
+    }
+
+    @Test
+    @Order(98)
+    @DisplayName("GET /api/reservations/guest, /status and /date-range - Lists run a single statement")
+    public void testGetReservationLists_SingleStatement() {
+        assertNotNull(statementTestGuestId, "Reservations across guests and rooms should be created first");
+        
+        assertEquals(1, statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/reservations/guest/{guestId}", statementTestGuestId)
+                .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(2))
+                .body("room.roomNumber", everyItem(notNullValue()))));
+        assertEquals(1, statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/reservations/status/{status}", "CONFIRMED")
+                .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(4))));
+        assertEquals(1, statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("startDate", statementTestStart.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("endDate", statementTestStart.plusDays(5).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/reservations/date-range")
+                .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(4))));
+    }
+
+    @Test
+    @Order(99)
+    @DisplayName("GET /api/reservations - fields and expand return only the requested properties")
+    public void testGetAllReservations_FieldsAndExpand() {
+        assertNotNull(statementTestStart, "Reservations across guests and rooms should be created first");
+        
+        long statements = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("checkInDateFrom", statementTestStart.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("checkInDateTo", statementTestStart.plusDays(3).format(DateTimeFormatter.ISO_DATE))
+                .queryParam("fields", "id,reservationNumber,guest")
+                .queryParam("expand", "guest")
+                .when()
+                .get("/reservations")
+                .then()
+                .statusCode(200)
+                .body("content.size()", greaterThanOrEqualTo(4))
+                .body("content.findAll { it.keySet() != ['id', 'reservationNumber', 'guest'] as Set }", empty())
+                .body("content.guest.lastName", everyItem(equalTo("Test"))));
+        assertTrue(statements <= 2, "Page ran " + statements + " statements");
+    }
+
+    @Test
+    @Order(100)
+    @DisplayName("GET /api/reservations/{id} - Without expansions the guest and room are not loaded")
+    public void testGetReservationById_NoExpand() {
+        assertNotNull(statementTestGuestId, "Reservations across guests and rooms should be created first");
+        Long reservationId = createdReservationIds.get(createdReservationIds.size() - 1);
+        
+        assertEquals(1, statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("expand", "")
+                .when()
+                .get("/reservations/{id}", reservationId)
+                .then()
+                .statusCode(200)
+                .body("guestId", equalTo(statementTestGuestId.intValue()))
+                .body("roomId", notNullValue())
+                .body("$", not(hasKey("guest")))
+                .body("$", not(hasKey("room")))));
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/reservations/{id}", reservationId)
+                .then()
+                .statusCode(200)
+                .body("guest.id", equalTo(statementTestGuestId.intValue()))
+                .body("room.roomType", notNullValue());
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("fields", "id,guest.firstName")
+                .when()
+                .get("/reservations/{id}", reservationId)
+                .then()
+                .statusCode(400);
+    }
+
+    /**
+     * Books three new guests into three new rooms of the test room's type, plus a second
+     * stay for the first guest, in a far-future window no other test uses.
+     */
+    private static void createReservationsAcrossGuestsAndRooms() {
+        long timestamp = System.currentTimeMillis();
+        Long roomTypeId = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/{id}", roomId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("roomTypeId");
+        
+        List<Long> guestIds = new ArrayList<>();
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> guest = new HashMap<>();
+            guest.put("firstName", "Statement" + i);
+            guest.put("lastName", "Test");
+            guest.put("email", "statement.test" + i + "." + timestamp + "@example.com");
+            guestIds.add(given()
+                    .spec(authenticatedRequestSpec)
+                    .body(guest)
+                    .when()
+                    .post("/guests")
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getLong("id"));
+            
+            Map<String, Object> room = new HashMap<>();
+            room.put("roomNumber", "STMT_" + i + "_" + timestamp);
+            room.put("roomTypeId", roomTypeId);
+            room.put("status", RoomStatus.READY.name());
+            room.put("maxOccupancy", 4);
+            room.put("floor", 1);
+            roomIds.add(given()
+                    .spec(authenticatedRequestSpec)
+                    .body(room)
+                    .when()
+                    .post("/rooms")
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getLong("id"));
+        }
+        
+        statementTestStart = LocalDate.now().plusDays(5000 + ThreadLocalRandom.current().nextInt(2000));
+        statementTestGuestId = guestIds.get(0);
+        List<Map<String, Object>> reservations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            reservations.add(createReservationMap(guestIds.get(i), roomIds.get(i), rateTypeId,
+                    statementTestStart, statementTestStart.plusDays(2), 1, "Statement test", "PENDING"));
+        }
+        reservations.add(createReservationMap(guestIds.get(0), roomIds.get(1), rateTypeId,
+                statementTestStart.plusDays(3), statementTestStart.plusDays(5), 1, "Statement test", "PENDING"));
+        for (Map<String, Object> reservation : reservations) {
+            createdReservationIds.add(given()
+                    .spec(authenticatedRequestSpec)
+                    .body(reservation)
+                    .when()
+                    .post("/reservations")
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getLong("id"));
+        }
+    }
+
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    /**
+     * Posts every reservation from its own thread, released together to maximise contention.
+     */
+    private static List<Response> postConcurrently(List<Map<String, Object>> reservations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(reservations.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (Map<String, Object> reservation : reservations) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return given()
+                            .spec(authenticatedRequestSpec)
+                            .body(reservation)
+                            .when()
+                            .post("/reservations")
+                            .then()
+                            .extract()
+                            .response();
+                }));
+            }
+            start.countDown();
+            List<Response> responses = new ArrayList<>();
+            for (Future<Response> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @AfterAll
     @DisplayName("Cleanup - Cancel all test reservations created during test execution")
     public static void cleanupTestData() {
@@ -14,6 +14,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -460,6 +461,150 @@ public class RoomControllerIntegrationTest extends TestConfig {
         }
     }
 
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/rooms/type/{roomTypeId} - Conditional GET returns 304 until a room changes")
+    public void testGetRoomsByType_IfNoneMatch() {
+        assertNotNull(createdRoomId, "Room should be created first");
+        String etag = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/type/{roomTypeId}", roomTypeId)
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract()
+                .header("ETag");
+
+        long statements = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/rooms/type/{roomTypeId}", roomTypeId)
+                .then()
+                .statusCode(304));
+        assertEquals(0, statements, "A 304 should only read the version, not load the rooms");
+
+        Map<String, Object> updateData = new HashMap<>();
+        updateData.put("roomNumber", createdRoomNumber);
+        updateData.put("roomTypeId", roomTypeId);
+        updateData.put("status", "READY");
+        updateData.put("maxOccupancy", 2);
+        updateData.put("description", "Changed for conditional GET");
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(updateData)
+                .when()
+                .put("/rooms/{id}", createdRoomId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/rooms/type/{roomTypeId}", roomTypeId)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("description", hasItem("Changed for conditional GET"));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("GET /api/rooms/number/{roomNumber} - Served from the second-level cache, renames included")
+    public void testGetRoomByNumber_Cached() {
+        assertNotNull(createdRoomId, "Room should be created first");
+        given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/number/{roomNumber}", createdRoomNumber)
+                .then()
+                .statusCode(200);
+
+        long statements = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/rooms/number/{roomNumber}", createdRoomNumber)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(createdRoomId.intValue())));
+        assertEquals(0, statements, "A cached room should be found by number without querying the database");
+
+        String renamedNumber = createdRoomNumber + "R";
+        renameRoom(renamedNumber);
+        try {
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .get("/rooms/number/{roomNumber}", createdRoomNumber)
+                    .then()
+                    .statusCode(400);
+            given()
+                    .spec(authenticatedRequestSpec)
+                    .when()
+                    .get("/rooms/number/{roomNumber}", renamedNumber)
+                    .then()
+                    .statusCode(200)
+                    .body("id", equalTo(createdRoomId.intValue()));
+        } finally {
+            renameRoom(createdRoomNumber);
+        }
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("GET /api/rooms?all=true - Export all rooms as one array")
+    public void testExportAllRooms() {
+        Response response = given()
+                .spec(adminRequestSpec)
+                .queryParam("all", true)
+                .when()
+                .get("/rooms")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        assertInstanceOf(List.class, response.jsonPath().get("$"), "Export should not be paginated");
+        List<Long> ids = response.jsonPath().getList("id", Long.class);
+        assertFalse(ids.isEmpty(), "Should have at least some rooms");
+        assertEquals(ids.stream().sorted().toList(), ids, "Rooms should be exported in id order");
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("GET /api/rooms - Cursor pagination walks every room once, in order")
+    public void testGetAllRooms_CursorPagination() {
+        Map<String, Object> params = Map.of("sortBy", "floor", "sortDir", "desc");
+
+        List<Map<String, Object>> rooms = walkCursorPages(authenticatedRequestSpec, "/rooms", params, 2);
+
+        List<Long> ids = rooms.stream().map(room -> ((Number) room.get("id")).longValue()).toList();
+        assertTrue(ids.size() > 2, "Rooms should span more than one page");
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "No room should be returned twice: " + ids);
+        assertEquals(new HashSet<>(idsOnOnePage(authenticatedRequestSpec, "/rooms", params)), new HashSet<>(ids),
+                "Every room should be returned: " + ids);
+        assertKeysetOrder(rooms.stream().map(room -> (Integer) room.get("floor")).toList(), false);
+    }
+
+    private static void renameRoom(String roomNumber) {
+        Map<String, Object> updateData = new HashMap<>();
+        updateData.put("roomNumber", roomNumber);
+        updateData.put("roomTypeId", roomTypeId);
+        updateData.put("status", "READY");
+        updateData.put("maxOccupancy", 2);
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(updateData)
+                .when()
+                .put("/rooms/{id}", createdRoomId)
+                .then()
+                .statusCode(200)
+                .body("roomNumber", equalTo(roomNumber));
+    }
+
     // ==================== PAGINATION TESTS ====================
 
     @Test
@@ -1074,6 +1219,74 @@ public class RoomControllerIntegrationTest extends TestConfig {
         assertTrue(rooms.size() >= 0);
     }
 
+    @Test
+    @Order(64)
+    @DisplayName("GET /api/rooms/availability/calendar - Get availability calendar successfully")
+    public void testGetAvailabilityCalendar_Success() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(90);
+        
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/rooms/availability/calendar")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("from", equalTo(from.format(DateTimeFormatter.ISO_DATE)))
+                .body("to", equalTo(to.format(DateTimeFormatter.ISO_DATE)))
+                .body("nights", equalTo(90))
+                .extract()
+                .response();
+
+        List<Map<String, Object>> rooms = response.jsonPath().getList("rooms");
+        assertTrue(rooms.stream().anyMatch(room -> createdRoomId.equals(((Number) room.get("roomId")).longValue())),
+                "Calendar should include the created room");
+        rooms.forEach(room -> {
+            String occupancy = (String) room.get("occupancy");
+            assertTrue(occupancy.matches("(\\d+[FO])+"), "Occupancy should be run-length encoded: " + occupancy);
+            int nights = 0;
+            for (String run : occupancy.split("(?<=[FO])")) {
+                nights += Integer.parseInt(run.substring(0, run.length() - 1));
+            }
+            assertEquals(90, nights, "Runs should cover every night in the calendar");
+        });
+    }
+
+    @Test
+    @Order(65)
+    @DisplayName("GET /api/rooms/availability/calendar - Get calendar with invalid date range should fail")
+    public void testGetAvailabilityCalendar_InvalidRange() {
+        LocalDate from = LocalDate.now().plusDays(2);
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.minusDays(1).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/rooms/availability/calendar")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(66)
+    @DisplayName("GET /api/rooms/availability/calendar - Get calendar longer than 365 nights should fail")
+    public void testGetAvailabilityCalendar_RangeTooLong() {
+        LocalDate from = LocalDate.now();
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.plusDays(366).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/rooms/availability/calendar")
+                .then()
+                .statusCode(400);
+    }
+
     // ==================== ROOM TYPE TESTS ====================
 
     @Test
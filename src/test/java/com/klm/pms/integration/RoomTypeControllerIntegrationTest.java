@@ -9,6 +9,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -345,6 +349,192 @@ public class RoomTypeControllerIntegrationTest extends TestConfig {
         assertTrue(roomTypes.size() > 0, "Should have at least some room types");
     }
 
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/room-types - Conditional GET returns 304 until a room type changes")
+    public void testGetAllRoomTypes_IfNoneMatch() {
+        assertNotNull(createdRoomTypeId, "Room type should be created first");
+        String etag = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/room-types")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract()
+                .header("ETag");
+
+        long statements = statementsFor(() -> given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/room-types")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag)));
+        assertEquals(0, statements, "A 304 should only read the version, not load the room types");
+
+        Map<String, Object> updateData = new HashMap<>();
+        updateData.put("name", createdRoomTypeName);
+        updateData.put("description", "Changed for conditional GET");
+        updateData.put("basePricePerNight", new BigDecimal("99.99"));
+        updateData.put("maxOccupancy", 2);
+        given()
+                .spec(authenticatedRequestSpec)
+                .body(updateData)
+                .when()
+                .put("/room-types/{id}", createdRoomTypeId)
+                .then()
+                .statusCode(200);
+
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/room-types")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .header("ETag", not(equalTo(etag)))
+                .extract()
+                .response();
+        List<String> descriptions = response.jsonPath().getList("description");
+        assertTrue(descriptions.contains("Changed for conditional GET"), "The changed room type should be returned");
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/room-types - ETag changes after a write made outside the application")
+    public void testGetAllRoomTypes_IfNoneMatch_ExternalWrite() throws Exception {
+        assertNotNull(createdRoomTypeId, "Room type should be created first");
+        String etag = given()
+                .spec(authenticatedRequestSpec)
+                .when()
+                .get("/room-types")
+                .then()
+                .statusCode(200)
+                .extract()
+                .header("ETag");
+
+        // As another instance or a maintenance script would, bypassing this application's JPA
+        try (Connection connection = openDatabaseConnection();
+             PreparedStatement update = connection.prepareStatement("UPDATE room_types SET description = ? WHERE id = ?")) {
+            update.setString(1, "Changed outside the application");
+            update.setLong(2, createdRoomTypeId);
+            assertEquals(1, update.executeUpdate());
+        }
+
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/room-types")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .extract()
+                .response();
+        List<String> descriptions = response.jsonPath().getList("description");
+        assertTrue(descriptions.contains("Changed outside the application"), "The room type as written should be returned");
+    }
+
+    // ==================== INVENTORY OPERATIONS ====================
+
+    @Test
+    @Order(20)
+    @DisplayName("GET /api/room-types/{id}/inventory - Get nightly inventory successfully")
+    public void testGetRoomTypeInventory_Success() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(30);
+        
+        Response response = given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", to.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/room-types/{id}/inventory", createdRoomTypeId)
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .extract()
+                .response();
+
+        List<Map<String, Object>> nights = response.jsonPath().getList("$");
+        assertEquals(30, nights.size(), "Should return one entry per night");
+        assertEquals(from.format(DateTimeFormatter.ISO_DATE), nights.get(0).get("stayDate"));
+        nights.forEach(night -> {
+            int total = ((Number) night.get("totalRooms")).intValue();
+            int sold = ((Number) night.get("sold")).intValue();
+            int outOfOrder = ((Number) night.get("outOfOrder")).intValue();
+            assertEquals(Math.max(0, total - sold - outOfOrder), ((Number) night.get("available")).intValue());
+        });
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("GET /api/room-types/{id}/inventory - Get inventory with invalid date range should fail")
+    public void testGetRoomTypeInventory_InvalidRange() {
+        LocalDate from = LocalDate.now().plusDays(5);
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/room-types/{id}/inventory", createdRoomTypeId)
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("GET /api/room-types/{id}/inventory - Get inventory of non-existent room type should return 404")
+    public void testGetRoomTypeInventory_NotFound() {
+        LocalDate from = LocalDate.now();
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.plusDays(7).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .get("/room-types/{id}/inventory", 99999L)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("POST /api/room-types/inventory/reconcile - Reconcile inventory as admin")
+    public void testReconcileInventory_Admin() {
+        LocalDate from = LocalDate.now();
+        
+        given()
+                .spec(adminRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.plusDays(60).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .post("/room-types/inventory/reconcile")
+                .then()
+                .statusCode(200)
+                .body("correctedRows", greaterThanOrEqualTo(0));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("POST /api/room-types/inventory/reconcile - Reconcile inventory without admin role should fail")
+    public void testReconcileInventory_Forbidden() {
+        LocalDate from = LocalDate.now();
+        
+        given()
+                .spec(authenticatedRequestSpec)
+                .queryParam("from", from.format(DateTimeFormatter.ISO_DATE))
+                .queryParam("to", from.plusDays(60).format(DateTimeFormatter.ISO_DATE))
+                .when()
+                .post("/room-types/inventory/reconcile")
+                .then()
+                .statusCode(401); // Missing role is reported as UnauthorizedException
+    }
+
     // ==================== UPDATE OPERATIONS ====================
 
     @Test
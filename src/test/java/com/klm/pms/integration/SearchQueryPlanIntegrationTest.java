@@ -0,0 +1,95 @@
+package com.klm.pms.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression tests for the query plans of free-text search.
+ * <p>
+ * Each test EXPLAINs the search predicate that the guest, room and reservation filters
+ * generate and checks that PostgreSQL answers it from the trigram index on
+ * {@code search_text}. Sequential scans are disabled for the session, because the test
+ * database is small enough that the planner would otherwise prefer them.
+ * <p>
+ * Prerequisites:
+ * - Database must be accessible as configured in application-test.properties
+ * - The application must have started once against it, so the indexes exist
+ */
+public class SearchQueryPlanIntegrationTest {
+
+    private static Connection connection;
+
+    @BeforeAll
+    public static void connect() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = SearchQueryPlanIntegrationTest.class.getResourceAsStream("/application-test.properties")) {
+            properties.load(in);
+        }
+        connection = DriverManager.getConnection(
+                System.getProperty("test.db.url", properties.getProperty("spring.datasource.url")),
+                properties.getProperty("spring.datasource.username"),
+                properties.getProperty("spring.datasource.password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @Test
+    @DisplayName("Guest search uses the trigram index")
+    public void testGuestSearchUsesTrigramIndex() throws Exception {
+        assertUsesTrigramIndex("guests", "%smith%");
+    }
+
+    @Test
+    @DisplayName("Room search uses the trigram index")
+    public void testRoomSearchUsesTrigramIndex() throws Exception {
+        assertUsesTrigramIndex("rooms", "%balcony%");
+    }
+
+    @Test
+    @DisplayName("Reservation search uses the trigram index")
+    public void testReservationSearchUsesTrigramIndex() throws Exception {
+        assertUsesTrigramIndex("reservations", "%late check%");
+    }
+
+    private static void assertUsesTrigramIndex(String table, String pattern) throws Exception {
+        String plan = explain("SELECT id FROM " + table + " t WHERE t.search_text LIKE ?", pattern);
+        String index = "idx_" + table + "_search_text_trgm";
+        assertTrue(plan.contains("Bitmap Index Scan on " + index), "Expected a scan of " + index + ":\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), "Expected no sequential scan:\n" + plan);
+    }
+
+    private static String explain(String sql, Object... parameters) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    @AfterAll
+    public static void disconnect() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.klm.pms.repository.specification;
+
+import com.klm.pms.exception.ValidationException;
+import com.klm.pms.model.Guest;
+import com.klm.pms.model.Reservation;
+import com.klm.pms.model.Reservation.ReservationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeysetCursor} encoding and validation.
+ */
+public class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Cursor round-trips through its opaque form")
+    public void testEncodeDecodeRoundTrip() {
+        Reservation reservation = new Reservation();
+        reservation.setId(42L);
+        reservation.setCheckInDate(LocalDate.of(2026, 3, 14));
+
+        String encoded = KeysetCursor.after(reservation, "checkInDate", Sort.Direction.DESC).encode();
+        KeysetCursor decoded = KeysetCursor.decode(encoded);
+
+        assertEquals("checkInDate", decoded.getSortBy());
+        assertEquals(Sort.Direction.DESC, decoded.getDirection());
+        assertEquals(encoded, decoded.encode());
+        assertDoesNotThrow(() -> decoded.requireValidFor(Reservation.class));
+        assertFalse(encoded.contains("="), "Cursor should be URL-safe without padding");
+    }
+
+    @Test
+    @DisplayName("Null and enum sort values are kept")
+    public void testNullAndEnumSortValues() {
+        Guest guest = new Guest();
+        guest.setId(7L);
+        KeysetCursor nullCity = KeysetCursor.decode(KeysetCursor.after(guest, "city", Sort.Direction.ASC).encode());
+        assertEquals(KeysetCursor.after(guest, "city", Sort.Direction.ASC).encode(), nullCity.encode());
+        assertDoesNotThrow(() -> nullCity.requireValidFor(Guest.class));
+
+        Reservation reservation = new Reservation();
+        reservation.setId(8L);
+        reservation.setStatus(ReservationStatus.CHECKED_IN);
+        KeysetCursor status = KeysetCursor.decode(KeysetCursor.after(reservation, "status", Sort.Direction.ASC).encode());
+        assertDoesNotThrow(() -> status.requireValidFor(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("Malformed and tampered cursors are rejected")
+    public void testInvalidCursors() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(encode("checkInDate\nSIDEWAYS\n1")));
+
+        KeysetCursor badValue = KeysetCursor.decode(encode("checkInDate\nASC\n1\n=yesterday"));
+        assertThrows(ValidationException.class, () -> badValue.requireValidFor(Reservation.class));
+
+        KeysetCursor association = KeysetCursor.decode(encode("guest\nASC\n1\n=5"));
+        assertThrows(ValidationException.class, () -> association.requireValidFor(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("Only plain comparable fields can be sorted on")
+    public void testRequireSortable() {
+        assertDoesNotThrow(() -> KeysetCursor.requireSortable(Reservation.class, "totalAmount"));
+        assertDoesNotThrow(() -> KeysetCursor.requireSortable(Reservation.class, "createdAt"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.requireSortable(Reservation.class, "room"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.requireSortable(Reservation.class, "room.roomNumber"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.requireSortable(Guest.class, "unknownField"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
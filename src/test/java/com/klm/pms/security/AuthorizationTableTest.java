@@ -0,0 +1,99 @@
+package com.klm.pms.security;
+
+import com.klm.pms.security.AuthorizationTable.Requirement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the precompiled {@link AuthorizationTable}.
+ */
+public class AuthorizationTableTest {
+
+    @RequireRole("admin")
+    static class AdminController {
+        public void list() {
+        }
+
+        @RequireRole({"ROLE_MANAGER", "Admin"})
+        public void approve() {
+        }
+
+        @RequireRole
+        public void open() {
+        }
+    }
+
+    static class PublicController {
+        public void list() {
+        }
+
+        @RequireRole("auditor")
+        public void audit() {
+        }
+    }
+
+    private static HandlerMethod handler(Object controller, String name) {
+        try {
+            return new HandlerMethod(controller, controller.getClass().getMethod(name));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Method annotations take precedence over class annotations; empty ones allow everyone")
+    public void testRequirements() {
+        AdminController admin = new AdminController();
+        AuthorizationTable table = new AuthorizationTable(List.of(
+                handler(admin, "list"), handler(admin, "approve"), handler(admin, "open"),
+                handler(new PublicController(), "list")));
+
+        Requirement list = table.requirement(handler(admin, "list"));
+        assertEquals(List.of("admin"), list.roles());
+        assertEquals(table.roleMask(List.of("admin")), list.mask());
+
+        Requirement approve = table.requirement(handler(admin, "approve"));
+        assertEquals(List.of("ROLE_MANAGER", "Admin"), approve.roles());
+        assertEquals(table.roleMask(List.of("manager", "admin")), approve.mask());
+        assertTrue(approve.unregistered().isEmpty());
+
+        assertNull(table.requirement(handler(admin, "open")));
+        assertNull(table.requirement(handler(new PublicController(), "list")));
+    }
+
+    @Test
+    @DisplayName("User roles are normalized into a mask; roles no endpoint requires get no bit")
+    public void testRoleMask() {
+        AdminController admin = new AdminController();
+        AuthorizationTable table = new AuthorizationTable(List.of(handler(admin, "list"), handler(admin, "approve")));
+
+        long adminMask = table.roleMask(List.of("admin"));
+        long managerMask = table.roleMask(List.of("manager"));
+        assertNotEquals(0L, adminMask);
+        assertNotEquals(0L, managerMask);
+        assertEquals(0L, adminMask & managerMask);
+
+        assertEquals(adminMask, table.roleMask(List.of(" ROLE_ADMIN ")));
+        assertEquals(adminMask, table.roleMask(List.of("ADMIN", "frontdesk")));
+        assertEquals(adminMask | managerMask, table.roleMask(List.of("role_manager", "Admin")));
+        assertEquals(0L, table.roleMask(List.of("frontdesk")));
+        assertEquals(0L, table.roleMask(List.of()));
+    }
+
+    @Test
+    @DisplayName("Handlers outside the table are resolved on demand")
+    public void testUnmappedHandler() {
+        AuthorizationTable table = new AuthorizationTable(List.of(handler(new AdminController(), "list")));
+
+        Requirement audit = table.requirement(handler(new PublicController(), "audit"));
+        assertEquals(0L, audit.mask());
+        assertEquals(List.of("auditor"), audit.unregistered());
+        assertSame(audit, table.requirement(handler(new PublicController(), "audit")));
+        assertNull(table.requirement(handler(new PublicController(), "list")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.klm.pms.security;
+
+import com.klm.pms.util.TestJwtTokenGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JwtTokenValidator} and its verified-token cache.
+ */
+public class JwtTokenValidatorTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final long ONE_HOUR_MS = 3600_000L;
+    private static final AuthorizationTable NO_ROLES = new AuthorizationTable(List.of());
+
+    @Test
+    @DisplayName("A verified token is cached and its result reused")
+    public void testValidTokenCached() {
+        JwtTokenValidator validator = new JwtTokenValidator(SECRET, 100, NO_ROLES);
+        String token = TestJwtTokenGenerator.generateToken("frontdesk", SECRET, ONE_HOUR_MS);
+
+        TokenValidationResult result = validator.validateTokenWithDetails(token);
+        assertTrue(result.isValid());
+        assertFalse(result.isExpired());
+        assertEquals("frontdesk", result.getUsername());
+        assertEquals(List.of(), result.getRoles());
+        assertEquals(1, validator.cachedTokenCount());
+
+        assertSame(result, validator.validateTokenWithDetails(token));
+        assertEquals(1, validator.cachedTokenCount());
+    }
+
+    @Test
+    @DisplayName("Token roles are turned into an authorization role mask")
+    public void testRoleMask() throws NoSuchMethodException {
+        AuthorizationTable table = new AuthorizationTable(List.of(new HandlerMethod(new AdminController(),
+                AdminController.class.getMethod("list"))));
+        JwtTokenValidator validator = new JwtTokenValidator(SECRET, 100, table);
+
+        TokenValidationResult admin = validator.validateTokenWithDetails(
+                TestJwtTokenGenerator.generateTokenWithRoles("manager", List.of("ROLE_ADMIN", "frontdesk")));
+        assertEquals(List.of("ROLE_ADMIN", "frontdesk"), admin.getRoles());
+        assertEquals(table.roleMask(List.of("admin")), admin.getRoleMask());
+
+        TokenValidationResult frontDesk = validator.validateTokenWithDetails(
+                TestJwtTokenGenerator.generateTokenWithRoles("clerk", List.of("frontdesk")));
+        assertEquals(0L, frontDesk.getRoleMask());
+    }
+
+    @RequireRole("admin")
+    static class AdminController {
+        public void list() {
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid and expired tokens are rejected and not cached")
+    public void testRejectedTokensNotCached() {
+        JwtTokenValidator validator = new JwtTokenValidator(SECRET, 100, NO_ROLES);
+
+        TokenValidationResult invalid = validator.validateTokenWithDetails(
+                TestJwtTokenGenerator.generateInvalidToken("frontdesk"));
+        assertFalse(invalid.isValid());
+        assertNotNull(invalid.getError());
+
+        TokenValidationResult expired = validator.validateTokenWithDetails(
+                TestJwtTokenGenerator.generateToken("frontdesk", SECRET, -1000));
+        assertFalse(expired.isValid());
+        assertNotNull(expired.getError());
+
+        TokenValidationResult malformed = validator.validateTokenWithDetails("not-a-token");
+        assertFalse(malformed.isValid());
+
+        assertEquals(0, validator.cachedTokenCount());
+    }
+
+    @Test
+    @DisplayName("The cache holds at most the configured number of tokens")
+    public void testCacheBounded() {
+        JwtTokenValidator validator = new JwtTokenValidator(SECRET, 3, NO_ROLES);
+        for (int i = 0; i < 10; i++) {
+            String token = TestJwtTokenGenerator.generateToken("user" + i, SECRET, ONE_HOUR_MS);
+            assertTrue(validator.validateTokenWithDetails(token).isValid());
+            assertTrue(validator.cachedTokenCount() <= 3);
+        }
+        assertEquals(3, validator.cachedTokenCount());
+    }
+
+    @Test
+    @DisplayName("A zero-sized cache still validates every token")
+    public void testCacheDisabled() {
+        JwtTokenValidator validator = new JwtTokenValidator(SECRET, 0, NO_ROLES);
+        String token = TestJwtTokenGenerator.generateToken("frontdesk", SECRET, ONE_HOUR_MS);
+        assertTrue(validator.validateTokenWithDetails(token).isValid());
+        assertTrue(validator.validateTokenWithDetails(token).isValid());
+        assertEquals(0, validator.cachedTokenCount());
+    }
+}
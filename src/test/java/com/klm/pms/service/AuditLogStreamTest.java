@@ -0,0 +1,32 @@
+package com.klm.pms.service;
+
+import com.klm.pms.service.AuditLogStream.ReplayedIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the replay/live overlap tracking of {@link AuditLogStream}.
+ */
+public class AuditLogStreamTest {
+
+    @Test
+    @DisplayName("Only ids sent by the replay count as already sent")
+    public void testReplayedIds() {
+        ReplayedIds replayed = new ReplayedIds(100L);
+        replayed.add(101L);
+        replayed.add(102L);
+        replayed.add(105L);
+
+        assertTrue(replayed.contains(101L));
+        assertTrue(replayed.contains(105L));
+        // Written by a caller thread, published after higher ids: still new to the subscriber
+        assertFalse(replayed.contains(103L));
+        assertFalse(replayed.contains(104L));
+        assertFalse(replayed.contains(106L));
+        assertFalse(replayed.contains(100L));
+        assertFalse(replayed.contains(42L));
+        assertFalse(replayed.contains(Long.MAX_VALUE));
+    }
+}
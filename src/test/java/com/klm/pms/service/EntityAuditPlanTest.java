@@ -0,0 +1,116 @@
+package com.klm.pms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.klm.pms.model.Reservation.ReservationStatus;
+import com.klm.pms.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EntityAuditPlan}. The change JSON must match what serializing a
+ * map of the changed fields with the application's ObjectMapper produces.
+ */
+public class EntityAuditPlanTest {
+
+    private static final int CHECK_OUT_DATE = 0;
+    private static final int CREATED_AT = 1;
+    private static final int ROOM = 2;
+    private static final int SPECIAL_REQUESTS = 3;
+    private static final int STATUS = 4;
+    private static final int TOTAL_AMOUNT = 5;
+
+    private ObjectMapper objectMapper;
+    private EntityAuditPlan plan;
+    private Object[] oldState;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        plan = EntityAuditPlan.builder("Reservation", 6)
+                .value(CHECK_OUT_DATE, "checkOutDate")
+                .value(CREATED_AT, "createdAt")
+                .reference(ROOM, "room", room -> ((Room) room).getId())
+                .value(SPECIAL_REQUESTS, "specialRequests")
+                .value(STATUS, "status")
+                .value(TOTAL_AMOUNT, "totalAmount")
+                .build();
+        oldState = new Object[] {LocalDate.of(2026, 3, 5), LocalDateTime.of(2026, 1, 10, 9, 30), room(42L),
+                "Late arrival", ReservationStatus.CONFIRMED, new BigDecimal("720.00")};
+    }
+
+    @Test
+    @DisplayName("Dirty properties are written like a serialized map of the changed fields")
+    public void testDiffMatchesMapSerialization() throws Exception {
+        Object[] state = {LocalDate.of(2026, 3, 6), oldState[CREATED_AT], room(43L), null,
+                ReservationStatus.CHECKED_IN, new BigDecimal("900.50")};
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("checkOutDate", LocalDate.of(2026, 3, 6));
+        expected.put("roomId", 43L);
+        expected.put("specialRequests", null);
+        expected.put("status", ReservationStatus.CHECKED_IN);
+        expected.put("totalAmount", new BigDecimal("900.50"));
+
+        String changes = plan.diff(oldState, state, new int[] {0, 2, 3, 4, 5}, objectMapper);
+
+        assertEquals(objectMapper.writeValueAsString(expected), changes);
+        assertTrue(changes.contains("\"checkOutDate\":\"2026-03-06\""), changes);
+    }
+
+    @Test
+    @DisplayName("Without dirty properties every audited property is compared")
+    public void testDiffWithoutDirtyProperties() {
+        Object[] state = oldState.clone();
+        state[ROOM] = room(42L);
+        state[TOTAL_AMOUNT] = new BigDecimal("720");
+        state[STATUS] = ReservationStatus.CANCELLED;
+
+        assertEquals("{\"status\":\"CANCELLED\"}", plan.diff(oldState, state, null, objectMapper));
+    }
+
+    @Test
+    @DisplayName("Timestamps are not audited and produce no changes")
+    public void testTimestampsNotAudited() {
+        Object[] state = oldState.clone();
+        state[CREATED_AT] = LocalDateTime.now();
+
+        assertNull(plan.diff(oldState, state, new int[] {CREATED_AT}, objectMapper));
+        assertNull(plan.diff(oldState, state, null, objectMapper));
+        assertEquals(5, plan.size());
+    }
+
+    @Test
+    @DisplayName("Without the loaded state no changes are recorded")
+    public void testNoLoadedState() {
+        assertNull(plan.diff(null, oldState, null, objectMapper));
+    }
+
+    @Test
+    @DisplayName("The buffer is reused without leaking earlier output")
+    public void testBufferReuse() {
+        Object[] state = oldState.clone();
+        state[SPECIAL_REQUESTS] = "Cot in room";
+        String first = plan.diff(oldState, state, new int[] {SPECIAL_REQUESTS}, objectMapper);
+        String second = plan.diff(oldState, state, new int[] {STATUS}, objectMapper);
+
+        assertEquals("{\"specialRequests\":\"Cot in room\"}", first);
+        assertEquals("{\"status\":\"CONFIRMED\"}", second);
+    }
+
+    private static Room room(Long id) {
+        Room room = new Room();
+        room.setId(id);
+        return room;
+    }
+}
@@ -0,0 +1,84 @@
+package com.klm.pms.service;
+
+import com.klm.pms.service.GuestDuplicateMatcher.Candidate;
+import com.klm.pms.service.GuestDuplicateMatcher.Match;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GuestDuplicateMatcher} keys and scores.
+ */
+public class GuestDuplicateMatcherTest {
+
+    @Test
+    @DisplayName("Phone numbers compare equal with and without country code and formatting")
+    public void testNormalizePhone() {
+        assertEquals("612345678", GuestDuplicateMatcher.normalizePhone("+31 6 1234 5678"));
+        assertEquals("612345678", GuestDuplicateMatcher.normalizePhone("06-12345678"));
+        assertNull(GuestDuplicateMatcher.normalizePhone("12-34"));
+        assertNull(GuestDuplicateMatcher.normalizePhone(null));
+    }
+
+    @Test
+    @DisplayName("Email local parts ignore case, dots and +tags")
+    public void testEmailLocalPart() {
+        assertEquals("janesmith", GuestDuplicateMatcher.emailLocalPart("Jane.Smith+hotel@Example.com"));
+        assertEquals("janesmith@example.com", GuestDuplicateMatcher.normalizeEmail("jane.smith+hotel@example.com"));
+        assertNull(GuestDuplicateMatcher.emailLocalPart("not-an-email"));
+    }
+
+    @Test
+    @DisplayName("Soundex codes match the standard examples")
+    public void testSoundex() {
+        assertEquals("R163", GuestDuplicateMatcher.soundex("Robert"));
+        assertEquals("R163", GuestDuplicateMatcher.soundex("Rupert"));
+        assertEquals("A261", GuestDuplicateMatcher.soundex("Ashcraft"));
+        assertEquals("T522", GuestDuplicateMatcher.soundex("Tymczak"));
+        assertEquals("P236", GuestDuplicateMatcher.soundex("Pfister"));
+        assertEquals("S530J", GuestDuplicateMatcher.nameKey("Jon", "Smith"));
+        assertEquals(GuestDuplicateMatcher.nameKey("John", "Smyth"), GuestDuplicateMatcher.nameKey("Jon", "Smith"));
+    }
+
+    @Test
+    @DisplayName("Jaro-Winkler similarity")
+    public void testJaroWinkler() {
+        assertEquals(0.961, GuestDuplicateMatcher.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.840, GuestDuplicateMatcher.jaroWinkler("dwayne", "duane"), 0.001);
+        assertEquals(1.0, GuestDuplicateMatcher.jaroWinkler("jane smith", "jane smith"));
+        assertEquals(0.0, GuestDuplicateMatcher.jaroWinkler("abc", "xyz"));
+    }
+
+    @Test
+    @DisplayName("Same phone and a misspelt name score above a shared name alone")
+    public void testScore() {
+        Candidate original = Candidate.of(1, "Jonathan", "Smith", "jon.smith@example.com", "+1 555 010 0199");
+        Candidate typo = Candidate.of(2, "Johnathan", "Smith", "jsmith@work.example", "555-010-0199");
+        Candidate namesake = Candidate.of(3, "Jonathan", "Smith", "other@example.com", "+44 20 7946 0000");
+
+        Match sameGuest = GuestDuplicateMatcher.score(original, typo);
+        assertEquals(List.of("PHONE", "NAME"), sameGuest.reasons());
+        assertTrue(sameGuest.score() > 0.75, "Score was " + sameGuest.score());
+
+        Match sameName = GuestDuplicateMatcher.score(original, namesake);
+        assertEquals(List.of("NAME"), sameName.reasons());
+        assertTrue(sameName.score() < 0.5, "Score was " + sameName.score());
+    }
+
+    @Test
+    @DisplayName("A pair is scored only in the block of the first key kind it shares")
+    public void testFirstSharedKey() {
+        Candidate a = Candidate.of(1, "Jane", "Smith", "jane@example.com", "5550100199");
+        Candidate b = Candidate.of(2, "Jane", "Smyth", "jane@example.org", "5550100199");
+        Candidate c = Candidate.of(3, "Jane", "Smith", "jane@example.net", null);
+
+        assertTrue(GuestDuplicateMatcher.isFirstSharedKey(a, b, GuestDuplicateMatcher.PHONE));
+        assertFalse(GuestDuplicateMatcher.isFirstSharedKey(a, b, GuestDuplicateMatcher.EMAIL_LOCAL_PART));
+        assertFalse(GuestDuplicateMatcher.isFirstSharedKey(a, b, GuestDuplicateMatcher.NAME));
+        assertTrue(GuestDuplicateMatcher.isFirstSharedKey(a, c, GuestDuplicateMatcher.EMAIL_LOCAL_PART));
+        assertFalse(GuestDuplicateMatcher.isFirstSharedKey(a, c, GuestDuplicateMatcher.NAME));
+    }
+}
@@ -0,0 +1,70 @@
+package com.klm.pms.service;
+
+import com.klm.pms.service.RateMatrix.Snapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the copy-on-write {@link RateMatrix} snapshots.
+ */
+public class RateMatrixTest {
+
+    private static Snapshot loaded() {
+        return Snapshot.of(List.of(
+                new Object[]{1L, 10L, new BigDecimal("100.00")},
+                new Object[]{1L, 20L, new BigDecimal("150.00")},
+                new Object[]{2L, 10L, new BigDecimal("90.00")}));
+    }
+
+    @Test
+    @DisplayName("Loaded rates are found; missing combinations are not")
+    public void testOf() {
+        Snapshot snapshot = loaded();
+        assertEquals(new BigDecimal("150.00"), snapshot.get(1L, 20L));
+        assertEquals(new BigDecimal("90.00"), snapshot.get(2L, 10L));
+        assertNull(snapshot.get(2L, 20L));
+        assertNull(snapshot.get(3L, 10L));
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("Changes yield a new snapshot and leave the previous one untouched")
+    public void testWith() {
+        Snapshot snapshot = loaded();
+        Snapshot updated = snapshot.with(1L, 10L, new BigDecimal("110.00"));
+        assertEquals(new BigDecimal("110.00"), updated.get(1L, 10L));
+        assertEquals(new BigDecimal("100.00"), snapshot.get(1L, 10L));
+        assertEquals(3, updated.size());
+
+        Snapshot grown = updated.with(3L, 30L, new BigDecimal("200.00"));
+        assertEquals(new BigDecimal("200.00"), grown.get(3L, 30L));
+        assertEquals(new BigDecimal("150.00"), grown.get(1L, 20L));
+        assertNull(grown.get(1L, 30L));
+        assertNull(updated.get(3L, 30L));
+        assertEquals(4, grown.size());
+
+        Snapshot removed = grown.with(1L, 20L, null);
+        assertNull(removed.get(1L, 20L));
+        assertEquals(new BigDecimal("150.00"), grown.get(1L, 20L));
+        assertEquals(3, removed.size());
+        assertSame(removed, removed.with(1L, 20L, null));
+    }
+
+    @Test
+    @DisplayName("Removing a rate type drops all of its rates")
+    public void testWithoutRow() {
+        Snapshot snapshot = loaded();
+        Snapshot removed = snapshot.withoutRow(1L);
+        assertNull(removed.get(1L, 10L));
+        assertNull(removed.get(1L, 20L));
+        assertEquals(new BigDecimal("90.00"), removed.get(2L, 10L));
+        assertEquals(new BigDecimal("100.00"), snapshot.get(1L, 10L));
+        assertEquals(1, removed.size());
+        assertSame(removed, removed.withoutRow(5L));
+    }
+}
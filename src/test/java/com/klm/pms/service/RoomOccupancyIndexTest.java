@@ -0,0 +1,74 @@
+package com.klm.pms.service;
+
+import com.klm.pms.repository.ReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RoomOccupancyIndex} rebuilds racing with bookings.
+ */
+public class RoomOccupancyIndexTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+
+    /**
+     * Index whose reservations query returns the given stays after running {@code duringQuery},
+     * standing in for a booking that commits while the rebuild reads the table.
+     */
+    private static RoomOccupancyIndex index(List<Object[]> stays, Runnable[] duringQuery) {
+        ReservationRepository repository = (ReservationRepository) Proxy.newProxyInstance(
+                ReservationRepository.class.getClassLoader(), new Class<?>[]{ReservationRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findActiveStaysEndingAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (duringQuery[0] != null) {
+                        duringQuery[0].run();
+                    }
+                    return stays;
+                });
+        RoomOccupancyIndex index = new RoomOccupancyIndex();
+        ReflectionTestUtils.setField(index, "reservationRepository", repository);
+        return index;
+    }
+
+    @Test
+    @DisplayName("A booking made while the index is rebuilt survives the rebuild")
+    public void testBookingDuringRebuild() {
+        Runnable[] duringQuery = new Runnable[1];
+        RoomOccupancyIndex index = index(List.<Object[]>of(new Object[]{1L, CHECK_IN, CHECK_OUT}), duringQuery);
+        index.rebuild();
+
+        duringQuery[0] = () -> index.book(2L, CHECK_IN, CHECK_OUT);
+        index.rebuild();
+
+        assertEquals(Set.of(1L, 2L), index.findOccupiedRoomIds(List.of(1L, 2L, 3L), CHECK_IN, CHECK_OUT));
+    }
+
+    @Test
+    @DisplayName("A cancellation made while the index is rebuilt survives the rebuild")
+    public void testReleaseDuringRebuild() {
+        Runnable[] duringQuery = new Runnable[1];
+        RoomOccupancyIndex index = index(List.<Object[]>of(new Object[]{1L, CHECK_IN, CHECK_OUT}), duringQuery);
+        index.rebuild();
+        assertTrue(index.covers(CHECK_IN));
+
+        duringQuery[0] = () -> index.release(1L, CHECK_IN, CHECK_OUT);
+        index.rebuild();
+
+        assertEquals(Set.of(), index.findOccupiedRoomIds(List.of(1L), CHECK_IN, CHECK_OUT));
+
+        duringQuery[0] = null;
+        index.book(1L, CHECK_IN.plusDays(1), CHECK_IN.plusDays(2));
+        assertEquals(Set.of(1L), index.findOccupiedRoomIds(List.of(1L), CHECK_IN, CHECK_OUT));
+    }
+}
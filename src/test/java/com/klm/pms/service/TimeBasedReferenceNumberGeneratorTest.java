@@ -0,0 +1,115 @@
+package com.klm.pms.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TimeBasedReferenceNumberGenerator}. Its throughput is measured by
+ * {@code ReferenceNumberGeneratorBenchmark}.
+ */
+public class TimeBasedReferenceNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("Numbers keep the prefix and use 13 Crockford base32 characters")
+    public void testFormat() {
+        TimeBasedReferenceNumberGenerator generator = new TimeBasedReferenceNumberGenerator(7);
+
+        String number = generator.next("RES");
+
+        assertEquals(16, number.length());
+        assertTrue(number.startsWith("RES"), number);
+        assertTrue(number.substring(3).matches("[0-9A-HJKMNP-TV-Z]{13}"), number);
+    }
+
+    @Test
+    @DisplayName("Numbers from one generator sort in creation order")
+    public void testOrdering() {
+        TimeBasedReferenceNumberGenerator generator = new TimeBasedReferenceNumberGenerator(0);
+
+        String previous = generator.next("INV");
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.next("INV");
+            assertTrue(next.compareTo(previous) > 0, previous + " should sort before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Node ids outside 0-1023 are rejected")
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeBasedReferenceNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeBasedReferenceNumberGenerator(TimeBasedReferenceNumberGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never receive the same number")
+    public void testNoCollisionsAcrossThreads() throws Exception {
+        TimeBasedReferenceNumberGenerator generator = new TimeBasedReferenceNumberGenerator(1);
+        int perThread = 125_000;
+
+        List<List<String>> results = runConcurrently(THREADS, () -> {
+            List<String> numbers = new ArrayList<>(perThread);
+            for (int i = 0; i < perThread; i++) {
+                numbers.add(generator.next("RES"));
+            }
+            return numbers;
+        });
+
+        Set<String> unique = new HashSet<>(THREADS * perThread);
+        results.forEach(unique::addAll);
+        assertEquals(THREADS * perThread, unique.size(), "Every generated number should be unique");
+    }
+
+    @Test
+    @DisplayName("Generators on different nodes never produce the same number")
+    public void testNoCollisionsAcrossNodes() throws Exception {
+        TimeBasedReferenceNumberGenerator node1 = new TimeBasedReferenceNumberGenerator(1);
+        TimeBasedReferenceNumberGenerator node2 = new TimeBasedReferenceNumberGenerator(2);
+        int perNode = 100_000;
+
+        Set<String> unique = new HashSet<>(2 * perNode);
+        for (int i = 0; i < perNode; i++) {
+            unique.add(node1.next("INV"));
+            unique.add(node2.next("INV"));
+        }
+        assertEquals(2 * perNode, unique.size(), "Numbers of different nodes should never collide");
+    }
+
+    private static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
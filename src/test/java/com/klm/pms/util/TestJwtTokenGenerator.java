@@ -7,6 +7,7 @@ import javax.crypto.SecretKey;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -154,6 +155,29 @@ public class TestJwtTokenGenerator {
                 .compact();
     }
 
+    /**
+     * Generate a valid JWT token carrying a "roles" claim, for endpoints guarded by @RequireRole.
+     * Uses the secret key from application.properties.
+     * 
+     * @param username The username (subject) to include in the token
+     * @param roles The roles to include in the token
+     * @return A valid JWT token string
+     */
+    public static String generateTokenWithRoles(String username, List<String> roles) {
+        Date now = new Date();
+        Date expiration = new Date(now.getTime() + DEFAULT_EXPIRATION_MS);
+
+        SecretKey key = Keys.hmacShaKeyFor(getDefaultSecret().getBytes(StandardCharsets.UTF_8));
+
+        return Jwts.builder()
+                .subject(username)
+                .claim("roles", roles)
+                .issuedAt(now)
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+
     /**
      * Generate an expired JWT token for testing expiration scenarios.
      * Uses the secret key from application.properties.